@@ -0,0 +1,63 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.dto.ClassSummaryDTO;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.service.ClassAvailabilityIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The member app's class lists: the availability index against the entity queries it
+ * replaces. The seeded timetable spans 30 days back and 30 days ahead, so the index holds
+ * about half of the classes the old "available" query loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailableClassesBenchmark {
+
+    @Benchmark
+    public List<ClassSummaryDTO> availableIndex(GymState state) {
+        return state.bean(ClassAvailabilityIndex.class).find(null, null, null, null, null, null, null, true);
+    }
+
+    @Benchmark
+    public List<FitnessClass> availableQuery(GymState state) {
+        return state.bean(FitnessClassRepository.class).findByCurrentEnrollmentLessThanMaxCapacity();
+    }
+
+    // One week, one level, one room and a price band, as the app's filter screen sends them
+    @Benchmark
+    public List<ClassSummaryDTO> filteredIndex(GymState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime from = LocalDateTime.now().plusDays(random.nextInt(23));
+        ClassLevel level = ClassLevel.values()[random.nextInt(ClassLevel.values().length)];
+        return state.bean(ClassAvailabilityIndex.class).find(from, from.plusDays(7), level,
+                "Room " + (1 + random.nextInt(10)), 15.0, 40.0, null, true);
+    }
+
+    @Benchmark
+    public List<ClassSummaryDTO> upcomingIndex(GymState state) {
+        return state.bean(ClassAvailabilityIndex.class).find(null, null, null, null, null, null, null, false);
+    }
+
+    @Benchmark
+    public List<FitnessClass> upcomingQuery(GymState state) {
+        return state.bean(FitnessClassRepository.class).findByStartTimeAfter(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,206 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Gender;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.Payment;
+import com.gym.gym.model.Role;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.model.User;
+import com.gym.gym.repository.ClassBookingRepository;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.MemberRepository;
+import com.gym.gym.repository.PaymentRepository;
+import com.gym.gym.repository.TrainerRepository;
+import com.gym.gym.repository.UserRepository;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds the benchmark database with a deterministic data set of the requested size.
+ *
+ * Rows go in through the repositories rather than the services, so seeding does not
+ * trigger notifications, reminders or dashboard counters. Every member gets the same
+ * pre-encoded password, since BCrypt per row would dominate seeding time.
+ */
+public class BenchmarkDataGenerator {
+
+    static final String[] SPECIALIZATIONS = {"Yoga", "Pilates", "Strength", "HIIT", "Boxing", "Spinning"};
+
+    private static final int CHUNK = 500;
+
+    private final Random random = new Random(42);
+    private final ApplicationContext context;
+
+    /**
+     * IDs of the seeded rows, for benchmarks to pick from
+     */
+    public static class SeededData {
+        public final List<Long> memberIds = new ArrayList<>();
+        public final List<Long> trainerIds = new ArrayList<>();
+        public final List<Long> classIds = new ArrayList<>();
+        // Has no bookings or payments, so write benchmarks can always book it into any class
+        public Member freshMember;
+        // Member user whose token the JWT filter benchmark authenticates
+        public User tokenUser;
+    }
+
+    public BenchmarkDataGenerator(ApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Seed members, trainers, classes, bookings and payments
+     * @param members Number of members
+     * @param trainers Number of trainers
+     * @param classes Number of fitness classes
+     * @param bookingsPerMember Confirmed bookings per member, each on a distinct class
+     * @return IDs of the seeded rows
+     */
+    public SeededData seed(int members, int trainers, int classes, int bookingsPerMember) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        TrainerRepository trainerRepository = context.getBean(TrainerRepository.class);
+        FitnessClassRepository fitnessClassRepository = context.getBean(FitnessClassRepository.class);
+        ClassBookingRepository classBookingRepository = context.getBean(ClassBookingRepository.class);
+        PaymentRepository paymentRepository = context.getBean(PaymentRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("benchmark");
+
+        SeededData data = new SeededData();
+
+        List<Trainer> trainerRows = new ArrayList<>();
+        for (int i = 0; i < trainers; i++) {
+            Trainer trainer = new Trainer();
+            trainer.setUser(userRepository.save(user("trainer" + i, Role.ROLE_TRAINER, password)));
+            trainer.setDateOfBirth(LocalDate.of(1980 + random.nextInt(20), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            trainer.setGender(Gender.values()[random.nextInt(2)]);
+            Set<String> specializations = new HashSet<>();
+            specializations.add(SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]);
+            specializations.add(SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]);
+            trainer.setSpecializations(specializations);
+            trainer.setHourlyRate(30 + random.nextInt(70));
+            trainer.setAvailable(random.nextInt(4) != 0);
+            trainerRows.add(trainer);
+        }
+        for (Trainer trainer : trainerRepository.saveAll(trainerRows)) {
+            data.trainerIds.add(trainer.getId());
+        }
+
+        List<Member> memberRows = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            memberRows.add(member("member" + i, password));
+            if (memberRows.size() == CHUNK || i == members - 1) {
+                for (Member member : memberRepository.saveAll(memberRows)) {
+                    data.memberIds.add(member.getId());
+                }
+                memberRows.clear();
+            }
+        }
+        data.freshMember = memberRepository.save(member("fresh-member", password));
+        data.tokenUser = data.freshMember.getUser();
+
+        // Decide bookings first so each class is saved with a matching enrollment count
+        int perMember = Math.min(bookingsPerMember, classes);
+        int[][] bookedClasses = new int[members][perMember];
+        int[] enrollment = new int[classes];
+        for (int m = 0; m < members; m++) {
+            int first = random.nextInt(classes);
+            for (int b = 0; b < perMember; b++) {
+                int c = (first + b) % classes;
+                bookedClasses[m][b] = c;
+                enrollment[c]++;
+            }
+        }
+
+        List<FitnessClass> classRows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < classes; i++) {
+            FitnessClass fitnessClass = new FitnessClass();
+            String specialization = SPECIALIZATIONS[i % SPECIALIZATIONS.length];
+            fitnessClass.setName(specialization + " " + i);
+            fitnessClass.setDescription(specialization + " session " + i);
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 60) - 24 * 30);
+            fitnessClass.setStartTime(start);
+            fitnessClass.setEndTime(start.plusHours(1));
+            fitnessClass.setMaxCapacity(enrollment[i] + 20);
+            fitnessClass.setCurrentEnrollment(enrollment[i]);
+            fitnessClass.setTrainer(trainerRows.get(i % trainerRows.size()));
+            fitnessClass.setRoom("Room " + (1 + i % 10));
+            fitnessClass.setPrice(10 + random.nextInt(40));
+            fitnessClass.setLevel(ClassLevel.values()[i % ClassLevel.values().length]);
+            classRows.add(fitnessClass);
+        }
+        classRows = fitnessClassRepository.saveAll(classRows);
+        for (FitnessClass fitnessClass : classRows) {
+            data.classIds.add(fitnessClass.getId());
+        }
+
+        List<ClassBooking> bookingRows = new ArrayList<>();
+        List<Payment> paymentRows = new ArrayList<>();
+        for (int m = 0; m < members; m++) {
+            Member member = memberRepository.getReferenceById(data.memberIds.get(m));
+            for (int c : bookedClasses[m]) {
+                FitnessClass fitnessClass = classRows.get(c);
+                ClassBooking booking = new ClassBooking(LocalDateTime.now().minusDays(random.nextInt(60)));
+                booking.setMember(member);
+                booking.setFitnessClass(fitnessClass);
+                booking.setStatus("CONFIRMED");
+                bookingRows.add(booking);
+            }
+            if (bookingRows.size() >= CHUNK || m == members - 1) {
+                for (ClassBooking booking : classBookingRepository.saveAll(bookingRows)) {
+                    // Roughly half of the bookings are paid, the rest still pending
+                    Payment payment = new Payment(booking.getMember(), booking.getFitnessClass(), booking,
+                            booking.getFitnessClass().getPrice());
+                    if (random.nextBoolean()) {
+                        payment.setStatus("PAID");
+                        payment.setPaymentMethod("CARD");
+                        payment.setPaymentDate(booking.getBookingDate());
+                    }
+                    paymentRows.add(payment);
+                }
+                paymentRepository.saveAll(paymentRows);
+                bookingRows.clear();
+                paymentRows.clear();
+            }
+        }
+        return data;
+    }
+
+    private User user(String username, Role role, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFirstName("First" + username);
+        user.setLastName("Last" + username);
+        user.setEmail(username + "@benchmark.local");
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+
+    private Member member(String username, String password) {
+        Member member = new Member();
+        member.setUser(user(username, Role.ROLE_MEMBER, password));
+        member.setName("First" + username + " Last" + username);
+        member.setDateOfBirth(LocalDate.of(1970 + random.nextInt(35), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        member.setGender(Gender.values()[random.nextInt(2)]);
+        LocalDateTime start = LocalDateTime.now().minusDays(random.nextInt(365));
+        member.setMembershipStartDate(start);
+        member.setMembershipEndDate(start.plusDays(30 + random.nextInt(365)));
+        member.setMembershipType(MembershipType.values()[random.nextInt(MembershipType.values().length)]);
+        member.setActive(random.nextInt(10) != 0);
+        return member;
+    }
+}
@@ -0,0 +1,75 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.config.SqlStatementTracker;
+import com.gym.gym.model.FitnessProgress;
+import com.gym.gym.model.Member;
+import com.gym.gym.repository.FitnessProgressRepository;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting N fitness progress rows with saveAll, rolled back after each call.
+ *
+ * The roundTrips counter reports the JDBC executions of the last call in each iteration;
+ * JMH's summary line adds the iterations up. With sequence IDs and
+ * hibernate.jdbc.batch_size=50 it is 2 * N / 50 (one INSERT batch plus one ID block fetch
+ * per 50 rows), not N: 4 for 100 rows and 40 for 1000 rows on H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long roundTrips;
+    }
+
+    @Benchmark
+    public List<FitnessProgress> insertProgress(GymState state, RoundTrips counters) {
+        FitnessProgressRepository repository = state.bean(FitnessProgressRepository.class);
+        Member member = state.data.freshMember;
+        LocalDate start = LocalDate.now().minusDays(rows);
+
+        SqlStatementTracker.start();
+        try {
+            return state.inRolledBackTransaction(() -> {
+                List<FitnessProgress> entries = new ArrayList<>(rows);
+                for (int i = 0; i < rows; i++) {
+                    FitnessProgress progress = new FitnessProgress();
+                    progress.setMember(member);
+                    progress.setDate(start.plusDays(i));
+                    progress.setWeight(80 - i * 0.01);
+                    entries.add(progress);
+                }
+                List<FitnessProgress> saved = repository.saveAll(entries);
+                repository.flush();
+                return saved;
+            });
+        } finally {
+            counters.roundTrips = SqlStatementTracker.stop().getExecutions();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.service.ClassBookingService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassBookingService.createBooking for a member with no bookings, rolled back after each call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassBookingBenchmark {
+
+    @Benchmark
+    public ClassBooking createBooking(GymState state) {
+        ClassBookingService service = state.bean(ClassBookingService.class);
+        Long memberId = state.data.freshMember.getId();
+        Long classId = state.randomClassId();
+        return state.inRolledBackTransaction(() -> service.createBooking(memberId, classId));
+    }
+}
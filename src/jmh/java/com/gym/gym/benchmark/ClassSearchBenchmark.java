@@ -0,0 +1,35 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.service.FitnessClassService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FitnessClassService.searchClasses with a word prefix, served by the keyword index
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassSearchBenchmark {
+
+    @Benchmark
+    public List<FitnessClass> searchClasses(GymState state) {
+        String specialization = BenchmarkDataGenerator.SPECIALIZATIONS[
+                ThreadLocalRandom.current().nextInt(BenchmarkDataGenerator.SPECIALIZATIONS.length)];
+        return state.bean(FitnessClassService.class).searchClasses(specialization.substring(0, 3).toLowerCase(Locale.ROOT));
+    }
+}
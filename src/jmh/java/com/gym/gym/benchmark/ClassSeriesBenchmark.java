@@ -0,0 +1,75 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.dto.ClassSeriesRequest;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.service.FitnessClassService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FitnessClassService.createSeries for a Mon/Wed/Fri class over a quarter (36 classes by
+ * default), conflict check included, rolled back after each call. The series is placed
+ * years after the seeded classes, so the conflict query comes back empty and every call
+ * inserts the full series.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassSeriesBenchmark {
+
+    @Param("12")
+    public int weeks;
+
+    private ClassSeriesRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(GymState state) {
+        Trainer trainer = new Trainer();
+        trainer.setId(state.data.trainerIds.get(0));
+
+        FitnessClass template = new FitnessClass();
+        template.setName("Series class");
+        template.setDescription("Recurring series benchmark");
+        LocalDateTime start = LocalDateTime.now().plusYears(5).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        template.setStartTime(start);
+        template.setEndTime(start.plusHours(1));
+        template.setMaxCapacity(20);
+        template.setTrainer(trainer);
+        template.setRoom("Series Room");
+        template.setPrice(15);
+        template.setLevel(ClassLevel.ALL_LEVELS);
+
+        request = new ClassSeriesRequest();
+        request.setTemplate(template);
+        request.setDaysOfWeek(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+        request.setWeeks(weeks);
+    }
+
+    @Benchmark
+    public List<FitnessClass> createQuarterSeries(GymState state) {
+        FitnessClassService service = state.bean(FitnessClassService.class);
+        return state.inRolledBackTransaction(() -> service.createSeries(request));
+    }
+}
@@ -0,0 +1,36 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.service.DashboardService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard queries over the seeded data set. Run with several -p trainers=... values to
+ * check that trainer analytics grow linearly with the number of trainers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Benchmark
+    public Map<String, Object> getAllDashboardData(GymState state) {
+        return state.bean(DashboardService.class).getAllDashboardData();
+    }
+
+    @Benchmark
+    public Map<String, Object> getTrainerAnalytics(GymState state) {
+        return state.bean(DashboardService.class).getTrainerAnalytics();
+    }
+}
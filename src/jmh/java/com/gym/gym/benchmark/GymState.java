@@ -0,0 +1,92 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.GymManagementApplication;
+import com.gym.gym.service.ClassAvailabilityIndex;
+import com.gym.gym.service.ClassScheduleIndex;
+import com.gym.gym.service.DashboardMetricsService;
+import com.gym.gym.service.KeywordSearchService;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Application context plus seeded data shared by all benchmarks of a trial.
+ *
+ * The data set size is set with JMH parameters, e.g. -p members=10000 -p classes=1000.
+ */
+@State(Scope.Benchmark)
+public class GymState {
+
+    @Param("1000")
+    public int members;
+
+    @Param("20")
+    public int trainers;
+
+    @Param("200")
+    public int classes;
+
+    @Param("3")
+    public int bookingsPerMember;
+
+    public ConfigurableApplicationContext context;
+    public BenchmarkDataGenerator.SeededData data;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GymManagementApplication.class)
+                .profiles("benchmark")
+                .run();
+        data = new BenchmarkDataGenerator(context).seed(members, trainers, classes, bookingsPerMember);
+        // Seeding bypasses the services, so index and count what it wrote
+        context.getBean(KeywordSearchService.class).rebuild();
+        context.getBean(ClassScheduleIndex.class).rebuild();
+        context.getBean(ClassAvailabilityIndex.class).rebuild();
+        context.getBean(DashboardMetricsService.class).rebuild();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long randomClassId() {
+        return pick(data.classIds);
+    }
+
+    /**
+     * Run a write inside a transaction that is always rolled back, so repeated invocations
+     * measure the same data set instead of one that grows with every iteration
+     * @param work Write to measure
+     * @return Result of the write
+     */
+    public <T> T inRolledBackTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return work.get();
+        });
+    }
+
+    private static Long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.model.JwtAuthenticationFilter;
+import com.gym.gym.model.JwtUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter authenticating one request with a valid bearer token
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TokenState {
+        JwtAuthenticationFilter filter;
+        String authorization;
+
+        @Setup(Level.Trial)
+        public void setUp(GymState state) {
+            filter = state.bean(JwtAuthenticationFilter.class);
+            authorization = "Bearer " + state.bean(JwtUtils.class).generateToken(state.data.tokenUser);
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate(TokenState token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/members/me");
+        request.addHeader("Authorization", token.authorization);
+        try {
+            token.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
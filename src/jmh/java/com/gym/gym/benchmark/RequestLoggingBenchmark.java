@@ -0,0 +1,92 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.GymManagementApplication;
+import com.gym.gym.model.JwtUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of an authenticated GET /api/classes/{id} over HTTP under two logging setups:
+ * "verbose" is the default configuration (show-sql, DEBUG application, web, security and
+ * SQL logging, written synchronously to the console), "prod" is the prod profile (INFO
+ * levels, sampled SQL, async appender). Verbose runs print their log output.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String[] VERBOSE_LOGGING = {
+        "--spring.jpa.show-sql=true",
+        "--logging.level.com.gym.gym=DEBUG",
+        "--logging.level.org.springframework.web=DEBUG",
+        "--logging.level.org.springframework.security=DEBUG",
+        "--logging.level.org.hibernate.SQL=DEBUG",
+        "--logging.level.org.hibernate.orm.jdbc.bind=TRACE"
+    };
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        @Param({"verbose", "prod"})
+        public String logging;
+
+        ConfigurableApplicationContext context;
+        BenchmarkDataGenerator.SeededData data;
+        HttpClient client;
+        String baseUrl;
+        String authorization;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            boolean prod = "prod".equals(logging);
+            context = new SpringApplicationBuilder(GymManagementApplication.class)
+                    .profiles(prod ? new String[] {"benchmark", "prod"} : new String[] {"benchmark"})
+                    .run(prod ? new String[0] : VERBOSE_LOGGING);
+            data = new BenchmarkDataGenerator(context).seed(200, 10, 50, 2);
+            client = HttpClient.newHttpClient();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            authorization = "Bearer " + context.getBean(JwtUtils.class).generateToken(data.tokenUser);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int getClass(ServerState state) throws Exception {
+        Long classId = state.data.classIds.get(ThreadLocalRandom.current().nextInt(state.data.classIds.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(state.baseUrl + "/api/classes/" + classId))
+                .header("Authorization", state.authorization)
+                .GET()
+                .build();
+        return state.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
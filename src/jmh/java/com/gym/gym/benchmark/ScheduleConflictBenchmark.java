@@ -0,0 +1,61 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.service.ClassScheduleIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room/trainer double-booking check for one proposed class: the interval-tree index
+ * against the overlap query it replaces. Proposed times fall within the seeded timetable
+ * (the next 30 days), so some of them conflict.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+
+    private static final Duration LENGTH = Duration.ofHours(1);
+
+    @Benchmark
+    public List<ClassScheduleIndex.Conflict> index(GymState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return state.bean(ClassScheduleIndex.class).findConflicts(randomTrainer(state, random), randomRoom(random),
+                List.of(randomStart(random)), LENGTH, null);
+    }
+
+    @Benchmark
+    public List<Object[]> query(GymState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = randomStart(random);
+        return state.bean(FitnessClassRepository.class).findScheduledForTrainerOrRoom(randomTrainer(state, random),
+                randomRoom(random), start, start.plus(LENGTH));
+    }
+
+    private static Long randomTrainer(GymState state, ThreadLocalRandom random) {
+        return state.data.trainerIds.get(random.nextInt(state.data.trainerIds.size()));
+    }
+
+    // Matches the rooms BenchmarkDataGenerator assigns
+    private static String randomRoom(ThreadLocalRandom random) {
+        return "Room " + (1 + random.nextInt(10));
+    }
+
+    private static LocalDateTime randomStart(ThreadLocalRandom random) {
+        return LocalDateTime.now().withMinute(0).withSecond(0).withNano(0).plusHours(1 + random.nextInt(24 * 30));
+    }
+}
@@ -0,0 +1,34 @@
+package com.gym.gym.benchmark;
+
+import com.gym.gym.dto.TrainerSearchDTO;
+import com.gym.gym.service.TrainerService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrainerService.searchTrainers with all three filters set
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrainerSearchBenchmark {
+
+    @Benchmark
+    public List<TrainerSearchDTO> searchTrainers(GymState state) {
+        String specialization = BenchmarkDataGenerator.SPECIALIZATIONS[
+                ThreadLocalRandom.current().nextInt(BenchmarkDataGenerator.SPECIALIZATIONS.length)];
+        return state.bean(TrainerService.class).searchTrainers(specialization, true, 80.0);
+    }
+}
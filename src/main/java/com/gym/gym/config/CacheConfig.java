@@ -0,0 +1,14 @@
+package com.gym.gym.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction, so Spring Boot sets up the Caffeine CacheManager
+ * described by spring.cache.* and binds its caches' hit/miss statistics to Micrometer
+ * (cache.gets, cache.puts, cache.evictions under /actuator/metrics).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
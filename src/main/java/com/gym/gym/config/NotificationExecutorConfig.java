@@ -0,0 +1,44 @@
+package com.gym.gym.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pools for the email outbox, off the request and scheduler threads: one
+ * plans notification jobs, the other delivers outbox emails. Neither runs work on the
+ * submitting thread when it is full; tasks are rejected instead. EmailOutboxService turns
+ * a rejected job into a 503 for the caller, and the dispatcher only claims as many emails
+ * as the delivery queue has room for, leaving the rest for a later tick.
+ */
+@Configuration
+public class NotificationExecutorConfig {
+
+    @Bean(name = "notificationPlannerExecutor")
+    public ThreadPoolTaskExecutor notificationPlannerExecutor(
+            @Value("${notification.outbox.planner-threads:2}") int plannerThreads,
+            @Value("${notification.outbox.planner-queue-capacity:50}") int queueCapacity) {
+        return boundedExecutor("notification-planner-", plannerThreads, queueCapacity);
+    }
+
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${notification.outbox.worker-threads:4}") int workerThreads,
+            @Value("${notification.outbox.queue-capacity:500}") int queueCapacity) {
+        return boundedExecutor("notification-", workerThreads, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        // Default AbortPolicy: a full queue rejects with TaskRejectedException
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.gym.gym.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (dashboard snapshot flushing, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,116 @@
+package com.gym.gym.config;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fails startup when the database lacks an index declared on the entities.
+ *
+ * ddl-auto=validate catches missing tables and columns and Flyway catches edited
+ * migrations, but neither looks at indexes, so an index that was never migrated or was
+ * dropped by hand would otherwise only show up as slow queries. Runs once all singletons
+ * exist (so after the migrations) and before the web server starts taking requests.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.drift-check.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaDriftCheck implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaDriftCheck.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, Set<String>> declared = declaredIndexes();
+        List<String> missing = new ArrayList<>();
+        int checked = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, Set<String>> table : declared.entrySet()) {
+                Set<String> present = existingIndexes(metaData, connection.getCatalog(), connection.getSchema(), table.getKey());
+                for (String index : table.getValue()) {
+                    checked++;
+                    if (!present.contains(index)) {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read index metadata for the schema drift check", e);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database is missing indexes declared on the entities " + missing
+                    + "; apply the migrations in db/migration");
+        }
+        log.info("Schema drift check passed: {} declared indexes present", checked);
+    }
+
+    /**
+     * @return Lower-cased index names per table, from @Table and @CollectionTable annotations
+     */
+    private Map<String, Set<String>> declaredIndexes() {
+        Map<String, Set<String>> declared = new TreeMap<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            if (table != null) {
+                addIndexes(declared, table.name(), table.indexes());
+            }
+            for (Field field : type.getDeclaredFields()) {
+                CollectionTable collectionTable = field.getAnnotation(CollectionTable.class);
+                if (collectionTable != null) {
+                    addIndexes(declared, collectionTable.name(), collectionTable.indexes());
+                }
+            }
+        }
+        return declared;
+    }
+
+    private static void addIndexes(Map<String, Set<String>> declared, String table, Index[] indexes) {
+        for (Index index : indexes) {
+            declared.computeIfAbsent(table, t -> new HashSet<>()).add(index.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static Set<String> existingIndexes(DatabaseMetaData metaData, String catalog, String schema, String table)
+            throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, schema, table, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -2,6 +2,8 @@ package com.gym.gym.config;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,7 +12,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity; // Added for @EnableMethodSecurity
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -21,14 +22,17 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.gym.gym.model.JwtAuthenticationFilter;
 import com.gym.gym.model.JwtUtils;
+import com.gym.gym.service.TokenVersionService;
+import com.gym.gym.service.UserDetailsCacheService;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtUtils, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsCacheService userDetailsCacheService,
+                                                           TokenVersionService tokenVersionService) {
+        return new JwtAuthenticationFilter(jwtUtils, userDetailsCacheService, tokenVersionService);
     }
 
     // @Bean
@@ -52,6 +56,9 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticat
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
+            // Streamed responses (exports) finish on an async dispatch; the request itself was already authorized
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
             // Allow pre-flight OPTIONS requests
             .requestMatchers(HttpMethod.OPTIONS, "/").permitAll()
 
@@ -69,6 +76,7 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticat
 
             // Admin-only endpoints
             .requestMatchers("/api/admins/").hasAuthority("ROLE_ADMIN")
+            .requestMatchers(HttpMethod.GET, "/api/exports/**").hasAuthority("ROLE_ADMIN") // Only admins can export payments, bookings and progress
 
             // Class Bookings Endpoints (Granular Control) - THIS IS MUCH BETTER
             .requestMatchers(HttpMethod.POST, "/api/class-bookings").authenticated() // Members can create bookings
@@ -98,6 +106,7 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticat
             .requestMatchers(HttpMethod.GET, "/api/members/").authenticated() // Members can view their own profile, Admins can view all
             .requestMatchers("/api/members/").hasAuthority("ROLE_ADMIN") // Admins can manage all members
             .requestMatchers(HttpMethod.POST, "/api/classes/").hasAuthority("ROLE_ADMIN")
+            .requestMatchers(HttpMethod.POST, "/api/classes/series").hasAuthority("ROLE_ADMIN") // Only admins can create timetables
             .requestMatchers(HttpMethod.PUT, "/api/classes/").hasAuthority("ROLE_ADMIN")
             .requestMatchers(HttpMethod.DELETE, "/api/classes/").hasAuthority("ROLE_ADMIN")
             .requestMatchers(HttpMethod.GET, "/api/classes/").permitAll() // Anyone can view classes schedules
@@ -159,7 +168,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticat
             "Access-Control-Request-Method",
             "Access-Control-Request-Headers"
         ));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization",
+            SqlStatsResponseAdvice.STATEMENTS_HEADER, SqlStatsResponseAdvice.TIME_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,51 @@
+package com.gym.gym.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the @Service beans in com.gym.gym.service as
+ * gym.service.calls{class, method, outcome, exception}. Its percentile histogram is turned
+ * on in application.properties, so latency percentiles can be computed per method from
+ * /actuator/prometheus.
+ *
+ * Repository calls are timed by Spring Boot itself (spring.data.repository.invocations,
+ * tagged by repository and method). Calls between methods of the same service are not
+ * seen by the proxy and are counted as part of their caller.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String METRIC = "gym.service.calls";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("within(com.gym.gym.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
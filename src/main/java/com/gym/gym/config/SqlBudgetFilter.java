@@ -0,0 +1,92 @@
+package com.gym.gym.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tracks the SQL statements each HTTP request runs (see SqlStatementTracker).
+ *
+ * Every request records gym.sql.statements and gym.sql.time, tagged with its endpoint
+ * pattern. A request that runs more than sql.budget.max-statements statements is logged
+ * as over budget, and any single statement it ran at least sql.budget.repeat-threshold
+ * times is logged as a likely N+1. SqlStatsResponseAdvice also returns the counts in the
+ * X-SQL-Statements and X-SQL-Time-Ms response headers.
+ *
+ * Runs ahead of the security filters, so token and user lookups are counted too. Work a
+ * request hands to another thread (streamed exports, notification jobs) is not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.budget.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${sql.budget.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementTracker.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementTracker.Stats stats = SqlStatementTracker.stop();
+            if (stats != null) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementTracker.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+
+        meterRegistry.summary("gym.sql.statements", "endpoint", endpoint).record(stats.getStatements());
+        Timer.builder("gym.sql.time").tag("endpoint", endpoint).register(meterRegistry)
+                .record(Duration.ofNanos(stats.getExecutionNanos()));
+
+        if (stats.getStatements() > maxStatements) {
+            log.warn("{} ran {} SQL statements ({} ms), over the budget of {}", endpoint, stats.getStatements(),
+                    stats.getExecutionNanos() / 1_000_000, maxStatements);
+        }
+        for (Map.Entry<String, Integer> entry : stats.getCountsBySql().entrySet()) {
+            if (entry.getValue() >= repeatThreshold) {
+                log.warn("Possible N+1 in {}: statement ran {} times: {}", endpoint, entry.getValue(), entry.getKey());
+            }
+        }
+    }
+}
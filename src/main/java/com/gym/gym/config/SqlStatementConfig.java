@@ -0,0 +1,23 @@
+package com.gym.gym.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the SqlStatementTracker hooks with Hibernate
+ */
+@Configuration
+public class SqlStatementConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementTrackerCustomizer(
+            @Value("${sql.log.sample-rate:0}") double sqlLogSampleRate) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementTracker.Inspector(sqlLogSampleRate));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementTracker.TimingListener.class.getName());
+        };
+    }
+}
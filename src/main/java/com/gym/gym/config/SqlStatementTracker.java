@@ -0,0 +1,163 @@
+package com.gym.gym.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts the SQL statements, and the time spent executing them, on the current thread
+ * between start() and stop(). SqlBudgetFilter brackets every HTTP request with these, so
+ * the numbers describe one request; code running outside a request is not tracked.
+ *
+ * Hibernate reports statements through two hooks registered in SqlStatementConfig: the
+ * StatementInspector sees the SQL text of every statement it prepares, and the
+ * session event listener is told when JDBC executions start and end.
+ */
+public final class SqlStatementTracker {
+
+    /**
+     * Statements seen on one thread since start()
+     */
+    public static final class Stats {
+        private int statements;
+        private int executions;
+        private long executionNanos;
+        private long executionStartedAt;
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+
+        /**
+         * @return Number of statements prepared
+         */
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * @return Number of JDBC executions, i.e. database round-trips; a batch counts once
+         */
+        public int getExecutions() {
+            return executions;
+        }
+
+        /**
+         * @return Total JDBC execution time in nanoseconds
+         */
+        public long getExecutionNanos() {
+            return executionNanos;
+        }
+
+        /**
+         * @return How often each distinct SQL string was prepared
+         */
+        public Map<String, Integer> getCountsBySql() {
+            return countsBySql;
+        }
+    }
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    /**
+     * Begin tracking on this thread, discarding anything tracked before
+     */
+    public static void start() {
+        CURRENT.set(new Stats());
+    }
+
+    /**
+     * End tracking on this thread
+     * @return What was tracked since start(), or null if tracking was not started
+     */
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * @return What was tracked so far on this thread, or null if tracking is not active
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts statements by SQL text, and logs a random sample of them to the
+     * com.gym.gym.sql logger at INFO, so production can see representative SQL without
+     * paying for logging every statement. Holds no per-session state, so one instance
+     * serves the whole session factory.
+     */
+    public static class Inspector implements StatementInspector {
+        private static final Logger sqlLog = LoggerFactory.getLogger("com.gym.gym.sql");
+
+        private final double sampleRate;
+
+        /**
+         * @param sampleRate Fraction of statements to log, 0 for none
+         */
+        public Inspector(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            Stats stats = CURRENT.get();
+            if (stats != null) {
+                stats.statements++;
+                stats.countsBySql.merge(sql, 1, Integer::sum);
+            }
+            if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && sqlLog.isInfoEnabled()) {
+                sqlLog.info("Sampled SQL: {}", sql);
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Counts JDBC executions and adds up their time. Hibernate creates one per session, by class name.
+     */
+    public static class TimingListener implements SessionEventListener {
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executionStarted();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            executionEnded();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executionStarted();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            executionEnded();
+        }
+
+        private static void executionStarted() {
+            Stats stats = CURRENT.get();
+            if (stats != null) {
+                stats.executions++;
+                stats.executionStartedAt = System.nanoTime();
+            }
+        }
+
+        private static void executionEnded() {
+            Stats stats = CURRENT.get();
+            if (stats != null && stats.executionStartedAt != 0) {
+                stats.executionNanos += System.nanoTime() - stats.executionStartedAt;
+                stats.executionStartedAt = 0;
+            }
+        }
+    }
+}
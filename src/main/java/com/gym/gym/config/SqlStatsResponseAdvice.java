@@ -0,0 +1,39 @@
+package com.gym.gym.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the SQL statement count and execution time of the request so far (see
+ * SqlStatementTracker) as X-SQL-Statements and X-SQL-Time-Ms headers. Applied just
+ * before the body is written, when the controller's queries have all run but the
+ * response is not yet committed.
+ */
+@ControllerAdvice
+public class SqlStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementTracker.Stats stats = SqlStatementTracker.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(stats.getExecutionNanos() / 1_000_000));
+        }
+        return body;
+    }
+}
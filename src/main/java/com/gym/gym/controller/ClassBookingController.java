@@ -87,6 +87,32 @@ public ResponseEntity<?> createBooking(@RequestBody Map<String, Long> bookingReq
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Get the waitlist of a class
+     * @param classId Fitness Class ID
+     * @return Waitlisted bookings in promotion order
+     */
+    @GetMapping("/class/{classId}/waitlist")
+    public ResponseEntity<List<ClassBooking>> getWaitlist(@PathVariable Long classId) {
+        List<ClassBooking> bookings = classBookingService.getWaitlist(classId);
+        return ResponseEntity.ok(bookings);
+    }
+
+    /**
+     * Get a booking's position on its class's waitlist
+     * @param bookingId Booking ID
+     * @return 1-based position, or 0 if the booking is not waitlisted
+     */
+    @GetMapping("/{bookingId}/waitlist-position")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Long bookingId) {
+        try {
+            int position = classBookingService.getWaitlistPosition(bookingId);
+            return ResponseEntity.ok(Map.of("bookingId", bookingId, "position", position));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Get booking by ID
      * @param bookingId Booking ID
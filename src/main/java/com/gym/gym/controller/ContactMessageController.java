@@ -1,4 +1,5 @@
 package com.gym.gym.controller;
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.ContactMessage;
 import com.gym.gym.model.MessageStatus;
 import com.gym.gym.service.ContactMessageService;
@@ -33,12 +34,18 @@ public class ContactMessageController {
     }
 
     /**
-     * Get all contact messages
-     * @return List of all messages
+     * Get contact messages, one page at a time
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of contact messages and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<ContactMessage>> getAllMessages() {
-        List<ContactMessage> messages = contactMessageService.getAllMessages();
+    public ResponseEntity<CursorPage<ContactMessage>> getAllMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        CursorPage<ContactMessage> messages = contactMessageService.getAllMessages(cursor, size, sort);
         return ResponseEntity.ok(messages);
     }
 
@@ -100,7 +100,7 @@ public ResponseEntity<Map<String, Object>> getTrainerAnalytics() {
         Map<String, Object> analytics = dashboardService.getTrainerAnalytics();
         return ResponseEntity.ok(analytics);
     } catch (Exception e) {
-        e.printStackTrace(); // <--- This will print the stack trace to System.err
+        log.error("Error while loading trainer analytics", e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Collections.singletonMap("error", "Failed to load trainer analytics"));
     }
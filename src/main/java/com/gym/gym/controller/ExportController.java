@@ -0,0 +1,86 @@
+package com.gym.gym.controller;
+
+import com.gym.gym.service.ExportService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Admin exports, streamed so that large date ranges do not have to fit in memory.
+ * Both ends of the date range are inclusive and optional.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Export payments by creation date
+     * @param format ndjson (default) or csv
+     * @param from First day included
+     * @param to Last day included
+     * @return Streamed export
+     */
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportService.Format exportFormat = exportService.parseFormat(format);
+        exportService.validateRange(from, to);
+        return stream("payments", exportFormat, out -> exportService.exportPayments(from, to, exportFormat, out));
+    }
+
+    /**
+     * Export class bookings by booking date
+     * @param format ndjson (default) or csv
+     * @param from First day included
+     * @param to Last day included
+     * @return Streamed export
+     */
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportService.Format exportFormat = exportService.parseFormat(format);
+        exportService.validateRange(from, to);
+        return stream("bookings", exportFormat, out -> exportService.exportBookings(from, to, exportFormat, out));
+    }
+
+    /**
+     * Export fitness progress entries by entry date
+     * @param format ndjson (default) or csv
+     * @param from First day included
+     * @param to Last day included
+     * @return Streamed export
+     */
+    @GetMapping("/progress")
+    public ResponseEntity<StreamingResponseBody> exportProgress(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportService.Format exportFormat = exportService.parseFormat(format);
+        exportService.validateRange(from, to);
+        return stream("progress", exportFormat, out -> exportService.exportProgress(from, to, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportService.Format format,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+}
@@ -1,15 +1,22 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.dto.ClassSeriesRequest;
+import com.gym.gym.dto.ClassSummaryDTO;
+import com.gym.gym.model.ClassLevel;
 import com.gym.gym.model.FitnessClass;
 import com.gym.gym.service.FitnessClassService;
 
 import jakarta.validation.Valid;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +24,8 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class FitnessClassController {
 
+    private static final Logger log = LoggerFactory.getLogger(FitnessClassController.class);
+
     @Autowired
     private FitnessClassService fitnessClassService;
 
@@ -32,12 +41,44 @@ public class FitnessClassController {
             return ResponseEntity.ok(createdClass);
         } catch (RuntimeException e) {
         // Log the exception message for debugging
-        System.err.println("Error creating class: " + e.getMessage());
+        log.warn("Error creating class: {}", e.getMessage());
         // Return the error message to Postman for better feedback
         return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
 
+    /**
+     * Create a weekly recurring series of classes, e.g. Mon/Wed/Fri for 12 weeks
+     * @param request Class template (its times give the first class) and recurrence
+     * @return Created classes in chronological order
+     */
+    @PostMapping("/series")
+    public ResponseEntity<List<FitnessClass>> createSeries(@Valid @RequestBody ClassSeriesRequest request) {
+        return ResponseEntity.ok(fitnessClassService.createSeries(request));
+    }
+
+    /**
+     * Get the free time slots of a room and/or a trainer
+     * @param room Room
+     * @param trainerId Trainer ID; with a room too, slots where both are free
+     * @param from Start of the range; times before now are treated as now
+     * @param to End of the range, at most 92 days after the start
+     * @param minMinutes Shortest slot to return
+     * @return Free slots in chronological order
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<?> getFreeSlots(
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) Long trainerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int minMinutes) {
+        if (room == null && trainerId == null) {
+            return ResponseEntity.badRequest().body("Either room or trainerId is required");
+        }
+        return ResponseEntity.ok(fitnessClassService.getFreeSlots(room, trainerId, from, to, minMinutes));
+    }
+
     /**
      * Get all fitness classes
      * @return List of all classes
@@ -142,6 +183,58 @@ public class FitnessClassController {
         return ResponseEntity.ok(classes);
     }
 
+    /**
+     * Get summaries of upcoming classes from the availability index; every filter is optional.
+     * Summaries carry trainerId and trainerName instead of the nested trainer.
+     * @param from Earliest start time
+     * @param to Latest start time (exclusive)
+     * @param level Class level
+     * @param room Room
+     * @param minPrice Lowest price
+     * @param maxPrice Highest price
+     * @param equipment Equipment the class must require
+     * @return List of upcoming classes in start time order
+     */
+    @GetMapping("/upcoming/summaries")
+    public ResponseEntity<List<ClassSummaryDTO>> getUpcomingClassSummaries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) ClassLevel level,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String equipment) {
+        List<ClassSummaryDTO> classes = fitnessClassService.findUpcomingClasses(from, to, level, room,
+                minPrice, maxPrice, equipment, false);
+        return ResponseEntity.ok(classes);
+    }
+
+    /**
+     * Get summaries of upcoming classes that are not full from the availability index; every
+     * filter is optional. Unlike /available, classes that have started are left out.
+     * @param from Earliest start time
+     * @param to Latest start time (exclusive)
+     * @param level Class level
+     * @param room Room
+     * @param minPrice Lowest price
+     * @param maxPrice Highest price
+     * @param equipment Equipment the class must require
+     * @return List of available classes in start time order
+     */
+    @GetMapping("/available/summaries")
+    public ResponseEntity<List<ClassSummaryDTO>> getAvailableClassSummaries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) ClassLevel level,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String equipment) {
+        List<ClassSummaryDTO> classes = fitnessClassService.findUpcomingClasses(from, to, level, room,
+                minPrice, maxPrice, equipment, true);
+        return ResponseEntity.ok(classes);
+    }
+
     /**
      * Update class enrollment
      * @param id Class ID
@@ -1,5 +1,6 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.FitnessProgress;
 import com.gym.gym.service.FitnessProgressService;
 
@@ -42,12 +43,18 @@ public class FitnessProgressController {
     }
 
     /**
-     * Get all fitness progress entries
-     * @return List of all progress entries
+     * Get fitness progress entries, one page at a time
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of fitness progress entries and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<FitnessProgress>> getAllProgress() {
-        List<FitnessProgress> progress = fitnessProgressService.getAllProgress();
+    public ResponseEntity<CursorPage<FitnessProgress>> getAllProgress(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        CursorPage<FitnessProgress> progress = fitnessProgressService.getAllProgress(cursor, size, sort);
         return ResponseEntity.ok(progress);
     }
 
@@ -1,4 +1,5 @@
 package com.gym.gym.controller;
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.Member;
 import com.gym.gym.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,12 +38,18 @@ public class MemberController{
     }
 
     /**
-     * Get all members
-     * @return List of all members
+     * Get members, one page at a time
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of members and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<Member>> getAllMembers() {
-        List<Member> members = memberService.getAllMembers();
+    public ResponseEntity<CursorPage<Member>> getAllMembers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        CursorPage<Member> members = memberService.getAllMembers(cursor, size, sort);
         return ResponseEntity.ok(members);
     }
 
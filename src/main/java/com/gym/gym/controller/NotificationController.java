@@ -1,7 +1,9 @@
 package com.gym.gym.controller;
 
 import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.NotificationJob;
 import com.gym.gym.service.NotificationService;
+import com.gym.gym.exception.NotificationQueueFullException;
 import com.gym.gym.exception.ResourceNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,13 +31,15 @@ public class NotificationController {
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_TRAINER')")
     public ResponseEntity<Map<String, Object>> sendClassReminders(@PathVariable Long classId) {
         try {
-            int sentCount = notificationService.sendClassReminders(classId);
-            return ResponseEntity.ok(Map.of(
-                "message", "Class reminders sent successfully",
-                "sentCount", sentCount
+            NotificationJob job = notificationService.sendClassReminders(classId);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Class reminders queued",
+                "jobId", job.getId()
             ));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send class reminders"));
         }
@@ -49,11 +53,13 @@ public class NotificationController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<Map<String, Object>> sendPaymentReminders() {
         try {
-            int sentCount = notificationService.sendPaymentReminders();
-            return ResponseEntity.ok(Map.of(
-                "message", "Payment reminders sent successfully",
-                "sentCount", sentCount
+            NotificationJob job = notificationService.sendPaymentReminders();
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Payment reminders queued",
+                "jobId", job.getId()
             ));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send payment reminders"));
         }
@@ -73,12 +79,14 @@ public class NotificationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "daysBeforeExpiry is required"));
             }
 
-            int sentCount = notificationService.sendMembershipExpiryReminders(daysBeforeExpiry);
-            return ResponseEntity.ok(Map.of(
-                "message", "Membership expiry reminders sent successfully",
-                "sentCount", sentCount,
+            NotificationJob job = notificationService.sendMembershipExpiryReminders(daysBeforeExpiry);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Membership expiry reminders queued",
+                "jobId", job.getId(),
                 "daysBeforeExpiry", daysBeforeExpiry
             ));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send membership expiry reminders"));
         }
@@ -93,17 +101,16 @@ public class NotificationController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<Map<String, Object>> sendWelcomeNotification(@PathVariable Long memberId) {
         try {
-            boolean success = notificationService.sendWelcomeNotification(memberId);
-            if (success) {
-                return ResponseEntity.ok(Map.of(
-                    "message", "Welcome notification sent successfully",
-                    "memberId", memberId
-                ));
-            } else {
-                return ResponseEntity.status(500).body(Map.of("error", "Failed to send welcome notification"));
-            }
+            NotificationJob job = notificationService.sendWelcomeNotification(memberId);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Welcome notification queued",
+                "jobId", job.getId(),
+                "memberId", memberId
+            ));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send welcome notification"));
         }
@@ -126,15 +133,17 @@ public class NotificationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Cancellation reason is required"));
             }
 
-            int sentCount = notificationService.sendClassCancellationNotification(classId, reason);
-            return ResponseEntity.ok(Map.of(
-                "message", "Class cancellation notifications sent successfully",
-                "sentCount", sentCount,
+            NotificationJob job = notificationService.sendClassCancellationNotification(classId, reason);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Class cancellation notifications queued",
+                "jobId", job.getId(),
                 "classId", classId,
                 "reason", reason
             ));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send class cancellation notifications"));
         }
@@ -162,16 +171,18 @@ public class NotificationController {
             LocalDateTime oldTime = LocalDateTime.parse(oldTimeStr);
             LocalDateTime newTime = LocalDateTime.parse(newTimeStr);
 
-            int sentCount = notificationService.sendClassScheduleChangeNotification(classId, oldTime, newTime);
-            return ResponseEntity.ok(Map.of(
-                "message", "Class schedule change notifications sent successfully",
-                "sentCount", sentCount,
+            NotificationJob job = notificationService.sendClassScheduleChangeNotification(classId, oldTime, newTime);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Class schedule change notifications queued",
+                "jobId", job.getId(),
                 "classId", classId,
                 "oldTime", oldTime,
                 "newTime", newTime
             ));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send class schedule change notifications"));
         }
@@ -193,12 +204,14 @@ public class NotificationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Subject and message are required"));
             }
 
-            int sentCount = notificationService.sendBulkNotification(subject, message);
-            return ResponseEntity.ok(Map.of(
-                "message", "Bulk notifications sent successfully",
-                "sentCount", sentCount,
+            NotificationJob job = notificationService.sendBulkNotification(subject, message);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Bulk notifications queued",
+                "jobId", job.getId(),
                 "subject", subject
             ));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send bulk notifications"));
         }
@@ -223,18 +236,17 @@ public class NotificationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Subject and message are required"));
             }
 
-            boolean success = notificationService.sendMemberNotification(memberId, subject, message);
-            if (success) {
-                return ResponseEntity.ok(Map.of(
-                    "message", "Member notification sent successfully",
-                    "memberId", memberId,
-                    "subject", subject
-                ));
-            } else {
-                return ResponseEntity.status(500).body(Map.of("error", "Failed to send member notification"));
-            }
+            NotificationJob job = notificationService.sendMemberNotification(memberId, subject, message);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Member notification queued",
+                "jobId", job.getId(),
+                "memberId", memberId,
+                "subject", subject
+            ));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send member notification"));
         }
@@ -260,16 +272,18 @@ public class NotificationController {
             }
 
             MembershipType type = MembershipType.valueOf(membershipType.toUpperCase());
-            int sentCount = notificationService.sendNotificationByMembershipType(type, subject, message);
+            NotificationJob job = notificationService.sendNotificationByMembershipType(type, subject, message);
             
-            return ResponseEntity.ok(Map.of(
-                "message", "Membership type notifications sent successfully",
-                "sentCount", sentCount,
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Membership type notifications queued",
+                "jobId", job.getId(),
                 "membershipType", membershipType,
                 "subject", subject
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid membership type"));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send membership type notifications"));
         }
@@ -291,17 +305,35 @@ public class NotificationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Subject and message are required"));
             }
 
-            int sentCount = notificationService.sendInactiveMemberNotification(subject, message);
-            return ResponseEntity.ok(Map.of(
-                "message", "Inactive member notifications sent successfully",
-                "sentCount", sentCount,
+            NotificationJob job = notificationService.sendInactiveMemberNotification(subject, message);
+            return ResponseEntity.accepted().body(Map.of(
+                "message", "Inactive member notifications queued",
+                "jobId", job.getId(),
                 "subject", subject
             ));
+        } catch (NotificationQueueFullException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to send inactive member notifications"));
         }
     }
 
+    /**
+     * Get the progress of a notification job
+     * @param jobId Job ID
+     * @return Job status and delivery counters
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_TRAINER')")
+    public ResponseEntity<?> getJob(@PathVariable Long jobId) {
+        try {
+            NotificationJob job = notificationService.getJob(jobId);
+            return ResponseEntity.ok(job);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get notification statistics
      * @return Notification statistics
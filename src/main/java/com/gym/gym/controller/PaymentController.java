@@ -1,5 +1,6 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.Payment;
 import com.gym.gym.service.PaymentService;
 import com.gym.gym.exception.ResourceNotFoundException;
@@ -66,12 +67,18 @@ public class PaymentController {
     }
 
     /**
-     * Get all payments
-     * @return List of all payments
+     * Get payments, one page at a time
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of payments and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
+    public ResponseEntity<CursorPage<Payment>> getAllPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        CursorPage<Payment> payments = paymentService.getAllPayments(cursor, size, sort);
         return ResponseEntity.ok(payments);
     }
 
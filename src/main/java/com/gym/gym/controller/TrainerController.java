@@ -1,5 +1,6 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.model.FitnessClass;
 import com.gym.gym.model.Trainer;
 import com.gym.gym.service.TrainerService;
 import com.gym.gym.exception.ResourceNotFoundException;
@@ -11,6 +12,10 @@ import jakarta.validation.Valid;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -73,6 +78,21 @@ public class TrainerController {
         }
     }
 
+    /**
+     * Get a trainer's fitness classes (trainer JSON does not include them)
+     * @param id Trainer ID
+     * @return List of the trainer's classes
+     */
+    @GetMapping("/{id}/classes")
+    public ResponseEntity<List<FitnessClass>> getTrainerClasses(@PathVariable Long id) {
+        try {
+            List<FitnessClass> classes = trainerService.getFitnessClasses(id);
+            return ResponseEntity.ok(classes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Update trainer
      * @param id Trainer ID
@@ -230,14 +250,19 @@ public class TrainerController {
      * @param specialization Optional specialization filter
      * @param available Optional availability filter
      * @param maxHourlyRate Optional maximum hourly rate filter
-     * @return List of matching trainers
+     * @param page Zero-based page number
+     * @param size Page size (at most 100)
+     * @return Page of matching trainers
      */
     @GetMapping("/search")
-    public ResponseEntity<List<TrainerSearchDTO>> searchTrainers(
+    public ResponseEntity<Page<TrainerSearchDTO>> searchTrainers(
             @RequestParam(required = false) String specialization,
             @RequestParam(required = false) Boolean available,
-            @RequestParam(required = false) Double maxHourlyRate) {
-        List<TrainerSearchDTO> trainers = trainerService.searchTrainers(specialization, available, maxHourlyRate);
+            @RequestParam(required = false) Double maxHourlyRate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100), Sort.by("id"));
+        Page<TrainerSearchDTO> trainers = trainerService.searchTrainers(specialization, available, maxHourlyRate, pageable);
         return ResponseEntity.ok(trainers);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.User;
 import com.gym.gym.model.Role;
 import com.gym.gym.service.UserService;
@@ -49,12 +50,18 @@ public class UserController {
     }
 
     /**
-     * Get all users
-     * @return List of all users
+     * Get users, one page at a time
+     * @param cursor nextCursor from the previous page; omit for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of users and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<User>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        CursorPage<User> users = userService.getAllUsers(cursor, size, sort);
         return ResponseEntity.ok(users);
     }
 
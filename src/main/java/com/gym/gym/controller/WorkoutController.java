@@ -1,5 +1,6 @@
 package com.gym.gym.controller;
 
+import com.gym.gym.dto.CursorPage;
 import com.gym.gym.model.Workout;
 import com.gym.gym.service.WorkoutService;
 import org.springframework.http.ResponseEntity;
@@ -24,8 +25,11 @@ public class WorkoutController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Workout>> getAllWorkouts() {
-        return ResponseEntity.ok(workoutService.getAllWorkouts());
+    public ResponseEntity<CursorPage<Workout>> getAllWorkouts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(workoutService.getAllWorkouts(cursor, size, sort));
     }
 
     @GetMapping("workouts/{id}")
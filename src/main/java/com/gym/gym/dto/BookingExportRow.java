@@ -0,0 +1,50 @@
+package com.gym.gym.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One class booking in an export. Selected directly by ClassBookingRepository.streamForExport
+ * so exports never load ClassBooking entities or their associations.
+ */
+public class BookingExportRow implements ExportRow {
+
+    public static final String[] CSV_HEADER = {
+        "id", "memberId", "memberEmail", "classId", "className", "classStartTime", "bookingDate", "status"
+    };
+
+    private final Long id;
+    private final Long memberId;
+    private final String memberEmail;
+    private final Long classId;
+    private final String className;
+    private final LocalDateTime classStartTime;
+    private final LocalDateTime bookingDate;
+    private final String status;
+
+    // Used by the JPQL constructor expression in ClassBookingRepository
+    public BookingExportRow(Long id, Long memberId, String memberEmail, Long classId, String className,
+                            LocalDateTime classStartTime, LocalDateTime bookingDate, String status) {
+        this.id = id;
+        this.memberId = memberId;
+        this.memberEmail = memberEmail;
+        this.classId = classId;
+        this.className = className;
+        this.classStartTime = classStartTime;
+        this.bookingDate = bookingDate;
+        this.status = status;
+    }
+
+    @Override
+    public Object[] csvValues() {
+        return new Object[] {id, memberId, memberEmail, classId, className, classStartTime, bookingDate, status};
+    }
+
+    public Long getId() { return id; }
+    public Long getMemberId() { return memberId; }
+    public String getMemberEmail() { return memberEmail; }
+    public Long getClassId() { return classId; }
+    public String getClassName() { return className; }
+    public LocalDateTime getClassStartTime() { return classStartTime; }
+    public LocalDateTime getBookingDate() { return bookingDate; }
+    public String getStatus() { return status; }
+}
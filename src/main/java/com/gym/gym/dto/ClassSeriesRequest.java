@@ -0,0 +1,67 @@
+package com.gym.gym.dto;
+
+import com.gym.gym.model.FitnessClass;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * A weekly recurring class, e.g. Mondays, Wednesdays and Fridays for 12 weeks.
+ *
+ * The template's start and end time give the first occurrence; every occurrence keeps its
+ * time of day and duration. Weeks are counted from the week of the first occurrence, and
+ * days before the first occurrence in that week are skipped.
+ */
+public class ClassSeriesRequest {
+
+    @Valid
+    @NotNull
+    private FitnessClass template;
+
+    @NotEmpty
+    private Set<DayOfWeek> daysOfWeek;
+
+    private int weeks;
+
+    // Every n-th week, 1 for weekly
+    private int interval = 1;
+
+    public ClassSeriesRequest() {
+    }
+
+    public FitnessClass getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(FitnessClass template) {
+        this.template = template;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+
+    public void setWeeks(int weeks) {
+        this.weeks = weeks;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+}
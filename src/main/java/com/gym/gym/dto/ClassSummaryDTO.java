@@ -0,0 +1,137 @@
+package com.gym.gym.dto;
+
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Trainer;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Immutable list view of an upcoming class, as held by ClassAvailabilityIndex. Field names
+ * match FitnessClass; the trainer is reduced to its ID and name.
+ */
+public class ClassSummaryDTO {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final int maxCapacity;
+    private final int currentEnrollment;
+    private final String room;
+    private final double price;
+    private final ClassLevel level;
+    private final Long trainerId;
+    private final String trainerName;
+    private final Set<String> requiredEquipment;
+
+    // Used by the JPQL constructor expression; equipment is attached afterwards
+    public ClassSummaryDTO(Long id, String name, String description, LocalDateTime startTime, LocalDateTime endTime,
+                           int maxCapacity, int currentEnrollment, String room, double price, ClassLevel level,
+                           Long trainerId, String trainerName) {
+        this(id, name, description, startTime, endTime, maxCapacity, currentEnrollment, room, price, level,
+                trainerId, trainerName, Set.of());
+    }
+
+    private ClassSummaryDTO(Long id, String name, String description, LocalDateTime startTime, LocalDateTime endTime,
+                            int maxCapacity, int currentEnrollment, String room, double price, ClassLevel level,
+                            Long trainerId, String trainerName, Set<String> requiredEquipment) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.maxCapacity = maxCapacity;
+        this.currentEnrollment = currentEnrollment;
+        this.room = room;
+        this.price = price;
+        this.level = level;
+        this.trainerId = trainerId;
+        this.trainerName = trainerName;
+        this.requiredEquipment = requiredEquipment;
+    }
+
+    public static ClassSummaryDTO of(FitnessClass fitnessClass) {
+        Trainer trainer = fitnessClass.getTrainer();
+        String trainerName = trainer.getUser() == null ? null
+                : trainer.getUser().getFirstName() + " " + trainer.getUser().getLastName();
+        Set<String> equipment = fitnessClass.getRequiredEquipment() == null ? Set.of()
+                : Set.copyOf(fitnessClass.getRequiredEquipment());
+        return new ClassSummaryDTO(fitnessClass.getId(), fitnessClass.getName(), fitnessClass.getDescription(),
+                fitnessClass.getStartTime(), fitnessClass.getEndTime(), fitnessClass.getMaxCapacity(),
+                fitnessClass.getCurrentEnrollment(), fitnessClass.getRoom(), fitnessClass.getPrice(),
+                fitnessClass.getLevel(), trainer.getId(), trainerName, equipment);
+    }
+
+    public ClassSummaryDTO withCurrentEnrollment(int enrollment) {
+        return new ClassSummaryDTO(id, name, description, startTime, endTime, maxCapacity, enrollment, room, price,
+                level, trainerId, trainerName, requiredEquipment);
+    }
+
+    public ClassSummaryDTO withTrainerName(String name) {
+        return new ClassSummaryDTO(id, this.name, description, startTime, endTime, maxCapacity, currentEnrollment, room,
+                price, level, trainerId, name, requiredEquipment);
+    }
+
+    public ClassSummaryDTO withRequiredEquipment(Set<String> equipment) {
+        return new ClassSummaryDTO(id, name, description, startTime, endTime, maxCapacity, currentEnrollment, room,
+                price, level, trainerId, trainerName, Set.copyOf(equipment));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public int getCurrentEnrollment() {
+        return currentEnrollment;
+    }
+
+    public int getRemainingSeats() {
+        return Math.max(0, maxCapacity - currentEnrollment);
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public ClassLevel getLevel() {
+        return level;
+    }
+
+    public Long getTrainerId() {
+        return trainerId;
+    }
+
+    public String getTrainerName() {
+        return trainerName;
+    }
+
+    public Set<String> getRequiredEquipment() {
+        return requiredEquipment;
+    }
+}
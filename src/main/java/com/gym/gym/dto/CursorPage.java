@@ -0,0 +1,46 @@
+package com.gym.gym.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. nextCursor is null on the last page.
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from rows read with a limit of size + 1; the extra row only signals
+     * that another page exists and is not returned
+     * @param rows Rows in page order, at most size + 1
+     * @param size Page size
+     * @param cursorOf Token pointing just past a row (see PageCursor.encode)
+     * @return Page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
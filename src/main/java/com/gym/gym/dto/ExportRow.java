@@ -0,0 +1,13 @@
+package com.gym.gym.dto;
+
+/**
+ * A flat row of a streaming export. Serialized as-is for NDJSON; csvValues gives the
+ * same data in the column order of the export's CSV header.
+ */
+public interface ExportRow {
+
+    /**
+     * @return Column values, in header order
+     */
+    Object[] csvValues();
+}
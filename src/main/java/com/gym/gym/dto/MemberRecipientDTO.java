@@ -0,0 +1,46 @@
+package com.gym.gym.dto;
+
+import java.time.LocalDateTime;
+
+import com.gym.gym.model.Member;
+import com.gym.gym.model.MembershipType;
+
+/**
+ * The few member columns needed to address and personalize a notification email.
+ * Selected directly by MemberRepository so bulk sends never load Member/User entities.
+ */
+public class MemberRecipientDTO {
+    private Long id;
+    private String email;
+    private String firstName;
+    private MembershipType membershipType;
+    private LocalDateTime membershipEndDate;
+
+    public MemberRecipientDTO() {}
+
+    // Used by the JPQL constructor expressions in MemberRepository
+    public MemberRecipientDTO(Long id, String email, String firstName,
+                              MembershipType membershipType, LocalDateTime membershipEndDate) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.membershipType = membershipType;
+        this.membershipEndDate = membershipEndDate;
+    }
+
+    public MemberRecipientDTO(Member member) {
+        this(member.getId(), member.getUser().getEmail(), member.getUser().getFirstName(),
+                member.getMembershipType(), member.getMembershipEndDate());
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public MembershipType getMembershipType() { return membershipType; }
+    public void setMembershipType(MembershipType membershipType) { this.membershipType = membershipType; }
+    public LocalDateTime getMembershipEndDate() { return membershipEndDate; }
+    public void setMembershipEndDate(LocalDateTime membershipEndDate) { this.membershipEndDate = membershipEndDate; }
+}
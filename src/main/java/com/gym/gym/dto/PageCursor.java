@@ -0,0 +1,114 @@
+package com.gym.gym.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.gym.gym.exception.InvalidPageRequestException;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ *
+ * A cursor records the sort order and the sort key and id of the last row returned; the
+ * next page is read with "WHERE (key, id) past the cursor" on an index, so every page
+ * costs the same no matter how deep the client has paged. Clients must treat the token
+ * as opaque and send it back unchanged with the same sort.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Ascending id: oldest first (the default)
+    public static final String SORT_ID = "id";
+    // Descending time key with id as tie-breaker: newest first
+    public static final String SORT_NEWEST = "newest";
+
+    private final String key;
+    private final long id;
+
+    private PageCursor(String key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * @param sort Requested sort, or null
+     * @return SORT_ID or SORT_NEWEST
+     */
+    public static String sortOrDefault(String sort) {
+        if (sort == null || sort.isBlank() || SORT_ID.equalsIgnoreCase(sort)) {
+            return SORT_ID;
+        }
+        if (SORT_NEWEST.equalsIgnoreCase(sort)) {
+            return SORT_NEWEST;
+        }
+        throw new InvalidPageRequestException("Unsupported sort: " + sort + " (use '" + SORT_ID + "' or '" + SORT_NEWEST + "')");
+    }
+
+    /**
+     * @param size Requested page size, or null
+     * @return Page size clamped to 1..MAX_PAGE_SIZE
+     */
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Build the token pointing just past a row
+     * @param sort Sort the page was read with
+     * @param key Row's sort key, or null when sorting by id alone
+     * @param id Row's id
+     * @return Opaque token
+     */
+    public static String encode(String sort, Object key, Long id) {
+        String raw = sort + "|" + (key == null ? "" : key) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a token sent back by a client
+     * @param token Token from a previous page, or null for the first page
+     * @param sort Sort of the current request; must match the token's
+     * @return Cursor, or null for the first page
+     */
+    public static PageCursor decode(String token, String sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                throw new InvalidPageRequestException("Cursor does not match the requested sort");
+            }
+            return new PageCursor(parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Malformed cursor");
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageRequestException("Malformed cursor");
+        }
+    }
+
+    public LocalDate keyAsDate() {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageRequestException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gym.gym.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One payment in an export. Selected directly by PaymentRepository.streamForExport so
+ * exports never load Payment entities or their associations.
+ */
+public class PaymentExportRow implements ExportRow {
+
+    public static final String[] CSV_HEADER = {
+        "id", "memberId", "memberEmail", "classId", "className", "bookingId", "amount",
+        "status", "paymentMethod", "bookingDate", "paymentDate", "createdAt"
+    };
+
+    private final Long id;
+    private final Long memberId;
+    private final String memberEmail;
+    private final Long classId;
+    private final String className;
+    private final Long bookingId;
+    private final double amount;
+    private final String status;
+    private final String paymentMethod;
+    private final LocalDateTime bookingDate;
+    private final LocalDateTime paymentDate;
+    private final LocalDateTime createdAt;
+
+    // Used by the JPQL constructor expression in PaymentRepository
+    public PaymentExportRow(Long id, Long memberId, String memberEmail, Long classId, String className,
+                            Long bookingId, double amount, String status, String paymentMethod,
+                            LocalDateTime bookingDate, LocalDateTime paymentDate, LocalDateTime createdAt) {
+        this.id = id;
+        this.memberId = memberId;
+        this.memberEmail = memberEmail;
+        this.classId = classId;
+        this.className = className;
+        this.bookingId = bookingId;
+        this.amount = amount;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+        this.bookingDate = bookingDate;
+        this.paymentDate = paymentDate;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public Object[] csvValues() {
+        return new Object[] {
+            id, memberId, memberEmail, classId, className, bookingId, amount,
+            status, paymentMethod, bookingDate, paymentDate, createdAt
+        };
+    }
+
+    public Long getId() { return id; }
+    public Long getMemberId() { return memberId; }
+    public String getMemberEmail() { return memberEmail; }
+    public Long getClassId() { return classId; }
+    public String getClassName() { return className; }
+    public Long getBookingId() { return bookingId; }
+    public double getAmount() { return amount; }
+    public String getStatus() { return status; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public LocalDateTime getBookingDate() { return bookingDate; }
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
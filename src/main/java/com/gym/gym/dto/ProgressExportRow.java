@@ -0,0 +1,71 @@
+package com.gym.gym.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One fitness progress entry in an export. Selected directly by
+ * FitnessProgressRepository.streamForExport so exports never load FitnessProgress entities.
+ */
+public class ProgressExportRow implements ExportRow {
+
+    public static final String[] CSV_HEADER = {
+        "id", "memberId", "memberEmail", "date", "weight", "bodyFatPercentage", "muscleMass",
+        "chestMeasurement", "waistMeasurement", "hipMeasurement", "bicepMeasurement", "thighMeasurement", "notes"
+    };
+
+    private final Long id;
+    private final Long memberId;
+    private final String memberEmail;
+    private final LocalDate date;
+    private final double weight;
+    private final double bodyFatPercentage;
+    private final double muscleMass;
+    private final double chestMeasurement;
+    private final double waistMeasurement;
+    private final double hipMeasurement;
+    private final double bicepMeasurement;
+    private final double thighMeasurement;
+    private final String notes;
+
+    // Used by the JPQL constructor expression in FitnessProgressRepository
+    public ProgressExportRow(Long id, Long memberId, String memberEmail, LocalDate date, double weight,
+                             double bodyFatPercentage, double muscleMass, double chestMeasurement,
+                             double waistMeasurement, double hipMeasurement, double bicepMeasurement,
+                             double thighMeasurement, String notes) {
+        this.id = id;
+        this.memberId = memberId;
+        this.memberEmail = memberEmail;
+        this.date = date;
+        this.weight = weight;
+        this.bodyFatPercentage = bodyFatPercentage;
+        this.muscleMass = muscleMass;
+        this.chestMeasurement = chestMeasurement;
+        this.waistMeasurement = waistMeasurement;
+        this.hipMeasurement = hipMeasurement;
+        this.bicepMeasurement = bicepMeasurement;
+        this.thighMeasurement = thighMeasurement;
+        this.notes = notes;
+    }
+
+    @Override
+    public Object[] csvValues() {
+        return new Object[] {
+            id, memberId, memberEmail, date, weight, bodyFatPercentage, muscleMass,
+            chestMeasurement, waistMeasurement, hipMeasurement, bicepMeasurement, thighMeasurement, notes
+        };
+    }
+
+    public Long getId() { return id; }
+    public Long getMemberId() { return memberId; }
+    public String getMemberEmail() { return memberEmail; }
+    public LocalDate getDate() { return date; }
+    public double getWeight() { return weight; }
+    public double getBodyFatPercentage() { return bodyFatPercentage; }
+    public double getMuscleMass() { return muscleMass; }
+    public double getChestMeasurement() { return chestMeasurement; }
+    public double getWaistMeasurement() { return waistMeasurement; }
+    public double getHipMeasurement() { return hipMeasurement; }
+    public double getBicepMeasurement() { return bicepMeasurement; }
+    public double getThighMeasurement() { return thighMeasurement; }
+    public String getNotes() { return notes; }
+}
@@ -0,0 +1,24 @@
+package com.gym.gym.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A free stretch of time, [start, end)
+ */
+public class TimeSlot {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
@@ -33,6 +33,23 @@ public class TrainerSearchDTO {
         // ... map other fields
     }
 
+    /**
+     * Map a trainer whose specializations were loaded separately (see TrainerRepository.findSpecializationsByTrainerIds)
+     * @param trainer Trainer with its user loaded
+     * @param specializations The trainer's specializations
+     */
+    public TrainerSearchDTO(Trainer trainer, Set<String> specializations) {
+        this.id = trainer.getId();
+        if (trainer.getUser() != null) {
+            this.firstName = trainer.getUser().getFirstName();
+            this.lastName = trainer.getUser().getLastName();
+            this.email = trainer.getUser().getEmail();
+        }
+        this.specializations = specializations;
+        this.available = trainer.getAvailable();
+        this.hourlyRate = trainer.getHourlyRate();
+    }
+
     // Getters and Setters
     // ... (generate for all fields)
     public Long getId() { return id; }
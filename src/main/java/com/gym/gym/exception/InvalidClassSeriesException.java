@@ -0,0 +1,7 @@
+package com.gym.gym.exception;
+
+public class InvalidClassSeriesException extends RuntimeException {
+    public InvalidClassSeriesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gym.gym.exception;
+
+public class NotificationQueueFullException extends RuntimeException {
+    public NotificationQueueFullException(String message) {
+        super(message);
+    }
+}
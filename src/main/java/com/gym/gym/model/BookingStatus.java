@@ -2,6 +2,7 @@ package com.gym.gym.model;
 
 public enum BookingStatus{
     BOOKED,
+    WAITLISTED,
     CANCELLED,
     COMPLETED
 }
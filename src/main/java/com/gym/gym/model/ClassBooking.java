@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,10 +17,16 @@ import lombok.NoArgsConstructor;
 @ToString
 @NoArgsConstructor
 @Entity
-@Table(name = "class_bookings")
+@Table(name = "class_bookings", indexes = {
+    @Index(name = "idx_booking_class_status_date", columnList = "fitness_class_id, status, booking_date, id"),
+    @Index(name = "idx_booking_date", columnList = "booking_date, id"),
+    @Index(name = "idx_booking_member_class_status", columnList = "member_id, fitness_class_id, status"),
+    @Index(name = "idx_booking_status_class", columnList = "status, fitness_class_id")
+})
 public class ClassBooking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "class_bookings_seq")
+    @SequenceGenerator(name = "class_bookings_seq", sequenceName = "class_bookings_seq", allocationSize = 50)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "fitness_class_id", nullable = false)
@@ -28,7 +36,7 @@ public class ClassBooking {
     private Member member;
 
     private LocalDateTime bookingDate;
-    private String status;
+    private String status; // CONFIRMED, WAITLISTED, CANCELLED
 
     public ClassBooking(LocalDateTime bookingDate) {
         this.bookingDate = bookingDate;
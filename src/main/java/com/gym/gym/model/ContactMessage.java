@@ -18,12 +18,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "contact_messages")
+@Table(name = "contact_messages", indexes = {
+    @Index(name = "idx_contact_submitted", columnList = "submission_date, id"),
+    @Index(name = "idx_contact_status_submitted", columnList = "status, submission_date"),
+    @Index(name = "idx_contact_email", columnList = "email")
+})
 @Data
 @NoArgsConstructor
 public class ContactMessage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_messages_seq")
+    @SequenceGenerator(name = "contact_messages_seq", sequenceName = "contact_messages_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
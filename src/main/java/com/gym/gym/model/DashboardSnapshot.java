@@ -0,0 +1,51 @@
+package com.gym.gym.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One materialized dashboard counter, keyed by metric name (e.g. "members.total",
+ * "revenue.method.CARD"). Written periodically by DashboardMetricsService and read
+ * back at startup to rehydrate the in-memory counters.
+ */
+@Entity
+@Table(name = "dashboard_snapshot")
+@Data
+@NoArgsConstructor
+public class DashboardSnapshot {
+    @Id
+    @Column(name = "metric_key", length = 100)
+    private String metricKey;
+
+    @Column(name = "metric_value", nullable = false)
+    private double metricValue;
+
+    private LocalDateTime updatedAt;
+
+    public DashboardSnapshot(String metricKey, double metricValue) {
+        this.metricKey = metricKey;
+        this.metricValue = metricValue;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public String getMetricKey() {
+        return metricKey;
+    }
+
+    public double getMetricValue() {
+        return metricValue;
+    }
+}
@@ -12,6 +12,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -20,18 +22,26 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 // Import Enrollment class (adjust the package if needed)
 
 @Entity
-@Table(name = "fitness_classes")
+@Table(name = "fitness_classes", indexes = {
+    @Index(name = "idx_class_start_time", columnList = "start_time"),
+    @Index(name = "idx_class_level", columnList = "level"),
+    @Index(name = "idx_class_room_start", columnList = "room, start_time"),
+    @Index(name = "idx_class_trainer_start", columnList = "trainer_id, start_time")
+})
 @Data
 @NoArgsConstructor
 public class FitnessClass{
     @Id
-    @GeneratedValue(strategy =GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fitness_classes_seq")
+    @SequenceGenerator(name = "fitness_classes_seq", sequenceName = "fitness_classes_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -51,6 +61,8 @@ public class FitnessClass{
     @NotNull
     private int maxCapacity;
 
+    // Only changed through FitnessClassRepository.reserveSeat/releaseSeat so entity saves never overwrite concurrent reservations
+    @Column(updatable = false)
     private int currentEnrollment = 0;
 
     @ManyToOne
@@ -63,7 +75,8 @@ public class FitnessClass{
     
     @JsonIgnore
     @ElementCollection
-    @CollectionTable(name = "class_equipment", joinColumns = @JoinColumn(name = "class_id"))
+    @CollectionTable(name = "class_equipment", joinColumns = @JoinColumn(name = "class_id"),
+            indexes = @Index(name = "idx_class_equipment", columnList = "equipment, class_id"))
     @Column(name = "equipment")
     private Set<String> requiredEquipment;
 
@@ -76,7 +89,11 @@ public class FitnessClass{
 
     private boolean active = true;
 
-    @OneToMany(mappedBy = "fitnessClass", fetch =FetchType.EAGER) // Adjust mapping as needed
+    // Lazy: list and detail views never need it; load it explicitly where it is used
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "fitnessClass", fetch = FetchType.LAZY)
     private Set<Enrollment> enrollments;
     // Getters and Setters
     public Long getId() {
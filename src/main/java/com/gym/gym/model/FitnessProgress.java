@@ -10,17 +10,23 @@ import java.time.LocalDate;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 
 
 @Entity
-@Table(name = "fitness_progress")
+@Table(name = "fitness_progress", indexes = {
+    @Index(name = "idx_progress_date", columnList = "date, id"),
+    @Index(name = "idx_progress_member_date", columnList = "member_id, date")
+})
 @Data
 @NoArgsConstructor
 public class FitnessProgress {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fitness_progress_seq")
+    @SequenceGenerator(name = "fitness_progress_seq", sequenceName = "fitness_progress_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
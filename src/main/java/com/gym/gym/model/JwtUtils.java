@@ -2,27 +2,81 @@ package com.gym.gym.model;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtils {
+    // Authorization claims signed into tokens so requests can be authorized without loading the user
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
+    @Value("${jwt.claims-cache.ttl-ms:300000}")
+    private long claimsCacheTtlMs;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    // Built once; the secret does not change at runtime
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
+    // Token -> claims whose signature has already been verified; expiry is still checked on every use
+    private volatile Cache<String, Claims> verifiedClaims;
+
     private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (signingKey == null) {
+            byte[] keyBytes = secret.getBytes();
+            signingKey = Keys.hmacShaKeyFor(keyBytes);
+        }
+        return signingKey;
+    }
+
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+        }
+        return parser;
+    }
+
+    private Cache<String, Claims> getVerifiedClaims() {
+        if (verifiedClaims == null) {
+            synchronized (this) {
+                if (verifiedClaims == null) {
+                    verifiedClaims = Caffeine.newBuilder()
+                            .maximumSize(claimsCacheMaxSize)
+                            .expireAfterWrite(Duration.ofMillis(claimsCacheTtlMs))
+                            .build();
+                }
+            }
+        }
+        return verifiedClaims;
     }
 
     public String extractUsername(String token) {
@@ -38,12 +92,18 @@ public class JwtUtils {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verify a token's signature (once per token while cached) and return its claims
+     * @param token Compact JWT
+     * @return Claims; throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims extractAllClaims(String token) {
+        Claims claims = getVerifiedClaims().get(token, t -> getParser().parseClaimsJws(t).getBody());
+        if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+            getVerifiedClaims().invalidate(token);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
     }
 
     private Boolean isTokenExpired(String token) {
@@ -55,6 +115,56 @@ public class JwtUtils {
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Generate a token carrying the user's ID, roles and token version, so the filter can
+     * authorize requests from the claims alone
+     * @param user User the token is issued to
+     * @return Signed token
+     */
+    public String generateToken(User user) {
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLES_CLAIM, roles);
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return createToken(claims, user.getUsername());
+    }
+
+    /**
+     * @param claims Verified claims
+     * @return true if stateless authorization is enabled and the token carries everything it needs
+     */
+    public boolean hasAuthorizationClaims(Claims claims) {
+        return stateless
+                && claims.get(USER_ID_CLAIM) instanceof Number
+                && claims.get(TOKEN_VERSION_CLAIM) instanceof Number
+                && claims.get(ROLES_CLAIM) instanceof List;
+    }
+
+    public Long extractUserId(Claims claims) {
+        return ((Number) claims.get(USER_ID_CLAIM)).longValue();
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        return ((Number) claims.get(TOKEN_VERSION_CLAIM)).intValue();
+    }
+
+    /**
+     * Build the authenticated principal from a token's claims; it carries no password
+     * @param claims Verified claims with authorization claims present
+     * @return UserDetails with the token's username and roles
+     */
+    public UserDetails toUserDetails(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : (List<?>) claims.get(ROLES_CLAIM)) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new org.springframework.security.core.userdetails.User(claims.getSubject(), "", authorities);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -66,7 +176,17 @@ public class JwtUtils {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(extractAllClaims(token), userDetails);
+    }
+
+    /**
+     * Check already-extracted claims against a user, without touching the token again
+     * @param claims Verified claims from extractAllClaims
+     * @param userDetails User the token must belong to
+     * @return true if the token is for this user and not expired
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && (claims.getExpiration() == null || !claims.getExpiration().before(new Date()));
     }
 } 
\ No newline at end of file
@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,7 +20,12 @@ import jakarta.persistence.CascadeType;
 
 
 @Entity
-@Table(name = "members")
+@Table(name = "members", indexes = {
+    @Index(name = "idx_member_end_date", columnList = "membership_end_date"),
+    @Index(name = "idx_member_start_date", columnList = "membership_start_date"),
+    @Index(name = "idx_member_type_active", columnList = "membership_type, active"),
+    @Index(name = "idx_member_active", columnList = "active")
+})
 @Data
 @NoArgsConstructor
 public class Member {
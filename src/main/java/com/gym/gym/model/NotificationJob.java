@@ -0,0 +1,56 @@
+package com.gym.gym.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification fan-out (bulk message, class reminders, ...) whose emails are queued in
+ * the email outbox. Counters are updated by the outbox workers as emails are delivered.
+ */
+@Entity
+@Table(name = "notification_jobs")
+@Data
+@NoArgsConstructor
+public class NotificationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Size(max = 50)
+    private String type; // BULK, CLASS_REMINDER, MEMBERSHIP_EXPIRY, ...
+
+    @Size(max = 20)
+    private String status; // QUEUED, SENDING, COMPLETED, FAILED
+
+    private int totalCount;
+
+    private int sentCount;
+
+    private int failedCount;
+
+    @Size(max = 500)
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public NotificationJob(String type) {
+        this.type = type;
+        this.status = "QUEUED";
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,78 @@
+package com.gym.gym.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One email waiting in the outbox. Rows are written in the same transaction that plans a
+ * notification job and drained by EmailOutboxService, so nothing is lost if the
+ * application stops mid-send.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbox_job", columnList = "job_id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Size(max = 100)
+    private String recipient;
+
+    @Size(max = 200)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Size(max = 20)
+    private String status; // PENDING, SENDING, SENT, FAILED
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Size(max = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public OutboxEmail(Long jobId, String recipient, String subject, String body) {
+        this.jobId = jobId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = "PENDING";
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -9,12 +9,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payment_created", columnList = "created_at, id"),
+    @Index(name = "idx_payment_status_date", columnList = "status, payment_date, amount"),
+    @Index(name = "idx_payment_member_created", columnList = "member_id, created_at"),
+    @Index(name = "idx_payment_member_date", columnList = "member_id, payment_date"),
+    @Index(name = "idx_payment_date", columnList = "payment_date")
+})
 @Data
 @NoArgsConstructor
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -14,6 +14,8 @@ import jakarta.persistence.CascadeType;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.EnumType;
@@ -22,10 +24,13 @@ import jakarta.persistence.GenerationType;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "trainers")
+@Table(name = "trainers", indexes = {
+    @Index(name = "idx_trainer_available_rate", columnList = "available, hourly_rate")
+})
 @Data
 @NoArgsConstructor
 
@@ -40,8 +45,12 @@ public  class Trainer {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    // In Trainer.java
-    @OneToMany(mappedBy = "trainer", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    // Lazy: query classes by trainer (FitnessClassRepository.findByTrainerId) instead of walking this.
+    // Not part of the trainer JSON; clients read a trainer's classes from GET /api/trainers/{id}/classes
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "trainer", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<FitnessClass> fitnessClasses;
     
     public Set<FitnessClass> getFitnessClasses() {
@@ -65,7 +74,8 @@ public  class Trainer {
     private String address;
     @JsonIgnore
     @ElementCollection
-    @CollectionTable(name = "trainer_specializations", joinColumns = @JoinColumn(name = "trainer_id"))
+    @CollectionTable(name = "trainer_specializations", joinColumns = @JoinColumn(name = "trainer_id"),
+            indexes = @Index(name = "idx_trainer_specialization", columnList = "specialization, trainer_id"))
     @Column(name = "specialization")
     private Set<String> specializations;
 
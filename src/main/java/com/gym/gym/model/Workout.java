@@ -3,6 +3,8 @@ package com.gym.gym.model;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Index;
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,10 +13,14 @@ import java.time.LocalDate;
 
 @Data
 @Entity
-@Table(name = "workouts")
+@Table(name = "workouts", indexes = {
+    @Index(name = "idx_workout_date", columnList = "date, id"),
+    @Index(name = "idx_workout_type_date", columnList = "type, date")
+})
 public class Workout {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workouts_seq")
+    @SequenceGenerator(name = "workouts_seq", sequenceName = "workouts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -2,12 +2,24 @@ package com.gym.gym.repository;
 
 import org.springframework.stereotype.Repository;
 
+import com.gym.gym.dto.BookingExportRow;
 import com.gym.gym.model.ClassBooking;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ClassBookingRepository extends JpaRepository<ClassBooking, Long> {
@@ -16,4 +28,26 @@ public interface ClassBookingRepository extends JpaRepository<ClassBooking, Long
     List<ClassBooking> findByStatus(String status);
     int countByFitnessClassIdAndStatus(Long classId, String status);
     boolean existsByMemberIdAndFitnessClassIdAndStatus(Long memberId, Long classId, String status);
-}
\ No newline at end of file
+    boolean existsByMemberIdAndFitnessClassIdAndStatusIn(Long memberId, Long classId, List<String> statuses);
+
+    // Status changes load the booking locked, so of two concurrent ones the second sees the first's result
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ClassBooking b WHERE b.id = :id")
+    Optional<ClassBooking> findForUpdateById(@Param("id") Long id);
+
+    // --- Waitlist, in (booking date, id) order (served by idx_booking_class_status_date) ---
+    List<ClassBooking> findByFitnessClassIdAndStatusOrderByBookingDateAscIdAsc(Long classId, String status);
+
+    @Query("SELECT COUNT(b) FROM ClassBooking b WHERE b.fitnessClass.id = :classId AND b.status = :status " +
+           "AND (b.bookingDate < :bookingDate OR (b.bookingDate = :bookingDate AND b.id < :id))")
+    long countAhead(@Param("classId") Long classId, @Param("status") String status,
+                    @Param("bookingDate") LocalDateTime bookingDate, @Param("id") Long id);
+
+    // --- Streaming export (see ExportService); close the stream, and read it inside a transaction ---
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.gym.gym.dto.BookingExportRow(b.id, m.id, u.email, c.id, c.name, c.startTime, " +
+           "b.bookingDate, b.status) " +
+           "FROM ClassBooking b JOIN b.member m JOIN m.user u JOIN b.fitnessClass c " +
+           "WHERE b.bookingDate >= :from AND b.bookingDate < :to ORDER BY b.bookingDate, b.id")
+    Stream<BookingExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
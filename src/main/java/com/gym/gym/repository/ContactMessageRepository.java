@@ -23,6 +23,15 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
     List<ContactMessage> findTopByOrderBySubmissionDateDesc(Pageable pageable);
     List<ContactMessage> findTop5ByOrderBySubmissionDateDesc(); // replace 5 with any number
 
+    // --- Keyset pagination (see PageCursor); the page size comes from the Pageable ---
+    List<ContactMessage> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<ContactMessage> findAllByOrderBySubmissionDateDescIdDesc(Pageable pageable);
+
+    @Query("SELECT m FROM ContactMessage m WHERE m.submissionDate < :submissionDate OR (m.submissionDate = :submissionDate AND m.id < :id) " +
+           "ORDER BY m.submissionDate DESC, m.id DESC")
+    List<ContactMessage> findNewestBefore(@Param("submissionDate") LocalDateTime submissionDate, @Param("id") Long id, Pageable pageable);
+
     
     @Query("SELECT m FROM ContactMessage m WHERE " +
             "LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -30,4 +39,8 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
             "LOWER(m.subject) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(m.message) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<ContactMessage> searchByKeyword(@Param("keyword") String keyword);
+
+    // --- Keyword index (see KeywordSearchService) ---
+    @Query("SELECT m.id, m.subject, m.name, m.email, m.message FROM ContactMessage m")
+    List<Object[]> findSearchableText();
 } 
\ No newline at end of file
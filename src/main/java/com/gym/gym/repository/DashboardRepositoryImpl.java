@@ -6,7 +6,8 @@ import com.gym.gym.repository.DashboardRepository; // Import the custom interfac
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional; // Important for lazy loading
-import java.util.Comparator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -14,11 +15,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 
 /**
  * Implementation of DashboardRepository for fetching aggregated statistics.
- * It uses existing JpaRepositories to gather and process data.
+ * Counts, sums and distributions are pushed down to the database as COUNT / SUM / GROUP BY
+ * queries on the existing JpaRepositories, so memory use is bounded by the number of groups
+ * rather than the number of rows.
  */
 @Repository
 public class DashboardRepositoryImpl implements DashboardRepository {
@@ -49,7 +51,7 @@ public class DashboardRepositoryImpl implements DashboardRepository {
 
     @Override
     public long getActiveMembersCount() {
-        return memberRepository.findByActiveTrue().size();
+        return memberRepository.countByActiveTrue();
     }
 
     @Override
@@ -59,16 +61,12 @@ public class DashboardRepositoryImpl implements DashboardRepository {
 
     @Override
     public long getNewMembersCountSince(LocalDateTime dateTime) {
-        return memberRepository.findAll().stream()
-                .filter(member -> member.getMembershipStartDate() != null && member.getMembershipStartDate().isAfter(dateTime))
-                .count();
+        return memberRepository.countByMembershipStartDateAfter(dateTime);
     }
 
     @Override
     public double getMembershipGrowthPercentage(LocalDateTime previousPeriodEnd) {
-        long previousPeriodMembers = memberRepository.findAll().stream()
-                .filter(member -> member.getMembershipStartDate() != null && member.getMembershipStartDate().isBefore(previousPeriodEnd))
-                .count();
+        long previousPeriodMembers = memberRepository.countByMembershipStartDateBefore(previousPeriodEnd);
         long currentMembers = getTotalMembersCount();
 
         if (previousPeriodMembers == 0) return 0.0;
@@ -78,46 +76,37 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     @Override
     public Map<String, Long> getMembershipDistributionData() {
         Map<String, Long> distribution = new HashMap<>();
-        List<Member> allMembers = memberRepository.findAll();
-        distribution.put("BASIC", allMembers.stream().filter(m -> m.getMembershipType() == MembershipType.BASIC).count());
-        distribution.put("PREMIUM", allMembers.stream().filter(m -> m.getMembershipType() == MembershipType.PREMIUM).count());
-        distribution.put("VIP", allMembers.stream().filter(m -> m.getMembershipType() == MembershipType.VIP).count());
+        distribution.put("BASIC", 0L);
+        distribution.put("PREMIUM", 0L);
+        distribution.put("VIP", 0L);
+        mergeGroupedCounts(distribution, memberRepository.countGroupedByMembershipType());
         return distribution;
     }
 
     @Override
     public Map<String, Long> getGenderDistributionData() {
         Map<String, Long> distribution = new HashMap<>();
-        List<Member> allMembers = memberRepository.findAll();
-        distribution.put("MALE", allMembers.stream().filter(m -> m.getGender() == Gender.MALE).count());
-        distribution.put("FEMALE", allMembers.stream().filter(m -> m.getGender() == Gender.FEMALE).count());
-        distribution.put("OTHER", allMembers.stream().filter(m -> m.getGender() == Gender.OTHER).count());
+        distribution.put("MALE", 0L);
+        distribution.put("FEMALE", 0L);
+        distribution.put("OTHER", 0L);
+        mergeGroupedCounts(distribution, memberRepository.countGroupedByGender());
         return distribution;
     }
 
     // --- Revenue Statistics ---
     @Override
     public double getTotalRevenueAmount() {
-        return paymentRepository.findByStatus("PAID")
-                .stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return ((Number) firstRow(paymentRepository.countAndSumByStatus("PAID"))[1]).doubleValue();
     }
 
     @Override
     public double getRevenueAmountSince(LocalDateTime dateTime) {
-        return paymentRepository.findByStatus("PAID").stream()
-                .filter(payment -> payment.getPaymentDate() != null && payment.getPaymentDate().isAfter(dateTime))
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return paymentRepository.sumAmountByStatusAndPaymentDateAfter("PAID", dateTime);
     }
 
     @Override
     public double getRevenueGrowthPercentage(LocalDateTime previousPeriodEnd) {
-        double previousPeriodRevenue = paymentRepository.findByStatusAndPaymentDateBefore("PAID", previousPeriodEnd)
-                .stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        double previousPeriodRevenue = paymentRepository.sumAmountByStatusAndPaymentDateBefore("PAID", previousPeriodEnd);
         double currentPeriodRevenue = getRevenueAmountSince(LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0));
 
         if (previousPeriodRevenue == 0) return 0.0;
@@ -126,61 +115,48 @@ public class DashboardRepositoryImpl implements DashboardRepository {
 
     @Override
     public long getPendingPaymentsCount() {
-        return paymentRepository.findByStatus("PENDING").size();
+        return paymentRepository.countByStatus("PENDING");
     }
 
     @Override
     public long getPaidPaymentsCount() {
-        return paymentRepository.findByStatus("PAID").size();
+        return paymentRepository.countByStatus("PAID");
     }
 
     @Override
     public Map<String, Double> getRevenueByPaymentMethodData() {
         Map<String, Double> revenue = new HashMap<>();
-        List<Payment> paidPayments = paymentRepository.findByStatus("PAID");
-        revenue.put("CASH", paidPayments.stream()
-                .filter(p -> "CASH".equals(p.getPaymentMethod()))
-                .mapToDouble(Payment::getAmount).sum());
-        revenue.put("CARD", paidPayments.stream()
-                .filter(p -> "CARD".equals(p.getPaymentMethod()))
-                .mapToDouble(Payment::getAmount).sum());
-        revenue.put("ONLINE", paidPayments.stream()
-                .filter(p -> "ONLINE".equals(p.getPaymentMethod()))
-                .mapToDouble(Payment::getAmount).sum());
+        revenue.put("CASH", 0.0);
+        revenue.put("CARD", 0.0);
+        revenue.put("ONLINE", 0.0);
+        for (Object[] row : paymentRepository.sumAmountGroupedByPaymentMethod("PAID")) {
+            String method = (String) row[0];
+            if (revenue.containsKey(method)) {
+                revenue.put(method, ((Number) row[1]).doubleValue());
+            }
+        }
         return revenue;
     }
 
     @Override
-    @Transactional(readOnly = true) // Ensure session is open for lazy loading if Payment.fitnessClass is lazy
     public List<Map<String, Object>> getRevenueByClassData() {
-        // Fetch all payments. If Payment.fitnessClass is LAZY, this might cause N+1.
-        // For better performance, consider a custom query in PaymentRepository
-        // like @Query("SELECT p FROM Payment p JOIN FETCH p.fitnessClass WHERE p.status = 'PAID'")
-        List<Payment> paidPayments = paymentRepository.findByStatus("PAID");
-
-        return paidPayments.stream()
-                .filter(payment -> payment.getFitnessClass() != null) // Defensive null check
-                .collect(Collectors.groupingBy(
-                        payment -> payment.getFitnessClass().getName(), // Group by class name
-                        Collectors.summingDouble(Payment::getAmount) // Sum amounts
-                ))
-                .entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> classRevenue = new HashMap<>();
-                    classRevenue.put("className", entry.getKey());
-                    classRevenue.put("revenue", entry.getValue());
-                    return classRevenue;
-                })
-                .sorted((a, b) -> Double.compare((Double) b.get("revenue"), (Double) a.get("revenue"))) // Sort by revenue
-                .collect(Collectors.toList());
+        // Grouped and sorted by revenue in the database; one row per class name
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : paymentRepository.sumAmountGroupedByClassName("PAID")) {
+            Map<String, Object> classRevenue = new HashMap<>();
+            classRevenue.put("className", row[0]);
+            classRevenue.put("revenue", ((Number) row[1]).doubleValue());
+            result.add(classRevenue);
+        }
+        return result;
     }
 
     @Override
     public double getAverageTransactionValue() {
-        List<Payment> paidPayments = paymentRepository.findByStatus("PAID");
-        if (paidPayments.isEmpty()) return 0.0;
-        double totalAmount = paidPayments.stream().mapToDouble(Payment::getAmount).sum();
-        return totalAmount / paidPayments.size();
+        Object[] countAndSum = firstRow(paymentRepository.countAndSumByStatus("PAID"));
+        long count = ((Number) countAndSum[0]).longValue();
+        if (count == 0) return 0.0;
+        return ((Number) countAndSum[1]).doubleValue() / count;
     }
 
     // --- Class Statistics ---
@@ -191,9 +167,7 @@ public class DashboardRepositoryImpl implements DashboardRepository {
 
     @Override
     public long getActiveClassesCount() {
-        return fitnessClassRepository.findAll().stream()
-                .filter(FitnessClass::isActive)
-                .count();
+        return fitnessClassRepository.countByActiveTrue();
     }
 
     @Override
@@ -202,75 +176,44 @@ public class DashboardRepositoryImpl implements DashboardRepository {
     }
 
     @Override
-    @Transactional(readOnly = true) // Crucial for lazy-loaded enrollments
     public double getAverageClassAttendanceValue() {
-        List<FitnessClass> classes = fitnessClassRepository.findAll(); // Fetches classes, enrollments are LAZY
-        if (classes.isEmpty()) return 0.0;
-
-        double totalAttendance = classes.stream()
-                .mapToDouble(fitnessClass -> {
-                    // This is where LazyInitializationException would occur if not transactional
-                    // and if fitnessClass.getEnrollments() is LAZY and session closed.
-                    // Assuming getCurrentEnrollment accesses the lazy collection.
-                    return fitnessClass.getCurrentEnrollment();
-                })
-                .sum();
-        return totalAttendance / classes.size();
+        return ((Number) firstRow(fitnessClassRepository.averageEnrollmentAndUtilization())[0]).doubleValue();
     }
 
-@Override
-@Transactional(readOnly = true)
-public List<Map<String, Object>> getMostPopularClassesData() {
-    List<FitnessClass> allClasses = fitnessClassRepository.findAll();
-    return allClasses.stream()
-            .map(fitnessClass -> {
-                Map<String, Object> classStats = new HashMap<>();
-                classStats.put("className", fitnessClass.getName());
-                classStats.put("enrollment", fitnessClass.getCurrentEnrollment());
-                classStats.put("maxCapacity", fitnessClass.getMaxCapacity());
-
-                double utilization = 0.0;
-                if (fitnessClass.getMaxCapacity() > 0) {
-                    utilization = (double) fitnessClass.getCurrentEnrollment() / fitnessClass.getMaxCapacity() * 100;
-                }
-                classStats.put("utilization", utilization);
-                return classStats;
-            })
-            // Fix starts here: Safely convert Integer/Long to Double for comparison
-            .sorted((a, b) -> {
-                // Retrieve as Number to handle both Integer and Long
-                Number enrollmentA = (Number) a.get("enrollment");
-                Number enrollmentB = (Number) b.get("enrollment");
-                return Double.compare(enrollmentB.doubleValue(), enrollmentA.doubleValue());
-            })
-            .limit(10)
-            .collect(Collectors.toList());
-}
+    @Override
+    public List<Map<String, Object>> getMostPopularClassesData() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : fitnessClassRepository.findEnrollmentSummaryOrderByEnrollmentDesc(PageRequest.of(0, 10))) {
+            int enrollment = ((Number) row[1]).intValue();
+            int maxCapacity = ((Number) row[2]).intValue();
+
+            Map<String, Object> classStats = new HashMap<>();
+            classStats.put("className", row[0]);
+            classStats.put("enrollment", enrollment);
+            classStats.put("maxCapacity", maxCapacity);
+
+            double utilization = 0.0;
+            if (maxCapacity > 0) {
+                utilization = (double) enrollment / maxCapacity * 100;
+            }
+            classStats.put("utilization", utilization);
+            result.add(classStats);
+        }
+        return result;
+    }
 
     @Override
-    @Transactional(readOnly = true) // Crucial for lazy-loaded enrollments
     public double getClassUtilizationPercentage() {
-        List<FitnessClass> classes = fitnessClassRepository.findAll(); // Fetches classes, enrollments are LAZY
-        if (classes.isEmpty()) return 0.0;
-
-        double totalUtilization = classes.stream()
-                .mapToDouble(class1 -> {
-                    if (class1.getMaxCapacity() > 0) { // Defensive check for division by zero
-                        return (double) class1.getCurrentEnrollment() / class1.getMaxCapacity();
-                    }
-                    return 0.0;
-                })
-                .sum();
-        return (totalUtilization / classes.size()) * 100;
+        return ((Number) firstRow(fitnessClassRepository.averageEnrollmentAndUtilization())[1]).doubleValue() * 100;
     }
 
     @Override
     public Map<String, Long> getClassLevelDistributionData() {
         Map<String, Long> distribution = new HashMap<>();
-        List<FitnessClass> allClasses = fitnessClassRepository.findAll();
-        distribution.put("BEGINNER", allClasses.stream().filter(c -> c.getLevel() == ClassLevel.BEGINNER).count());
-        distribution.put("INTERMEDIATE", allClasses.stream().filter(c -> c.getLevel() == ClassLevel.INTERMEDIATE).count());
-        distribution.put("ADVANCED", allClasses.stream().filter(c -> c.getLevel() == ClassLevel.ADVANCED).count());
+        distribution.put("BEGINNER", 0L);
+        distribution.put("INTERMEDIATE", 0L);
+        distribution.put("ADVANCED", 0L);
+        mergeGroupedCounts(distribution, fitnessClassRepository.countGroupedByLevel());
         return distribution;
     }
 
@@ -282,68 +225,43 @@ public List<Map<String, Object>> getMostPopularClassesData() {
 
     @Override
     public long getActiveTrainersCount() {
-        return trainerRepository.findAll().stream()
-                .filter(Trainer::getAvailable)
-                .count();
+        return trainerRepository.countByAvailableTrue();
     }
 
     @Override
-    @Transactional(readOnly = true) // Crucial if Trainer.user is lazy-loaded
     public List<Map<String, Object>> getTrainerPerformanceData() {
-        return trainerRepository.findAll() // Fetches trainers, Trainer.user might be LAZY
-                .stream()
-                .map(trainer -> {
-                    Map<String, Object> performance = new HashMap<>();
-                    // Defensive null check for trainer.getUser()
-                    if (trainer.getUser() != null) {
-                        performance.put("trainerName", trainer.getUser().getFirstName() + " " + trainer.getUser().getLastName());
-                    } else {
-                        performance.put("trainerName", "Unknown Trainer (ID: " + trainer.getId() + ")");
-                    }
-
-                    // This part re-queries all fitness classes and filters them, could be optimized
-                    List<FitnessClass> trainerClasses = fitnessClassRepository.findAll().stream()
-                            .filter(c -> c.getTrainer() != null && c.getTrainer().getId().equals(trainer.getId())) // Defensive null check
-                            .collect(Collectors.toList());
-                    performance.put("classesCount", trainerClasses.size());
-                    performance.put("totalEnrollment", trainerClasses.stream()
-                            .mapToInt(FitnessClass::getCurrentEnrollment).sum()); // Potential L.I.E. here
-                    return performance;
-                })
-                .collect(Collectors.toList());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : trainerRepository.findClassStatisticsPerTrainer()) {
+            Map<String, Object> performance = new HashMap<>();
+            performance.put("trainerName", row[1] != null
+                    ? row[1] + " " + row[2]
+                    : "Unknown Trainer (ID: " + row[0] + ")");
+            performance.put("classesCount", ((Number) row[3]).intValue());
+            performance.put("totalEnrollment", ((Number) row[4]).intValue());
+            performance.put("revenue", ((Number) row[6]).doubleValue());
+            result.add(performance);
+        }
+        return result;
     }
 
     @Override
-    @Transactional(readOnly = true) // Crucial if Trainer.user is lazy-loaded
     public List<Map<String, Object>> getTrainerWorkloadData() {
-        return trainerRepository.findAll()
-                .stream()
-                .map(trainer -> {
-                    Map<String, Object> workload = new HashMap<>();
-                    // Defensive null check for trainer.getUser() if you want the name here
-                    if (trainer.getUser() != null) {
-                        workload.put("trainerName", trainer.getUser().getFirstName() + " " + trainer.getUser().getLastName());
-                    } else {
-                        workload.put("trainerName", "Trainer " + trainer.getId());
-                    }
-
-                    List<FitnessClass> trainerClasses = fitnessClassRepository.findAll().stream()
-                            .filter(c -> c.getTrainer() != null && c.getTrainer().getId().equals(trainer.getId()))
-                            .collect(Collectors.toList());
-                    workload.put("activeClasses", trainerClasses.stream().filter(FitnessClass::isActive).count());
-                    workload.put("totalClasses", trainerClasses.size());
-                    return workload;
-                })
-                .collect(Collectors.toList());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : trainerRepository.findClassStatisticsPerTrainer()) {
+            Map<String, Object> workload = new HashMap<>();
+            workload.put("trainerName", row[1] != null ? row[1] + " " + row[2] : "Trainer " + row[0]);
+            workload.put("activeClasses", ((Number) row[5]).longValue());
+            workload.put("totalClasses", ((Number) row[3]).intValue());
+            result.add(workload);
+        }
+        return result;
     }
 
     // --- Recent Activity ---
     @Override
     @Transactional(readOnly = true) // Crucial for lazy-loaded member/fitnessClass
     public List<Map<String, Object>> getRecentBookingsData(int limit) {
-        return classBookingRepository.findAll().stream()
-                .sorted(Comparator.comparing(ClassBooking::getBookingDate, Comparator.nullsLast(Comparator.reverseOrder()))) // Assuming bookingDate exists
-                .limit(limit)
+        return classBookingRepository.findAll(PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "bookingDate"))).stream()
                 .map(booking -> {
                     Map<String, Object> bookingMap = new HashMap<>();
                     bookingMap.put("id", booking.getId());
@@ -360,9 +278,7 @@ public List<Map<String, Object>> getMostPopularClassesData() {
     @Override
     @Transactional(readOnly = true) // Crucial for lazy-loaded member
     public List<Map<String, Object>> getRecentPaymentsData(int limit) {
-        return paymentRepository.findAll().stream()
-                .sorted(Comparator.comparing(Payment::getPaymentDate, Comparator.nullsLast(Comparator.reverseOrder()))) // Assuming paymentDate exists
-                .limit(limit)
+        return paymentRepository.findAll(PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "paymentDate"))).stream()
                 .map(payment -> {
                     Map<String, Object> paymentMap = new HashMap<>();
                     paymentMap.put("id", payment.getId());
@@ -378,9 +294,7 @@ public List<Map<String, Object>> getMostPopularClassesData() {
 
     @Override
     public List<Map<String, Object>> getRecentMessagesData(int limit) {
-        return contactMessageRepository.findAll().stream()
-                .sorted(Comparator.comparing(ContactMessage::getSubmissionDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(limit)
+        return contactMessageRepository.findAll(PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "submissionDate"))).stream()
                 .map(message -> {
                     Map<String, Object> messageMap = new HashMap<>();
                     messageMap.put("id", message.getId());
@@ -393,4 +307,28 @@ public List<Map<String, Object>> getMostPopularClassesData() {
                 .collect(Collectors.toList());
     }
 
-}
\ No newline at end of file
+    /**
+     * Copy [key, count] rows from a GROUP BY query into a pre-seeded distribution map.
+     * Only keys already present in the map are reported, matching the dashboard contract.
+     * @param distribution Map seeded with the reported keys
+     * @param rows Grouped rows of [enum or string key, count]
+     */
+    private void mergeGroupedCounts(Map<String, Long> distribution, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row[0] == null) continue;
+            String key = row[0].toString();
+            if (distribution.containsKey(key)) {
+                distribution.put(key, ((Number) row[1]).longValue());
+            }
+        }
+    }
+
+    /**
+     * Single-row aggregate queries are returned as a one-element list of tuples
+     * @param rows Query result
+     * @return The aggregate tuple
+     */
+    private Object[] firstRow(List<Object[]> rows) {
+        return rows.get(0);
+    }
+}
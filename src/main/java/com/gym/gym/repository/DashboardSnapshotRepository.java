@@ -0,0 +1,10 @@
+package com.gym.gym.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.gym.gym.model.DashboardSnapshot;
+
+@Repository
+public interface DashboardSnapshotRepository extends JpaRepository<DashboardSnapshot, String> {
+}
@@ -1,34 +1,137 @@
 package com.gym.gym.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
 
+import com.gym.gym.dto.ClassSummaryDTO;
 import com.gym.gym.model.ClassLevel;
 import com.gym.gym.model.FitnessClass;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface FitnessClassRepository extends JpaRepository<FitnessClass, Long> {
+
+    // --- List and detail views: trainer and its user are joined in, enrollments stay unloaded ---
+
+    @Override
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
+    List<FitnessClass> findAll();
+
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
+    Optional<FitnessClass> findDetailById(Long id);
+
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByTrainerId(Long trainerId);
     List<FitnessClass> findByLevel(String level);
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByLevel(ClassLevel level);
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByStartTimeAfter(LocalDateTime time);
     List<FitnessClass> findByCurrentEnrollmentLessThan(int maxCapacity);
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByRequiredEquipmentContaining(String equipment);
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByRoom(String room);
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     List<FitnessClass> findByPriceBetween(double minPrice, double maxPrice);
-    
+
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     @Query("SELECT f FROM FitnessClass f WHERE " +
     "LOWER(f.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
     "LOWER(f.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
     "LOWER(f.room) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<FitnessClass> searchByKeyword(@Param("keyword") String keyword);
 
+    // --- Keyword index (see KeywordSearchService) ---
+    @Query("SELECT f.id, f.name, f.room, f.description FROM FitnessClass f")
+    List<Object[]> findSearchableText();
+
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
+    List<FitnessClass> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"trainer", "trainer.user"})
     @Query("SELECT f FROM FitnessClass f WHERE f.currentEnrollment < f.maxCapacity")
     List<FitnessClass> findByCurrentEnrollmentLessThanMaxCapacity();
-} 
\ No newline at end of file
+
+    // --- Seat reservation (single conditional UPDATE, the row lock is held only for the statement) ---
+
+    /**
+     * Take one seat if the class still has room
+     * @return 1 if a seat was taken, 0 if the class is full or does not exist
+     */
+    @Modifying
+    @Query("UPDATE FitnessClass f SET f.currentEnrollment = f.currentEnrollment + 1 " +
+           "WHERE f.id = :id AND f.currentEnrollment < f.maxCapacity")
+    int reserveSeat(@Param("id") Long id);
+
+    /**
+     * Give back one seat if any are taken
+     * @return 1 if a seat was released, 0 if enrollment is already zero or the class does not exist
+     */
+    @Modifying
+    @Query("UPDATE FitnessClass f SET f.currentEnrollment = f.currentEnrollment - 1 " +
+           "WHERE f.id = :id AND f.currentEnrollment > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.fitnessClass.trainer.id = :trainerId")
+    boolean existsEnrollmentByTrainerId(@Param("trainerId") Long trainerId);
+
+    @Query("SELECT f.maxCapacity - f.currentEnrollment FROM FitnessClass f WHERE f.id = :id")
+    Integer findRemainingSeats(@Param("id") Long id);
+
+    // Reminder wheel bootstrap: id and start time only
+    @Query("SELECT f.id, f.startTime FROM FitnessClass f WHERE f.startTime > :after")
+    List<Object[]> findStartTimesAfter(@Param("after") LocalDateTime after);
+
+    // Schedule index bootstrap (see ClassScheduleIndex)
+    @Query("SELECT f.id, f.room, f.trainer.id, f.startTime, f.endTime FROM FitnessClass f " +
+           "WHERE f.active = true AND f.endTime > :after")
+    List<Object[]> findScheduleEndingAfter(@Param("after") LocalDateTime after);
+
+    // Availability index bootstrap (see ClassAvailabilityIndex): summaries, then equipment as (id, item) rows
+    @Query("SELECT new com.gym.gym.dto.ClassSummaryDTO(f.id, f.name, f.description, f.startTime, f.endTime, " +
+           "f.maxCapacity, f.currentEnrollment, f.room, f.price, f.level, t.id, CONCAT(u.firstName, ' ', u.lastName)) " +
+           "FROM FitnessClass f JOIN f.trainer t JOIN t.user u WHERE f.active = true AND f.startTime > :after")
+    List<ClassSummaryDTO> findUpcomingSummaries(@Param("after") LocalDateTime after);
+
+    @Query("SELECT f.id, e FROM FitnessClass f JOIN f.requiredEquipment e WHERE f.active = true AND f.startTime > :after")
+    List<Object[]> findUpcomingEquipment(@Param("after") LocalDateTime after);
+
+    /**
+     * Active classes overlapping [from, to) that share the trainer or the room; serves
+     * ClassScheduleIndex lookups until the index is built
+     * @return Rows of id, name, start time, end time, room, trainer ID; ordered by start time
+     */
+    @Query("SELECT f.id, f.name, f.startTime, f.endTime, f.room, f.trainer.id FROM FitnessClass f " +
+           "WHERE f.active = true AND f.startTime < :to AND f.endTime > :from " +
+           "AND (f.trainer.id = :trainerId OR f.room = :room) ORDER BY f.startTime")
+    List<Object[]> findScheduledForTrainerOrRoom(@Param("trainerId") Long trainerId, @Param("room") String room,
+                                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // --- Dashboard aggregates (evaluated in the database, no entity loading) ---
+    long countByActiveTrue();
+
+    /**
+     * Average enrollment and average utilization (0..1) across all classes, as a single row
+     */
+    @Query("SELECT COALESCE(AVG(f.currentEnrollment), 0), " +
+           "COALESCE(AVG(CASE WHEN f.maxCapacity > 0 THEN 1.0 * f.currentEnrollment / f.maxCapacity ELSE 0.0 END), 0) " +
+           "FROM FitnessClass f")
+    List<Object[]> averageEnrollmentAndUtilization();
+
+    @Query("SELECT f.name, f.currentEnrollment, f.maxCapacity FROM FitnessClass f ORDER BY f.currentEnrollment DESC")
+    List<Object[]> findEnrollmentSummaryOrderByEnrollmentDesc(Pageable pageable);
+
+    @Query("SELECT f.level, COUNT(f) FROM FitnessClass f GROUP BY f.level")
+    List<Object[]> countGroupedByLevel();
+}
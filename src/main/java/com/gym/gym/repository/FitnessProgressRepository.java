@@ -1,16 +1,48 @@
 package com.gym.gym.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.gym.gym.dto.ProgressExportRow;
 import com.gym.gym.model.FitnessProgress;
 
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface FitnessProgressRepository extends JpaRepository<FitnessProgress, Long> {
     List<FitnessProgress> findByMember_Id(Long memberId);
     List<FitnessProgress> findByMember_IdAndDateBetween(Long memberId, LocalDate start, LocalDate end);
     List<FitnessProgress> findByMember_IdOrderByDateDesc(Long memberId);
-}
\ No newline at end of file
+
+    // --- Keyset pagination (see PageCursor); the page size comes from the Pageable ---
+    @EntityGraph(attributePaths = {"member", "member.user"})
+    List<FitnessProgress> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"member", "member.user"})
+    List<FitnessProgress> findAllByOrderByDateDescIdDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"member", "member.user"})
+    @Query("SELECT f FROM FitnessProgress f WHERE f.date < :date OR (f.date = :date AND f.id < :id) " +
+           "ORDER BY f.date DESC, f.id DESC")
+    List<FitnessProgress> findNewestBefore(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    // --- Streaming export (see ExportService); close the stream, and read it inside a transaction ---
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.gym.gym.dto.ProgressExportRow(f.id, m.id, u.email, f.date, f.weight, " +
+           "f.bodyFatPercentage, f.muscleMass, f.chestMeasurement, f.waistMeasurement, f.hipMeasurement, " +
+           "f.bicepMeasurement, f.thighMeasurement, f.notes) " +
+           "FROM FitnessProgress f JOIN f.member m JOIN m.user u " +
+           "WHERE f.date >= :from AND f.date <= :to ORDER BY f.date, f.id")
+    Stream<ProgressExportRow> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,11 +1,17 @@
 package com.gym.gym.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.gym.gym.dto.MemberRecipientDTO;
 import com.gym.gym.model.Member;
 import com.gym.gym.model.MembershipType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +20,48 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     List<Member> findByActiveTrue();
     List<Member> findByMembershipTypeAndActiveTrue(String membershipType);
     Optional<Member> findByUser_Email(String email);
+    Optional<Member> findByUserId(Long userId);
+
+    @Query("SELECT m.membershipType FROM Member m WHERE m.id = :id")
+    Optional<MembershipType> findMembershipTypeById(@Param("id") Long id);
     List<Member> findByUser_FirstNameContainingOrUser_LastNameContaining(String firstName, String lastName);
     List<Member> findByMembershipType(MembershipType membershipType);
-} 
\ No newline at end of file
+
+    // --- Keyset pagination (see PageCursor); the page size comes from the Pageable ---
+    @EntityGraph(attributePaths = "user")
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    List<Member> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    // --- Dashboard aggregates (evaluated in the database, no entity loading) ---
+    long countByActiveTrue();
+    long countByMembershipStartDateAfter(LocalDateTime dateTime);
+    long countByMembershipStartDateBefore(LocalDateTime dateTime);
+
+    @Query("SELECT m.membershipType, COUNT(m) FROM Member m GROUP BY m.membershipType")
+    List<Object[]> countGroupedByMembershipType();
+
+    @Query("SELECT m.gender, COUNT(m) FROM Member m GROUP BY m.gender")
+    List<Object[]> countGroupedByGender();
+
+    // Reminder wheel bootstrap: id and membership end date only
+    @Query("SELECT m.id, m.membershipEndDate FROM Member m WHERE m.membershipEndDate > :after")
+    List<Object[]> findMembershipEndDatesAfter(@Param("after") LocalDateTime after);
+
+    // --- Notification recipients (keyset pages ordered by id: pass the last id seen, 0 to start) ---
+    String RECIPIENT = "SELECT new com.gym.gym.dto.MemberRecipientDTO(m.id, u.email, u.firstName, m.membershipType, m.membershipEndDate) " +
+                       "FROM Member m JOIN m.user u ";
+
+    @Query(RECIPIENT + "WHERE m.id > :afterId ORDER BY m.id")
+    List<MemberRecipientDTO> findRecipients(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(RECIPIENT + "WHERE m.active = :active AND m.id > :afterId ORDER BY m.id")
+    List<MemberRecipientDTO> findRecipientsByActive(@Param("active") boolean active, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(RECIPIENT + "WHERE m.membershipType = :type AND m.id > :afterId ORDER BY m.id")
+    List<MemberRecipientDTO> findRecipientsByMembershipType(@Param("type") MembershipType type, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(RECIPIENT + "WHERE m.membershipEndDate IS NOT NULL AND m.membershipEndDate < :before AND m.id > :afterId ORDER BY m.id")
+    List<MemberRecipientDTO> findRecipientsWithMembershipEndingBefore(@Param("before") LocalDateTime before, @Param("afterId") Long afterId, Pageable pageable);
+}
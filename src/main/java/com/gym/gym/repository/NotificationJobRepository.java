@@ -0,0 +1,35 @@
+package com.gym.gym.repository;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gym.gym.model.NotificationJob;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface NotificationJobRepository extends JpaRepository<NotificationJob, Long> {
+
+    // --- Progress counters, updated in place so concurrent workers never lose an increment ---
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.sentCount = j.sentCount + 1 WHERE j.id = :id")
+    int incrementSent(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.failedCount = j.failedCount + 1 WHERE j.id = :id")
+    int incrementFailed(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationJob j SET j.status = 'COMPLETED', j.completedAt = :now " +
+           "WHERE j.id = :id AND j.status = 'SENDING' AND j.sentCount + j.failedCount >= j.totalCount")
+    int completeIfDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,64 @@
+package com.gym.gym.repository;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gym.gym.model.OutboxEmail;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // Served by idx_outbox_status_next_attempt
+    List<OutboxEmail> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(String status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a pending email for delivery
+     * @return 1 if this caller owns the email now, 0 if another worker claimed it first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'SENDING' WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'SENT', e.attempts = e.attempts + 1, e.sentAt = :now WHERE e.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'PENDING', e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'FAILED', e.attempts = :attempts, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+
+    /**
+     * Give up a claim without attempting delivery
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'PENDING' WHERE e.id = :id AND e.status = 'SENDING'")
+    int release(@Param("id") Long id);
+
+    /**
+     * Put emails that were claimed but never finished (e.g. the application stopped mid-send) back in the queue
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'PENDING' WHERE e.status = 'SENDING'")
+    int releaseClaims();
+}
@@ -1,12 +1,26 @@
 package com.gym.gym.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.gym.gym.dto.PaymentExportRow;
 import com.gym.gym.model.Payment;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -19,4 +33,51 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByPaymentMethod(String paymentMethod);
     List<Payment> findByMember_IdOrderByCreatedAtDesc(Long memberId);
     List<Payment> findByStatusAndPaymentDateBefore(String status, LocalDateTime date);
-} 
\ No newline at end of file
+
+    // Status changes load the payment locked, so of two concurrent ones the second sees the first's result
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findForUpdateById(@Param("id") Long id);
+
+    // --- Keyset pagination (see PageCursor); the page size comes from the Pageable ---
+    @EntityGraph(attributePaths = {"member", "member.user", "fitnessClass", "fitnessClass.trainer", "fitnessClass.trainer.user", "classBooking"})
+    List<Payment> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"member", "member.user", "fitnessClass", "fitnessClass.trainer", "fitnessClass.trainer.user", "classBooking"})
+    List<Payment> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"member", "member.user", "fitnessClass", "fitnessClass.trainer", "fitnessClass.trainer.user", "classBooking"})
+    @Query("SELECT p FROM Payment p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findNewestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // --- Streaming export (see ExportService); close the stream, and read it inside a transaction ---
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE))
+    @Query("SELECT new com.gym.gym.dto.PaymentExportRow(p.id, m.id, u.email, c.id, c.name, p.classBooking.id, " +
+           "p.amount, p.status, p.paymentMethod, p.bookingDate, p.paymentDate, p.createdAt) " +
+           "FROM Payment p JOIN p.member m JOIN m.user u JOIN p.fitnessClass c " +
+           "WHERE p.createdAt >= :from AND p.createdAt < :to ORDER BY p.createdAt, p.id")
+    Stream<PaymentExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // --- Dashboard aggregates (evaluated in the database, no entity loading) ---
+    long countByStatus(String status);
+
+    /**
+     * Count and total amount of payments in a status, as a single [count, sum] row
+     */
+    @Query("SELECT COUNT(p), COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.status = :status")
+    List<Object[]> countAndSumByStatus(@Param("status") String status);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.status = :status AND p.paymentDate > :date")
+    double sumAmountByStatusAndPaymentDateAfter(@Param("status") String status, @Param("date") LocalDateTime date);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.status = :status AND p.paymentDate < :date")
+    double sumAmountByStatusAndPaymentDateBefore(@Param("status") String status, @Param("date") LocalDateTime date);
+
+    @Query("SELECT p.paymentMethod, SUM(p.amount) FROM Payment p WHERE p.status = :status GROUP BY p.paymentMethod")
+    List<Object[]> sumAmountGroupedByPaymentMethod(@Param("status") String status);
+
+    @Query("SELECT c.name, SUM(p.amount) FROM Payment p JOIN p.fitnessClass c WHERE p.status = :status " +
+           "GROUP BY c.name ORDER BY SUM(p.amount) DESC")
+    List<Object[]> sumAmountGroupedByClassName(@Param("status") String status);
+}
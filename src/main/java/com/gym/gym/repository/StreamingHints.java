@@ -0,0 +1,18 @@
+package com.gym.gym.repository;
+
+/**
+ * Query hint values for repository methods that return a Stream.
+ */
+final class StreamingHints {
+
+    /**
+     * MySQL Connector/J only streams a result set row by row when the fetch size is
+     * Integer.MIN_VALUE; any other value buffers the whole result in memory. While such a
+     * result set is open no other statement can run on the connection, so streamed
+     * queries select flat projections rather than entities with associations to load.
+     */
+    static final String FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private StreamingHints() {
+    }
+}
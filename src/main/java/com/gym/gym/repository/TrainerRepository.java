@@ -1,15 +1,62 @@
 package com.gym.gym.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gym.gym.model.Trainer;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TrainerRepository extends JpaRepository<Trainer, Long> {
+public interface TrainerRepository extends JpaRepository<Trainer, Long>, JpaSpecificationExecutor<Trainer> {
+
+    // List views join the trainer's user instead of loading it with one query per row
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Trainer> findAll();
+
+    @EntityGraph(attributePaths = "user")
     List<Trainer> findByAvailableTrue();
+
+    @EntityGraph(attributePaths = "user")
     List<Trainer> findBySpecializationsContaining(String specialization);
+
     List<Trainer> findByUser_Email(String email);
-} 
\ No newline at end of file
+
+    @Query("SELECT t.id FROM Trainer t WHERE t.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    long countByAvailableTrue();
+
+    /**
+     * Per-trainer class statistics for the dashboard in a single grouped query
+     * @return Rows of [trainerId, firstName, lastName, classesCount, totalEnrollment, activeClasses, paidRevenue]
+     */
+    @Query("SELECT t.id, u.firstName, u.lastName, COUNT(f), COALESCE(SUM(f.currentEnrollment), 0), " +
+           "COALESCE(SUM(CASE WHEN f.active = true THEN 1 ELSE 0 END), 0), " +
+           "(SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.fitnessClass.trainer.id = t.id AND p.status = 'PAID') " +
+           "FROM Trainer t LEFT JOIN t.user u LEFT JOIN t.fitnessClasses f " +
+           "GROUP BY t.id, u.firstName, u.lastName ORDER BY t.id")
+    List<Object[]> findClassStatisticsPerTrainer();
+
+    // --- Search (see TrainerSpecifications) ---
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Trainer> findAll(Specification<Trainer> spec, Pageable pageable);
+
+    /**
+     * Specializations of a page of trainers in one query, instead of one per trainer
+     * @return Rows of [trainerId, specialization]
+     */
+    @Query("SELECT t.id, s FROM Trainer t JOIN t.specializations s WHERE t.id IN :ids")
+    List<Object[]> findSpecializationsByTrainerIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,45 @@
+package com.gym.gym.repository;
+
+import com.gym.gym.model.Trainer;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable filters for trainer search, evaluated in the database
+ */
+public final class TrainerSpecifications {
+
+    private TrainerSpecifications() {
+    }
+
+    /**
+     * Match trainers on any combination of filters; null filters are ignored
+     * @param specialization Exact specialization, matched through a join on trainer_specializations
+     * @param available Availability flag
+     * @param maxHourlyRate Maximum hourly rate, inclusive
+     * @return Specification for TrainerRepository.findAll
+     */
+    public static Specification<Trainer> matching(String specialization, Boolean available, Double maxHourlyRate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (specialization != null) {
+                // Specializations are a set, so the join yields at most one row per trainer
+                Join<Trainer, String> specializations = root.join("specializations");
+                predicates.add(cb.equal(specializations, specialization));
+            }
+            if (available != null) {
+                predicates.add(cb.equal(root.get("available"), available));
+            }
+            if (maxHourlyRate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("hourlyRate"), maxHourlyRate));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
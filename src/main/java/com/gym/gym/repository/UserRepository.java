@@ -1,9 +1,14 @@
 package com.gym.gym.repository;
 
 import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gym.gym.model.User;
@@ -16,5 +21,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     List<User> findByEnabled(boolean enabled);
 
+    // --- Keyset pagination (see PageCursor); page size comes from the Pageable ---
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    List<User> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    // --- Token versions (see TokenVersionService) ---
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Integer findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Invalidate every token issued to a user so far
+     * @return 1 if the version was bumped, 0 if the user does not exist
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
 
 }
\ No newline at end of file
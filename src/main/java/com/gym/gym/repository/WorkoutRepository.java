@@ -1,6 +1,9 @@
 package com.gym.gym.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.gym.gym.model.Workout;
 import java.time.LocalDate;
@@ -11,4 +14,13 @@ public interface WorkoutRepository extends JpaRepository<Workout, Long> {
     List<Workout> findByDate(LocalDate date);
     List<Workout> findByType(String type);
     List<Workout> findByDateAndType(LocalDate date, String type);
+
+    // --- Keyset pagination (see PageCursor); the page size comes from the Pageable ---
+    List<Workout> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Workout> findAllByOrderByDateDescIdDesc(Pageable pageable);
+
+    @Query("SELECT w FROM Workout w WHERE w.date < :date OR (w.date = :date AND w.id < :id) " +
+           "ORDER BY w.date DESC, w.id DESC")
+    List<Workout> findNewestBefore(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
 } 
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.gym.gym.service;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -11,6 +13,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.gym.gym.exception.ResourceNotFoundException;
 import com.gym.gym.exception.UnauthorizedAccessException;
@@ -19,9 +22,13 @@ import com.gym.gym.model.Role;
 import com.gym.gym.model.User;
 import com.gym.gym.repository.UserRepository;
 
+import io.jsonwebtoken.Claims;
+
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -35,6 +42,12 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserDetailsCacheService userDetailsCacheService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
     
 
     /**
@@ -52,14 +65,13 @@ public class AuthService {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Generate JWT token
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtils.generateToken(userDetails);
-
             // Get user details
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+            // Generate JWT token carrying the user's roles and token version
+            String token = jwtUtils.generateToken(user);
+
             // Create response
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
@@ -68,8 +80,7 @@ public class AuthService {
 
             return response;
         } catch (Exception e) {
-            System.out.println("Authentication failed: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Authentication failed for {}: {}", username, e.getMessage());
             throw new UnauthorizedAccessException("Invalid username or password");
         }
     }
@@ -123,19 +134,15 @@ public class AuthService {
      */
     public Map<String, Object> refreshToken(String token) {
         try {
-            // Extract username from token
-            String username = jwtUtils.extractUsername(token);
-            
-            // Load user details
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-            
             // Validate current token
-            if (!jwtUtils.validateToken(token, userDetails)) {
+            if (!validateToken(token)) {
                 throw new UnauthorizedAccessException("Invalid token");
             }
-            
-            // Generate new token
-            String newToken = jwtUtils.generateToken(userDetails);
+
+            // Generate new token from the current user so role changes are picked up
+            User user = userRepository.findByUsername(jwtUtils.extractUsername(token))
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            String newToken = jwtUtils.generateToken(user);
             
             Map<String, Object> response = new HashMap<>();
             response.put("token", newToken);
@@ -169,7 +176,11 @@ public class AuthService {
      */
     public boolean validateToken(String token) {
         try {
-            String username = jwtUtils.extractUsername(token);
+            Claims claims = jwtUtils.extractAllClaims(token);
+            if (jwtUtils.hasAuthorizationClaims(claims)) {
+                return tokenVersionService.isCurrent(jwtUtils.extractUserId(claims), jwtUtils.extractTokenVersion(claims));
+            }
+            String username = claims.getSubject();
             UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
             return jwtUtils.validateToken(token, userDetails);
         } catch (Exception e) {
@@ -184,6 +195,7 @@ public class AuthService {
      * @param newPassword New password
      * @return Updated user
      */
+    @Transactional
     public User changePassword(Long userId, String currentPassword, String newPassword) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -195,7 +207,10 @@ public class AuthService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -204,12 +219,16 @@ public class AuthService {
      * @param newPassword New password
      * @return Updated user
      */
+    @Transactional
     public User resetPassword(Long userId, String newPassword) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -218,12 +237,16 @@ public class AuthService {
      * @param enabled Enable status
      * @return Updated user
      */
+    @Transactional
     public User setUserEnabled(Long userId, boolean enabled) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         user.setEnabled(enabled);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     // @Override
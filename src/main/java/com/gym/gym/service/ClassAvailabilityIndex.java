@@ -0,0 +1,284 @@
+package com.gym.gym.service;
+
+import com.gym.gym.dto.ClassSummaryDTO;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.repository.FitnessClassRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory list of upcoming classes ordered by start time, serving the member app's
+ * "upcoming" and "available" lists without a query or entity loading.
+ *
+ * Each class is held as an immutable ClassSummaryDTO in a ConcurrentSkipListMap keyed by
+ * (start time, ID), so reads walk a time range lock-free while writes replace whole
+ * entries. Built at startup from the active classes that have not started yet and kept
+ * current by FitnessClassService (class edits), SeatReservationService (seats taken and
+ * given back), TrainerService and UserService (trainer names); changes made inside a transaction are applied only once
+ * it commits. Writes are serialized so an entry is never moved and updated at once.
+ * Classes are dropped once they start.
+ */
+@Service
+public class ClassAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassAvailabilityIndex.class);
+
+    private static final class Key implements Comparable<Key> {
+        final LocalDateTime startTime;
+        final long id;
+
+        Key(LocalDateTime startTime, long id) {
+            this.startTime = startTime;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byStart = startTime.compareTo(other.startTime);
+            return byStart != 0 ? byStart : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && compareTo((Key) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return startTime.hashCode() * 31 + Long.hashCode(id);
+        }
+    }
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    private final ConcurrentSkipListMap<Key, ClassSummaryDTO> byStartTime = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile boolean ready;
+
+    /**
+     * Build the index from the active classes that have not started yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int size;
+        // Load under the write lock: commits that land meanwhile are applied after the load, not before it
+        synchronized (writeLock) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Set<String>> equipment = new HashMap<>();
+            for (Object[] row : fitnessClassRepository.findUpcomingEquipment(now)) {
+                equipment.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+            byStartTime.clear();
+            keys.clear();
+            for (ClassSummaryDTO summary : fitnessClassRepository.findUpcomingSummaries(now)) {
+                Set<String> classEquipment = equipment.get(summary.getId());
+                add(classEquipment == null ? summary : summary.withRequiredEquipment(classEquipment));
+            }
+            size = byStartTime.size();
+            ready = true;
+        }
+        log.info("Class availability index built: {} upcoming classes", size);
+    }
+
+    /**
+     * (Re)index a class after it was created or updated. An indexed class keeps its
+     * enrollment: the entity's count may predate seats taken since it was loaded, which
+     * adjustEnrollment has already applied.
+     * @param fitnessClass Saved class
+     */
+    public void put(FitnessClass fitnessClass) {
+        ClassSummaryDTO summary = ClassSummaryDTO.of(fitnessClass);
+        boolean active = fitnessClass.isActive();
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                Key key = keys.get(summary.getId());
+                ClassSummaryDTO indexed = key == null ? null : byStartTime.get(key);
+                removeEntry(summary.getId());
+                if (active && summary.getStartTime().isAfter(LocalDateTime.now())) {
+                    add(indexed == null ? summary : summary.withCurrentEnrollment(indexed.getCurrentEnrollment()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted class from the index
+     * @param classId Fitness Class ID
+     */
+    public void remove(Long classId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                removeEntry(classId);
+            }
+        });
+    }
+
+    /**
+     * Drop all classes of a deleted trainer (they are removed by cascade, not one by one)
+     * @param trainerId Trainer ID
+     */
+    public void removeTrainer(Long trainerId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                List<Long> classIds = new ArrayList<>();
+                for (ClassSummaryDTO summary : byStartTime.values()) {
+                    if (trainerId.equals(summary.getTrainerId())) {
+                        classIds.add(summary.getId());
+                    }
+                }
+                classIds.forEach(this::removeEntry);
+            }
+        });
+    }
+
+    /**
+     * Show a trainer's new name on their classes
+     * @param trainerId Trainer ID
+     * @param trainerName First and last name
+     */
+    public void renameTrainer(Long trainerId, String trainerName) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                for (Map.Entry<Key, ClassSummaryDTO> entry : byStartTime.entrySet()) {
+                    if (trainerId.equals(entry.getValue().getTrainerId())) {
+                        byStartTime.computeIfPresent(entry.getKey(), (k, summary) -> summary.withTrainerName(trainerName));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Record seats taken or given back
+     * @param classId Fitness Class ID
+     * @param delta Change in enrollment, e.g. 1 for a reserved seat, -1 for a released one
+     */
+    public void adjustEnrollment(Long classId, int delta) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                Key key = keys.get(classId);
+                if (key != null) {
+                    byStartTime.computeIfPresent(key, (k, summary) ->
+                            summary.withCurrentEnrollment(Math.max(0, summary.getCurrentEnrollment() + delta)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop classes that have started; queries already skip them, this only frees the memory
+     */
+    @Scheduled(fixedDelayString = "${class-schedule.prune-interval-ms:3600000}",
+               initialDelayString = "${class-schedule.prune-interval-ms:3600000}")
+    public void pruneStarted() {
+        int pruned = 0;
+        synchronized (writeLock) {
+            NavigableMap<Key, ClassSummaryDTO> started =
+                    byStartTime.headMap(new Key(LocalDateTime.now(), Long.MAX_VALUE), true);
+            for (Key key : new ArrayList<>(started.keySet())) {
+                removeEntry(key.id);
+                pruned++;
+            }
+        }
+        log.debug("Pruned {} started classes from the availability index", pruned);
+    }
+
+    /**
+     * Find upcoming classes by start time and attributes. Every filter is optional.
+     * @param from Earliest start time; times before now are treated as now
+     * @param to Latest start time (exclusive), or null for no limit
+     * @param level Class level, or null
+     * @param room Room, compared ignoring case and surrounding spaces; or null
+     * @param minPrice Lowest price, or null
+     * @param maxPrice Highest price, or null
+     * @param equipment Equipment the class must require, ignoring case; or null
+     * @param availableOnly true to skip classes with no seats left
+     * @return Matching classes in start time order
+     */
+    public List<ClassSummaryDTO> find(LocalDateTime from, LocalDateTime to, ClassLevel level, String room,
+                                      Double minPrice, Double maxPrice, String equipment, boolean availableOnly) {
+        if (!ready) {
+            synchronized (writeLock) {
+                if (!ready) {
+                    rebuild();
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Upcoming means starting strictly after now, as findByStartTimeAfter did
+        Key lower = from == null || !from.isAfter(now) ? new Key(now, Long.MAX_VALUE) : new Key(from, Long.MIN_VALUE);
+        Key upper = to == null ? null : new Key(to, Long.MIN_VALUE);
+        if (upper != null && upper.compareTo(lower) <= 0) {
+            return List.of();
+        }
+        NavigableMap<Key, ClassSummaryDTO> range = upper == null
+                ? byStartTime.tailMap(lower, false)
+                : byStartTime.subMap(lower, false, upper, false);
+
+        String roomFilter = room == null ? null : room.trim();
+        String equipmentFilter = equipment == null ? null : equipment.trim();
+        List<ClassSummaryDTO> result = new ArrayList<>();
+        for (ClassSummaryDTO summary : range.values()) {
+            if (availableOnly && summary.getRemainingSeats() == 0) {
+                continue;
+            }
+            if (level != null && level != summary.getLevel()) {
+                continue;
+            }
+            if (roomFilter != null && (summary.getRoom() == null || !roomFilter.equalsIgnoreCase(summary.getRoom().trim()))) {
+                continue;
+            }
+            if ((minPrice != null && summary.getPrice() < minPrice) || (maxPrice != null && summary.getPrice() > maxPrice)) {
+                continue;
+            }
+            if (equipmentFilter != null && !requires(summary, equipmentFilter)) {
+                continue;
+            }
+            result.add(summary);
+        }
+        return result;
+    }
+
+    private static boolean requires(ClassSummaryDTO summary, String equipment) {
+        for (String required : summary.getRequiredEquipment()) {
+            if (equipment.equalsIgnoreCase(required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(ClassSummaryDTO summary) {
+        Key key = new Key(summary.getStartTime(), summary.getId());
+        keys.put(summary.getId(), key);
+        byStartTime.put(key, summary);
+    }
+
+    private void removeEntry(Long classId) {
+        Key key = keys.remove(classId);
+        if (key != null) {
+            byStartTime.remove(key);
+        }
+    }
+}
@@ -4,13 +4,15 @@ import com.gym.gym.model.ClassBooking;
 import com.gym.gym.model.FitnessClass;
 import com.gym.gym.model.Member;
 import com.gym.gym.repository.ClassBookingRepository;
-import com.gym.gym.repository.FitnessClassRepository;
 import com.gym.gym.repository.MemberRepository;
 import com.gym.gym.exception.ClassFullException;
 import com.gym.gym.exception.DuplicateResourceException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,11 +21,12 @@ import java.util.Optional;
 @Service
 public class ClassBookingService {
 
-    @Autowired
-    private ClassBookingRepository classBookingRepository;
+    // Counters: bookings created by resulting status, and booking/cancellation rejections by reason
+    static final String BOOKINGS_METRIC = "gym.bookings.created";
+    static final String REJECTIONS_METRIC = "gym.booking.rejections";
 
     @Autowired
-    private FitnessClassRepository fitnessClassRepository;
+    private ClassBookingRepository classBookingRepository;
 
     @Autowired
     private MemberRepository memberRepository;
@@ -31,58 +34,103 @@ public class ClassBookingService {
     @Autowired
     private MemberService memberService;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
-     * Create a new class booking
+     * Create a new class booking. If the class is full the member is put on its
+     * waitlist and the booking is returned with status WAITLISTED.
      * @param memberId Member ID
      * @param classId Fitness Class ID
      * @return Created booking
      */
+    @Transactional
     public ClassBooking createBooking(Long memberId, Long classId) {
         // Check if member has access to classes
         if (!memberService.hasAccessToFeature(memberId, "classes")) {
-            throw new RuntimeException("Member does not have access to classes");
+            throw rejected("no_access", new RuntimeException("Member does not have access to classes"));
         }
 
         Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new RuntimeException("Member not found"));
+                .orElseThrow(() -> rejected("member_not_found", new RuntimeException("Member not found")));
 
-        FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
-                .orElseThrow(() -> new RuntimeException("Fitness class not found"));
-
-        // Check if class is full
-        if (isClassFull(classId)) {
-            throw new ClassFullException("Class is full");
-        }
+        FitnessClass fitnessClass = referenceDataCache.findFitnessClass(classId)
+                .orElseThrow(() -> rejected("class_not_found", new RuntimeException("Fitness class not found")));
 
         // Check if member already has a booking for this class
         if (hasExistingBooking(memberId, classId)) {
-            throw new DuplicateResourceException("Member already has a booking for this class");
+            throw rejected("duplicate", new DuplicateResourceException("Member already has a booking for this class"));
         }
 
+        // Take a seat atomically (released again if the booking insert rolls back), otherwise wait in line
+        boolean seated = seatReservationService.reserve(classId);
+
         ClassBooking booking = new ClassBooking(LocalDateTime.now());
         booking.setMember(member);
         booking.setFitnessClass(fitnessClass);
-        booking.setStatus("CONFIRMED");
+        booking.setStatus(seated ? "CONFIRMED" : WaitlistService.WAITLISTED);
 
-        return classBookingRepository.save(booking);
+        ClassBooking saved = classBookingRepository.save(booking);
+        if (!seated) {
+            waitlistService.enqueue(saved);
+        }
+        dashboardMetricsService.onBookingCreated(saved);
+        meterRegistry.counter(BOOKINGS_METRIC, "status", saved.getStatus()).increment();
+        return saved;
     }
 
     /**
-     * Cancel a class booking
+     * Cancel a class booking. A freed seat goes to the next member on the waitlist
+     * in the same transaction.
      * @param bookingId Booking ID
      * @return Cancelled booking
      */
+    @Transactional
     public ClassBooking cancelBooking(Long bookingId) {
-        ClassBooking booking = classBookingRepository.findById(bookingId)
+        // Locked, so a concurrent cancel waits and then finds CANCELLED instead of freeing the seat again
+        ClassBooking booking = classBookingRepository.findForUpdateById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         // Check if booking can be cancelled (e.g., not too close to class time)
         if (!canBeCancelled(booking)) {
-            throw new RuntimeException("Booking cannot be cancelled");
+            throw rejected("cancellation_too_late", new RuntimeException("Booking cannot be cancelled"));
         }
 
+        String oldStatus = booking.getStatus();
         booking.setStatus("CANCELLED");
-        return classBookingRepository.save(booking);
+        ClassBooking saved = classBookingRepository.save(booking);
+        leaveClass(saved, oldStatus);
+        return saved;
+    }
+
+    /**
+     * Get the waitlist of a class
+     * @param classId Fitness Class ID
+     * @return Waitlisted bookings in promotion order
+     */
+    public List<ClassBooking> getWaitlist(Long classId) {
+        return waitlistService.getWaitlist(classId);
+    }
+
+    /**
+     * Get a booking's position on its class's waitlist
+     * @param bookingId Booking ID
+     * @return 1-based position, or 0 if the booking is not waitlisted
+     */
+    public int getWaitlistPosition(Long bookingId) {
+        return waitlistService.getPosition(getBookingById(bookingId));
     }
 
     /**
@@ -114,27 +162,41 @@ public class ClassBookingService {
     }
 
     /**
-     * Check if a class is full
+     * Check if member has an existing booking for a class
+     * @param memberId Member ID
      * @param classId Fitness Class ID
-     * @return true if class is full
+     * @return true if member has an existing booking
      */
-    private boolean isClassFull(Long classId) {
-        FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
-                .orElseThrow(() -> new RuntimeException("Fitness class not found"));
+    private boolean hasExistingBooking(Long memberId, Long classId) {
+        return classBookingRepository.existsByMemberIdAndFitnessClassIdAndStatusIn(
+                memberId, classId, List.of("CONFIRMED", WaitlistService.WAITLISTED));
+    }
 
-        int currentBookings = classBookingRepository.countByFitnessClassIdAndStatus(classId, "CONFIRMED");
-        return currentBookings >= fitnessClass.getMaxCapacity();
+    /**
+     * Free whatever a booking held in its class after it left the CONFIRMED or WAITLISTED state
+     * @param booking Booking after the change
+     * @param oldStatus Status before the change
+     */
+    private void leaveClass(ClassBooking booking, String oldStatus) {
+        Long classId = booking.getFitnessClass().getId();
+        if ("CONFIRMED".equals(oldStatus)) {
+            if (seatReservationService.release(classId)) {
+                waitlistService.promoteNext(classId);
+            }
+        } else if (WaitlistService.WAITLISTED.equals(oldStatus)) {
+            waitlistService.remove(booking);
+        }
     }
 
     /**
-     * Check if member has an existing booking for a class
-     * @param memberId Member ID
-     * @param classId Fitness Class ID
-     * @return true if member has an existing booking
+     * Count a rejected booking request
+     * @param reason Metric tag value
+     * @param e Exception to throw
+     * @return e
      */
-    private boolean hasExistingBooking(Long memberId, Long classId) {
-        return classBookingRepository.existsByMemberIdAndFitnessClassIdAndStatus(
-                memberId, classId, "CONFIRMED");
+    private RuntimeException rejected(String reason, RuntimeException e) {
+        meterRegistry.counter(REJECTIONS_METRIC, "reason", reason).increment();
+        return e;
     }
 
     /**
@@ -170,9 +232,25 @@ public class ClassBookingService {
      * @param status New status
      * @return Updated booking
      */
+    @Transactional
     public ClassBooking updateBookingStatus(Long bookingId, String status) {
-        ClassBooking booking = getBookingById(bookingId);
+        ClassBooking booking = classBookingRepository.findForUpdateById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        String oldStatus = booking.getStatus();
+        Long classId = booking.getFitnessClass().getId();
+        if (!"CONFIRMED".equals(oldStatus) && "CONFIRMED".equals(status)) {
+            if (!seatReservationService.reserve(classId)) {
+                throw rejected("class_full", new ClassFullException("Class is full"));
+            }
+        }
         booking.setStatus(status);
-        return classBookingRepository.save(booking);
+        ClassBooking saved = classBookingRepository.save(booking);
+        if (!status.equals(oldStatus)) {
+            leaveClass(saved, oldStatus);
+            if (WaitlistService.WAITLISTED.equals(status)) {
+                waitlistService.enqueue(saved);
+            }
+        }
+        return saved;
     }
 } 
@@ -0,0 +1,49 @@
+package com.gym.gym.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Expands a weekly recurrence (the RRULE FREQ=WEEKLY;INTERVAL;BYDAY;COUNT-in-weeks subset)
+ * into occurrence start times.
+ */
+final class ClassRecurrence {
+
+    private ClassRecurrence() {
+    }
+
+    /**
+     * @param first Start of the first occurrence; anchors the week count and the time of day
+     * @param days Weekdays the class runs on
+     * @param weeks Number of weeks the series spans
+     * @param interval Run every interval-th week
+     * @param limit Most occurrences the caller accepts; expansion stops at one more, so an
+     *              oversized series is detected without expanding all of it
+     * @return Occurrence start times in chronological order, none before first
+     */
+    static List<LocalDateTime> expand(LocalDateTime first, Set<DayOfWeek> days, int weeks, int interval, int limit) {
+        LocalTime time = first.toLocalTime();
+        LocalDate weekStart = first.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        // DayOfWeek orders Monday first, matching weekStart
+        Set<DayOfWeek> sortedDays = new TreeSet<>(days);
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (int week = 0; week < weeks && starts.size() <= limit; week++) {
+            LocalDate monday = weekStart.plusWeeks((long) week * interval);
+            for (DayOfWeek day : sortedDays) {
+                LocalDateTime start = monday.plusDays(day.getValue() - 1).atTime(time);
+                if (!start.isBefore(first) && starts.size() <= limit) {
+                    starts.add(start);
+                }
+            }
+        }
+        return starts;
+    }
+}
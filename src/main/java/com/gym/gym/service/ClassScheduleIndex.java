@@ -0,0 +1,457 @@
+package com.gym.gym.service;
+
+import com.gym.gym.dto.TimeSlot;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.repository.FitnessClassRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory timetable of upcoming classes, with one IntervalTree per room and one per
+ * trainer, so double-booking checks and free-slot lookups take O(log n) instead of a query.
+ *
+ * Built at startup from the active classes that have not ended yet (new classes must start
+ * in the future, so ended ones cannot conflict with them) and kept current by
+ * FitnessClassService and TrainerService; changes made inside a transaction are applied
+ * only once it commits. Classes are dropped once they end. Until the first build
+ * completes, lookups fall back to a query. Rooms are compared ignoring case and
+ * surrounding spaces, as the database collation does.
+ *
+ * Creating or moving a class goes through reserve(), which checks for conflicts and holds
+ * the new intervals in one step under the write lock, so of two concurrent requests for
+ * the same trainer or room only one gets the slot. A held interval stays until the
+ * transaction that saves the class ends; on commit the class itself replaces it.
+ */
+@Service
+public class ClassScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassScheduleIndex.class);
+
+    /**
+     * An existing class overlapping a proposed one
+     */
+    public static final class Conflict {
+        private final LocalDateTime requestedStart;
+        private final Long classId;
+        private final boolean sameTrainer;
+        private final boolean sameRoom;
+
+        Conflict(LocalDateTime requestedStart, Long classId, boolean sameTrainer, boolean sameRoom) {
+            this.requestedStart = requestedStart;
+            this.classId = classId;
+            this.sameTrainer = sameTrainer;
+            this.sameRoom = sameRoom;
+        }
+
+        public LocalDateTime getRequestedStart() {
+            return requestedStart;
+        }
+
+        /**
+         * @return Conflicting class, or null for one that is still being saved
+         */
+        public Long getClassId() {
+            return classId;
+        }
+
+        public boolean isSameTrainer() {
+            return sameTrainer;
+        }
+
+        public boolean isSameRoom() {
+            return sameRoom;
+        }
+    }
+
+    private static final class Entry {
+        final String room;
+        final Long trainerId;
+        final long start;
+        final long end;
+
+        Entry(String room, Long trainerId, long start, long end) {
+            this.room = room;
+            this.trainerId = trainerId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    private final Map<String, IntervalTree> byRoom = new HashMap<>();
+    private final Map<Long, IntervalTree> byTrainer = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Intervals held for classes not committed yet, under negative IDs
+    private final Map<Long, Entry> reservations = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextReservationId = -1;
+    private volatile boolean ready;
+
+    /**
+     * Build the index from the classes that have not ended yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int size;
+        // Load under the write lock: commits that land meanwhile are applied after the load, not before it
+        lock.writeLock().lock();
+        try {
+            List<Object[]> rows = fitnessClassRepository.findScheduleEndingAfter(LocalDateTime.now());
+            byRoom.clear();
+            byTrainer.clear();
+            entries.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], (Long) row[2], (LocalDateTime) row[3], (LocalDateTime) row[4]);
+            }
+            reservations.forEach(this::insert);
+            size = rows.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Class schedule index built: {} upcoming classes", size);
+    }
+
+    /**
+     * (Re)index a class after it was created or updated
+     * @param fitnessClass Saved class
+     */
+    public void put(FitnessClass fitnessClass) {
+        Long id = fitnessClass.getId();
+        String room = fitnessClass.getRoom();
+        Long trainerId = fitnessClass.getTrainer().getId();
+        LocalDateTime start = fitnessClass.getStartTime();
+        LocalDateTime end = fitnessClass.getEndTime();
+        boolean active = fitnessClass.isActive();
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(id);
+                if (active && end.isAfter(LocalDateTime.now())) {
+                    add(id, room, trainerId, start, end);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted class from the index
+     * @param classId Fitness Class ID
+     */
+    public void remove(Long classId) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(classId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop all classes of a deleted trainer (they are removed by cascade, not one by one)
+     * @param trainerId Trainer ID
+     */
+    public void removeTrainer(Long trainerId) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                IntervalTree tree = byTrainer.get(trainerId);
+                if (tree != null) {
+                    for (IntervalTree.Interval interval : tree.findOverlaps(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                        removeEntry(interval.id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop classes that have ended, so the trees only hold the upcoming timetable
+     */
+    @Scheduled(fixedDelayString = "${class-schedule.prune-interval-ms:3600000}",
+               initialDelayString = "${class-schedule.prune-interval-ms:3600000}")
+    public void pruneEnded() {
+        long now = seconds(LocalDateTime.now());
+        int pruned = 0;
+        lock.writeLock().lock();
+        try {
+            Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Entry> next = it.next();
+                if (next.getValue().end <= now) {
+                    removeFromTrees(next.getKey(), next.getValue());
+                    it.remove();
+                    pruned++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Pruned {} ended classes from the schedule index", pruned);
+    }
+
+    /**
+     * Check proposed classes against the timetable and, if none conflicts, hold their
+     * intervals until the surrounding transaction ends. Call it inside the transaction
+     * that saves the classes, and put() them once saved.
+     * @param trainerId Trainer of the proposed classes
+     * @param room Room of the proposed classes
+     * @param starts Start times of the proposed classes, in order
+     * @param duration Length of each proposed class
+     * @param excludeClassId Class being updated, which cannot conflict with itself; null for new classes
+     * @return Conflicts, by proposed start time; if there are any, nothing is held
+     */
+    public List<Conflict> reserve(Long trainerId, String room, List<LocalDateTime> starts, Duration duration,
+                                  Long excludeClassId) {
+        if (starts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> held = new ArrayList<>(starts.size());
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                rebuild();
+            }
+            List<Conflict> conflicts = conflicts(trainerId, room, starts, duration, excludeClassId);
+            if (!conflicts.isEmpty()) {
+                return conflicts;
+            }
+            for (LocalDateTime start : starts) {
+                Long id = nextReservationId--;
+                Entry entry = new Entry(roomKey(room), trainerId, seconds(start), seconds(start.plus(duration)));
+                reservations.put(id, entry);
+                insert(id, entry);
+                held.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // After the commit hooks, so a committed class is indexed before its hold is let go
+        TransactionHooks.afterCompletion(() -> release(held));
+        return List.of();
+    }
+
+    /**
+     * Find existing classes that share the trainer or the room with any of the proposed
+     * classes and overlap it in time
+     * @param trainerId Trainer of the proposed classes
+     * @param room Room of the proposed classes
+     * @param starts Start times of the proposed classes, in order
+     * @param duration Length of each proposed class
+     * @param excludeClassId Class being updated, which cannot conflict with itself; null for new classes
+     * @return Conflicts, by proposed start time
+     */
+    public List<Conflict> findConflicts(Long trainerId, String room, List<LocalDateTime> starts, Duration duration,
+                                        Long excludeClassId) {
+        if (starts.isEmpty()) {
+            return List.of();
+        }
+        if (!ready) {
+            return findConflictsInDatabase(trainerId, room, starts, duration, excludeClassId);
+        }
+
+        lock.readLock().lock();
+        try {
+            return conflicts(trainerId, room, starts, duration, excludeClassId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the gaps between the classes of a room and/or a trainer
+     * @param room Room, or null
+     * @param trainerId Trainer ID, or null; with both, slots where both are free
+     * @param from Start of the range
+     * @param to End of the range
+     * @param minLength Shortest gap to report
+     * @return Free slots in chronological order
+     */
+    public List<TimeSlot> findFreeSlots(String room, Long trainerId, LocalDateTime from, LocalDateTime to,
+                                        Duration minLength) {
+        List<long[]> busy = new ArrayList<>();
+        if (!ready) {
+            for (Object[] row : fitnessClassRepository.findScheduledForTrainerOrRoom(trainerId, room, from, to)) {
+                busy.add(new long[] {seconds((LocalDateTime) row[2]), seconds((LocalDateTime) row[3])});
+            }
+        } else {
+            long start = seconds(from);
+            long end = seconds(to);
+            lock.readLock().lock();
+            try {
+                IntervalTree roomTree = room == null ? null : byRoom.get(roomKey(room));
+                IntervalTree trainerTree = trainerId == null ? null : byTrainer.get(trainerId);
+                for (IntervalTree tree : new IntervalTree[] {roomTree, trainerTree}) {
+                    if (tree != null) {
+                        for (IntervalTree.Interval interval : tree.findOverlaps(start, end)) {
+                            busy.add(new long[] {interval.start, interval.end});
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            busy.sort(Comparator.comparingLong(interval -> interval[0]));
+        }
+
+        List<TimeSlot> slots = new ArrayList<>();
+        long cursor = seconds(from);
+        long end = seconds(to);
+        long minSeconds = minLength.getSeconds();
+        for (long[] interval : busy) {
+            if (interval[0] > cursor) {
+                addSlot(slots, cursor, Math.min(interval[0], end), minSeconds);
+            }
+            cursor = Math.max(cursor, interval[1]);
+            if (cursor >= end) {
+                break;
+            }
+        }
+        if (cursor < end) {
+            addSlot(slots, cursor, end, minSeconds);
+        }
+        return slots;
+    }
+
+    // Caller holds the read or the write lock
+    private List<Conflict> conflicts(Long trainerId, String room, List<LocalDateTime> starts, Duration duration,
+                                     Long excludeClassId) {
+        List<Conflict> conflicts = new ArrayList<>();
+        IntervalTree trainerTree = byTrainer.get(trainerId);
+        IntervalTree roomTree = room == null ? null : byRoom.get(roomKey(room));
+        for (LocalDateTime start : starts) {
+            long from = seconds(start);
+            long to = seconds(start.plus(duration));
+            Map<Long, boolean[]> overlapping = new LinkedHashMap<>();
+            if (trainerTree != null) {
+                for (IntervalTree.Interval interval : trainerTree.findOverlaps(from, to)) {
+                    overlapping.computeIfAbsent(interval.id, id -> new boolean[2])[0] = true;
+                }
+            }
+            if (roomTree != null) {
+                for (IntervalTree.Interval interval : roomTree.findOverlaps(from, to)) {
+                    overlapping.computeIfAbsent(interval.id, id -> new boolean[2])[1] = true;
+                }
+            }
+            for (Map.Entry<Long, boolean[]> match : overlapping.entrySet()) {
+                if (!match.getKey().equals(excludeClassId)) {
+                    Long classId = match.getKey() < 0 ? null : match.getKey();
+                    conflicts.add(new Conflict(start, classId, match.getValue()[0], match.getValue()[1]));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private void release(List<Long> held) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : held) {
+                reservations.remove(id);
+                removeEntry(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Conflict> findConflictsInDatabase(Long trainerId, String room, List<LocalDateTime> starts,
+                                                   Duration duration, Long excludeClassId) {
+        LocalDateTime from = starts.get(0);
+        LocalDateTime to = starts.get(starts.size() - 1).plus(duration);
+        List<Object[]> scheduled = fitnessClassRepository.findScheduledForTrainerOrRoom(trainerId, room, from, to);
+        List<Conflict> conflicts = new ArrayList<>();
+        for (LocalDateTime start : starts) {
+            LocalDateTime end = start.plus(duration);
+            for (Object[] row : scheduled) {
+                // Rows are ordered by start time, so none after this one can overlap
+                if (!((LocalDateTime) row[2]).isBefore(end)) {
+                    break;
+                }
+                if (((LocalDateTime) row[3]).isAfter(start) && !row[0].equals(excludeClassId)) {
+                    boolean sameRoom = room != null && roomKey(room).equals(roomKey((String) row[4]));
+                    conflicts.add(new Conflict(start, (Long) row[0], trainerId.equals(row[5]), sameRoom));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private static void addSlot(List<TimeSlot> slots, long start, long end, long minSeconds) {
+        if (end - start >= minSeconds && end > start) {
+            slots.add(new TimeSlot(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC),
+                    LocalDateTime.ofEpochSecond(end, 0, ZoneOffset.UTC)));
+        }
+    }
+
+    private void add(Long id, String room, Long trainerId, LocalDateTime start, LocalDateTime end) {
+        insert(id, new Entry(roomKey(room), trainerId, seconds(start), seconds(end)));
+    }
+
+    private void insert(Long id, Entry entry) {
+        entries.put(id, entry);
+        byRoom.computeIfAbsent(entry.room, r -> new IntervalTree()).insert(id, entry.start, entry.end);
+        byTrainer.computeIfAbsent(entry.trainerId, t -> new IntervalTree()).insert(id, entry.start, entry.end);
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            removeFromTrees(id, entry);
+        }
+    }
+
+    private void removeFromTrees(Long id, Entry entry) {
+        IntervalTree roomTree = byRoom.get(entry.room);
+        if (roomTree != null) {
+            roomTree.remove(id, entry.start);
+            if (roomTree.size() == 0) {
+                byRoom.remove(entry.room);
+            }
+        }
+        IntervalTree trainerTree = byTrainer.get(entry.trainerId);
+        if (trainerTree != null) {
+            trainerTree.remove(id, entry.start);
+            if (trainerTree.size() == 0) {
+                byTrainer.remove(entry.trainerId);
+            }
+        }
+    }
+
+    private static String roomKey(String room) {
+        return room == null ? "" : room.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Local times are only compared with each other, so any fixed offset works
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
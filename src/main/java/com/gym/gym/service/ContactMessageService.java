@@ -1,5 +1,7 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
 import com.gym.gym.model.ContactMessage;
 import com.gym.gym.model.MessageStatus;
 import com.gym.gym.repository.ContactMessageRepository;
@@ -19,6 +21,9 @@ public class ContactMessageService {
     @Autowired
     private ContactMessageRepository contactMessageRepository;
 
+    @Autowired
+    private KeywordSearchService keywordSearchService;
+
     /**
      * Create a new contact message
      * @param message Contact message to create
@@ -27,15 +32,32 @@ public class ContactMessageService {
     public ContactMessage createMessage(ContactMessage message) {
         message.setSubmissionDate(LocalDateTime.now());
         message.setStatus(MessageStatus.NEW);
-        return contactMessageRepository.save(message);
+        ContactMessage saved = contactMessageRepository.save(message);
+        keywordSearchService.indexMessage(saved);
+        return saved;
     }
 
     /**
-     * Get all contact messages
-     * @return List of all contact messages
+     * Get contact messages one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of contact messages with the token for the next page
      */
-    public List<ContactMessage> getAllMessages() {
-        return contactMessageRepository.findAll();
+    public CursorPage<ContactMessage> getAllMessages(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ContactMessage> rows;
+        if (PageCursor.SORT_NEWEST.equals(order)) {
+            rows = after == null
+                    ? contactMessageRepository.findAllByOrderBySubmissionDateDescIdDesc(limit)
+                    : contactMessageRepository.findNewestBefore(after.keyAsDateTime(), after.getId(), limit);
+        } else {
+            rows = contactMessageRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        }
+        return CursorPage.of(rows, pageSize, message -> PageCursor.encode(order, message.getSubmissionDate(), message.getId()));
     }
 
     /**
@@ -99,6 +121,7 @@ public class ContactMessageService {
     public void deleteMessage(Long id) {
         ContactMessage message = getMessageById(id);
         contactMessageRepository.delete(message);
+        keywordSearchService.removeMessage(id);
     }
 
     /**
@@ -133,9 +156,9 @@ public class ContactMessageService {
     /**
      * Search messages by keyword
      * @param keyword Search keyword
-     * @return List of matching messages
+     * @return List of matching messages, best match first
      */
     public List<ContactMessage> searchMessages(String keyword) {
-        return contactMessageRepository.searchByKeyword(keyword);
+        return keywordSearchService.searchMessages(keyword);
     }
 } 
@@ -0,0 +1,437 @@
+package com.gym.gym.service;
+
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.DashboardSnapshot;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.Payment;
+import com.gym.gym.repository.DashboardRepository;
+import com.gym.gym.repository.DashboardSnapshotRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained dashboard counters.
+ *
+ * Member, payment, class and booking services report their state changes here; the
+ * counters are striped (LongAdder / DoubleAdder) so concurrent writers do not contend,
+ * and the dashboard reads them in O(1) instead of scanning tables. Changes reported inside
+ * a transaction are counted once it commits. Counters are rebuilt from aggregate queries at
+ * startup and again on a fixed delay, so drift the deltas cannot see (deltas lost in a
+ * crash, changes made by another instance or directly in SQL) does not last; a rebuild
+ * fills a new set of counters and swaps it in whole, so readers never see it half-built.
+ * Counters are also flushed to the dashboard_snapshot table, which startup loads instead
+ * when rebuild-on-startup is turned off.
+ *
+ * A rebuild reads the aggregates in several queries, so it must not overlap a commit: a
+ * delta committed between two of its queries would be counted by one and then added again
+ * on top, or lost with the old generation. A transaction that reported changes therefore
+ * holds the read side of a lock from just before it commits until it has applied its
+ * deltas, and a rebuild holds the write side. Every delta is then either committed before
+ * the rebuild reads and seen by it, or applied after the swap to the new generation.
+ */
+@Service
+public class DashboardMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardMetricsService.class);
+
+    static final String MEMBERS_TOTAL = "members.total";
+    static final String MEMBERS_ACTIVE = "members.active";
+    static final String MEMBERS_TYPE = "members.type.";
+    static final String PAYMENTS_PENDING = "payments.pending";
+    static final String PAYMENTS_PAID = "payments.paid";
+    static final String REVENUE_TOTAL = "revenue.total";
+    static final String REVENUE_METHOD = "revenue.method.";
+    static final String CLASSES_TOTAL = "classes.total";
+    static final String CLASSES_LEVEL = "classes.level.";
+    static final String BOOKINGS_TOTAL = "bookings.total";
+
+    /**
+     * One generation of counters. Snapshot values are restored into the double adders,
+     * live deltas go to the long adders; a counter's value is the sum of both.
+     */
+    private static final class Totals {
+        final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+        final Map<String, DoubleAdder> amounts = new ConcurrentHashMap<>();
+    }
+
+    private volatile Totals totals = new Totals();
+
+    private volatile boolean ready = false;
+
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Key of the transaction-bound list of deltas this transaction will apply on commit
+    private final Object pendingKey = new Object();
+
+    @Autowired
+    private DashboardSnapshotRepository dashboardSnapshotRepository;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Value("${dashboard.metrics.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    // --- Domain events ---
+
+    public void onMemberCreated(Member member) {
+        increment(MEMBERS_TOTAL, 1);
+        if (member.isActive()) {
+            increment(MEMBERS_ACTIVE, 1);
+        }
+        if (member.getMembershipType() != null) {
+            increment(MEMBERS_TYPE + member.getMembershipType().name(), 1);
+        }
+    }
+
+    /**
+     * Record a deleted member (deleting a user deletes their member profile)
+     * @param member Member as it was before the deletion
+     */
+    public void onMemberDeleted(Member member) {
+        increment(MEMBERS_TOTAL, -1);
+        if (member.isActive()) {
+            increment(MEMBERS_ACTIVE, -1);
+        }
+        if (member.getMembershipType() != null) {
+            increment(MEMBERS_TYPE + member.getMembershipType().name(), -1);
+        }
+    }
+
+    public void onMemberActiveChanged(boolean nowActive) {
+        increment(MEMBERS_ACTIVE, nowActive ? 1 : -1);
+    }
+
+    public void onMembershipTypeChanged(MembershipType oldType, MembershipType newType) {
+        if (oldType == newType) return;
+        if (oldType != null) increment(MEMBERS_TYPE + oldType.name(), -1);
+        if (newType != null) increment(MEMBERS_TYPE + newType.name(), 1);
+    }
+
+    public void onPaymentCreated(Payment payment) {
+        if ("PENDING".equals(payment.getStatus())) {
+            increment(PAYMENTS_PENDING, 1);
+        }
+    }
+
+    /**
+     * Record a payment status transition
+     * @param payment Payment after the change (amount and method are read from it)
+     * @param oldStatus Status before the change
+     */
+    public void onPaymentStatusChanged(Payment payment, String oldStatus) {
+        String newStatus = payment.getStatus();
+        if (oldStatus != null && oldStatus.equals(newStatus)) return;
+
+        if ("PENDING".equals(oldStatus)) increment(PAYMENTS_PENDING, -1);
+        if ("PENDING".equals(newStatus)) increment(PAYMENTS_PENDING, 1);
+
+        if ("PAID".equals(oldStatus)) recordRevenue(payment, -1);
+        if ("PAID".equals(newStatus)) recordRevenue(payment, 1);
+    }
+
+    public void onClassCreated(FitnessClass fitnessClass) {
+        increment(CLASSES_TOTAL, 1);
+        if (fitnessClass.getLevel() != null) {
+            increment(CLASSES_LEVEL + fitnessClass.getLevel().name(), 1);
+        }
+    }
+
+    public void onClassLevelChanged(ClassLevel oldLevel, ClassLevel newLevel) {
+        if (oldLevel == newLevel) return;
+        if (oldLevel != null) increment(CLASSES_LEVEL + oldLevel.name(), -1);
+        if (newLevel != null) increment(CLASSES_LEVEL + newLevel.name(), 1);
+    }
+
+    public void onClassDeleted(FitnessClass fitnessClass) {
+        increment(CLASSES_TOTAL, -1);
+        if (fitnessClass.getLevel() != null) {
+            increment(CLASSES_LEVEL + fitnessClass.getLevel().name(), -1);
+        }
+    }
+
+    public void onBookingCreated(ClassBooking booking) {
+        increment(BOOKINGS_TOTAL, 1);
+    }
+
+    // --- O(1) read path (falls back to aggregate queries until counters are loaded) ---
+
+    public long getTotalMembers() {
+        if (!ready) return dashboardRepository.getTotalMembersCount();
+        return count(MEMBERS_TOTAL);
+    }
+
+    public long getActiveMembers() {
+        if (!ready) return dashboardRepository.getActiveMembersCount();
+        return count(MEMBERS_ACTIVE);
+    }
+
+    public long getInactiveMembers() {
+        if (!ready) return dashboardRepository.getInactiveMembersCount();
+        return getTotalMembers() - getActiveMembers();
+    }
+
+    public Map<String, Long> getMembershipDistribution() {
+        if (!ready) return dashboardRepository.getMembershipDistributionData();
+        Map<String, Long> distribution = new HashMap<>();
+        for (String type : List.of("BASIC", "PREMIUM", "VIP")) {
+            distribution.put(type, count(MEMBERS_TYPE + type));
+        }
+        return distribution;
+    }
+
+    public double getTotalRevenue() {
+        if (!ready) return dashboardRepository.getTotalRevenueAmount();
+        return amount(REVENUE_TOTAL);
+    }
+
+    public long getPendingPayments() {
+        if (!ready) return dashboardRepository.getPendingPaymentsCount();
+        return count(PAYMENTS_PENDING);
+    }
+
+    public long getPaidPayments() {
+        if (!ready) return dashboardRepository.getPaidPaymentsCount();
+        return count(PAYMENTS_PAID);
+    }
+
+    public Map<String, Double> getRevenueByPaymentMethod() {
+        if (!ready) return dashboardRepository.getRevenueByPaymentMethodData();
+        Map<String, Double> revenue = new HashMap<>();
+        for (String method : List.of("CASH", "CARD", "ONLINE")) {
+            revenue.put(method, amount(REVENUE_METHOD + method));
+        }
+        return revenue;
+    }
+
+    public double getAverageTransactionValue() {
+        if (!ready) return dashboardRepository.getAverageTransactionValue();
+        long paid = getPaidPayments();
+        if (paid == 0) return 0.0;
+        return getTotalRevenue() / paid;
+    }
+
+    public long getTotalClasses() {
+        if (!ready) return dashboardRepository.getTotalClassesCount();
+        return count(CLASSES_TOTAL);
+    }
+
+    public Map<String, Long> getClassLevelDistribution() {
+        if (!ready) return dashboardRepository.getClassLevelDistributionData();
+        Map<String, Long> distribution = new HashMap<>();
+        for (String level : List.of("BEGINNER", "INTERMEDIATE", "ADVANCED")) {
+            distribution.put(level, count(CLASSES_LEVEL + level));
+        }
+        return distribution;
+    }
+
+    public long getTotalBookings() {
+        if (!ready) return dashboardRepository.getTotalBookingsCount();
+        return count(BOOKINGS_TOTAL);
+    }
+
+    // --- Snapshot lifecycle ---
+
+    /**
+     * Rebuild counters from aggregate queries, or, when rebuild-on-startup is off, load
+     * them from the snapshot table if it has any rows
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        List<DashboardSnapshot> snapshot = dashboardSnapshotRepository.findAll();
+        if (snapshot.isEmpty() || rebuildOnStartup) {
+            rebuild();
+        } else {
+            Totals loaded = new Totals();
+            for (DashboardSnapshot row : snapshot) {
+                loaded.amounts.computeIfAbsent(row.getMetricKey(), k -> new DoubleAdder()).add(row.getMetricValue());
+            }
+            totals = loaded;
+            log.info("Dashboard metrics rehydrated from {} snapshot rows", snapshot.size());
+        }
+        ready = true;
+    }
+
+    /**
+     * Recompute every counter from the database and replace the in-memory values
+     */
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        Map<String, Double> values = new HashMap<>();
+        values.put(MEMBERS_TOTAL, (double) dashboardRepository.getTotalMembersCount());
+        values.put(MEMBERS_ACTIVE, (double) dashboardRepository.getActiveMembersCount());
+        dashboardRepository.getMembershipDistributionData()
+                .forEach((type, count) -> values.put(MEMBERS_TYPE + type, (double) count));
+        values.put(PAYMENTS_PENDING, (double) dashboardRepository.getPendingPaymentsCount());
+        values.put(PAYMENTS_PAID, (double) dashboardRepository.getPaidPaymentsCount());
+        values.put(REVENUE_TOTAL, dashboardRepository.getTotalRevenueAmount());
+        dashboardRepository.getRevenueByPaymentMethodData()
+                .forEach((method, amount) -> values.put(REVENUE_METHOD + method, amount));
+        values.put(CLASSES_TOTAL, (double) dashboardRepository.getTotalClassesCount());
+        dashboardRepository.getClassLevelDistributionData()
+                .forEach((level, count) -> values.put(CLASSES_LEVEL + level, (double) count));
+        values.put(BOOKINGS_TOTAL, (double) dashboardRepository.getTotalBookingsCount());
+
+        Totals rebuilt = new Totals();
+        values.forEach((key, value) -> rebuilt.amounts.computeIfAbsent(key, k -> new DoubleAdder()).add(value));
+        totals = rebuilt;
+        log.info("Dashboard metrics rebuilt from aggregate queries ({} metrics)", values.size());
+    }
+
+    /**
+     * Rebuild the counters from the database on a fixed delay, correcting any drift
+     */
+    @Scheduled(fixedDelayString = "${dashboard.metrics.reconcile-interval-ms:900000}",
+               initialDelayString = "${dashboard.metrics.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        if (!ready) return;
+        rebuild();
+    }
+
+    /**
+     * Persist the current counter values to the dashboard_snapshot table
+     */
+    @Scheduled(fixedDelayString = "${dashboard.metrics.flush-interval-ms:60000}",
+               initialDelayString = "${dashboard.metrics.flush-interval-ms:60000}")
+    public void flush() {
+        if (!ready) return;
+        Totals current = totals;
+        Set<String> keys = new HashSet<>(current.amounts.keySet());
+        keys.addAll(current.counters.keySet());
+        List<DashboardSnapshot> rows = new ArrayList<>();
+        for (String key : keys) {
+            rows.add(new DashboardSnapshot(key, amount(current, key)));
+        }
+        dashboardSnapshotRepository.saveAll(rows);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Failed to flush dashboard metrics on shutdown: {}", e.getMessage());
+        }
+    }
+
+    // --- Internals ---
+
+    private void recordRevenue(Payment payment, int sign) {
+        increment(PAYMENTS_PAID, sign);
+        add(REVENUE_TOTAL, sign * payment.getAmount());
+        if (payment.getPaymentMethod() != null) {
+            add(REVENUE_METHOD + payment.getPaymentMethod(), sign * payment.getAmount());
+        }
+    }
+
+    // Applied to whichever generation is current at commit, not the one current when reported
+    private void increment(String key, long delta) {
+        apply(() -> totals.counters.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+    }
+
+    private void add(String key, double delta) {
+        apply(() -> totals.amounts.computeIfAbsent(key, k -> new DoubleAdder()).add(delta));
+    }
+
+    /**
+     * Apply a delta once the surrounding transaction commits, or straight away if there
+     * is none, never while a rebuild is running
+     */
+    private void apply(Runnable delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildLock.readLock().lock();
+            try {
+                delta.run();
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+            return;
+        }
+        pending().add(delta);
+    }
+
+    /**
+     * Deltas reported by the current transaction. The read lock is taken before the commit
+     * and released after the deltas are applied, all on the committing thread.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Runnable> pending() {
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<Runnable> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    rebuildLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    created.forEach(Runnable::run);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                    if (locked) {
+                        rebuildLock.readLock().unlock();
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private long count(String key) {
+        return Math.round(amount(key));
+    }
+
+    private double amount(String key) {
+        return amount(totals, key);
+    }
+
+    private static double amount(Totals current, String key) {
+        LongAdder counter = current.counters.get(key);
+        DoubleAdder total = current.amounts.get(key);
+        return (counter != null ? counter.sum() : 0L) + (total != null ? total.sum() : 0.0);
+    }
+}
@@ -20,6 +20,10 @@ public class DashboardService {
     @Autowired
     private DashboardRepository dashboardRepository;
 
+    // Incrementally maintained totals and distributions; time-windowed figures still come from dashboardRepository
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
     // Keep these if any helper methods still directly use them for calculations not moved to DashboardRepository
     @Autowired private MemberRepository memberRepository;
     @Autowired private PaymentRepository paymentRepository;
@@ -43,21 +47,21 @@ public class DashboardService {
         LocalDateTime lastMonthStart = LocalDateTime.now().minusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
 
         // Member statistics
-        dashboard.put("totalMembers", dashboardRepository.getTotalMembersCount());
-        dashboard.put("activeMembers", dashboardRepository.getActiveMembersCount());
+        dashboard.put("totalMembers", dashboardMetricsService.getTotalMembers());
+        dashboard.put("activeMembers", dashboardMetricsService.getActiveMembers());
         dashboard.put("newMembersThisMonth", dashboardRepository.getNewMembersCountSince(startOfMonth));
         dashboard.put("membershipGrowth", dashboardRepository.getMembershipGrowthPercentage(lastMonthStart));
 
         // Revenue statistics
-        dashboard.put("totalRevenue", dashboardRepository.getTotalRevenueAmount());
+        dashboard.put("totalRevenue", dashboardMetricsService.getTotalRevenue());
         dashboard.put("monthlyRevenue", dashboardRepository.getRevenueAmountSince(startOfMonth));
         dashboard.put("revenueGrowth", dashboardRepository.getRevenueGrowthPercentage(lastMonthStart));
-        dashboard.put("pendingPayments", dashboardRepository.getPendingPaymentsCount());
+        dashboard.put("pendingPayments", dashboardMetricsService.getPendingPayments());
 
         // Class statistics
-        dashboard.put("totalClasses", dashboardRepository.getTotalClassesCount());
+        dashboard.put("totalClasses", dashboardMetricsService.getTotalClasses());
         dashboard.put("activeClasses", dashboardRepository.getActiveClassesCount());
-        dashboard.put("totalBookings", dashboardRepository.getTotalBookingsCount());
+        dashboard.put("totalBookings", dashboardMetricsService.getTotalBookings());
         dashboard.put("averageClassAttendance", dashboardRepository.getAverageClassAttendanceValue());
 
         // Trainer statistics
@@ -84,15 +88,15 @@ public class DashboardService {
         LocalDateTime startOfWeek = LocalDateTime.now().minusWeeks(1);
         LocalDateTime lastMonthStart = LocalDateTime.now().minusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
 
-        stats.put("totalMembers", dashboardRepository.getTotalMembersCount());
-        stats.put("activeMembers", dashboardRepository.getActiveMembersCount());
-        stats.put("inactiveMembers", dashboardRepository.getInactiveMembersCount());
+        stats.put("totalMembers", dashboardMetricsService.getTotalMembers());
+        stats.put("activeMembers", dashboardMetricsService.getActiveMembers());
+        stats.put("inactiveMembers", dashboardMetricsService.getInactiveMembers());
         stats.put("newMembersThisMonth", dashboardRepository.getNewMembersCountSince(startOfMonth));
         stats.put("newMembersThisWeek", dashboardRepository.getNewMembersCountSince(startOfWeek));
         stats.put("membershipGrowth", dashboardRepository.getMembershipGrowthPercentage(lastMonthStart));
 
         // Membership type distribution
-        stats.put("membershipDistribution", dashboardRepository.getMembershipDistributionData());
+        stats.put("membershipDistribution", dashboardMetricsService.getMembershipDistribution());
 
         // Gender distribution
         stats.put("genderDistribution", dashboardRepository.getGenderDistributionData());
@@ -118,15 +122,15 @@ public class DashboardService {
         LocalDateTime startOfWeek = LocalDateTime.now().minusWeeks(1);
         LocalDateTime lastMonthStart = LocalDateTime.now().minusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
 
-        analytics.put("totalRevenue", dashboardRepository.getTotalRevenueAmount());
+        analytics.put("totalRevenue", dashboardMetricsService.getTotalRevenue());
         analytics.put("monthlyRevenue", dashboardRepository.getRevenueAmountSince(startOfMonth));
         analytics.put("weeklyRevenue", dashboardRepository.getRevenueAmountSince(startOfWeek));
         analytics.put("revenueGrowth", dashboardRepository.getRevenueGrowthPercentage(lastMonthStart));
-        analytics.put("pendingPayments", dashboardRepository.getPendingPaymentsCount());
-        analytics.put("paidPayments", dashboardRepository.getPaidPaymentsCount());
+        analytics.put("pendingPayments", dashboardMetricsService.getPendingPayments());
+        analytics.put("paidPayments", dashboardMetricsService.getPaidPayments());
 
         // Revenue by payment method
-        analytics.put("revenueByPaymentMethod", dashboardRepository.getRevenueByPaymentMethodData());
+        analytics.put("revenueByPaymentMethod", dashboardMetricsService.getRevenueByPaymentMethod());
 
         // Revenue by class
         analytics.put("revenueByClass", dashboardRepository.getRevenueByClassData());
@@ -135,7 +139,7 @@ public class DashboardService {
         analytics.put("revenueTrends", new ArrayList<>());
 
         // Average transaction value
-        analytics.put("averageTransactionValue", dashboardRepository.getAverageTransactionValue());
+        analytics.put("averageTransactionValue", dashboardMetricsService.getAverageTransactionValue());
 
         return analytics;
     }
@@ -148,9 +152,9 @@ public class DashboardService {
     public Map<String, Object> getClassAnalytics() {
         Map<String, Object> analytics = new HashMap<>();
 
-        analytics.put("totalClasses", dashboardRepository.getTotalClassesCount());
+        analytics.put("totalClasses", dashboardMetricsService.getTotalClasses());
         analytics.put("activeClasses", dashboardRepository.getActiveClassesCount());
-        analytics.put("totalBookings", dashboardRepository.getTotalBookingsCount());
+        analytics.put("totalBookings", dashboardMetricsService.getTotalBookings());
         analytics.put("averageClassAttendance", dashboardRepository.getAverageClassAttendanceValue());
         analytics.put("mostPopularClasses", dashboardRepository.getMostPopularClassesData());
         analytics.put("classUtilization", dashboardRepository.getClassUtilizationPercentage()); // Updated to use new method
@@ -159,7 +163,7 @@ public class DashboardService {
         analytics.put("attendanceTrends", new ArrayList<>());
 
         // Class level distribution
-        analytics.put("classLevelDistribution", dashboardRepository.getClassLevelDistributionData());
+        analytics.put("classLevelDistribution", dashboardMetricsService.getClassLevelDistribution());
 
         // Trainer performance
         analytics.put("trainerPerformance", dashboardRepository.getTrainerPerformanceData());
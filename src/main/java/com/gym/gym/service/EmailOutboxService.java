@@ -0,0 +1,276 @@
+package com.gym.gym.service;
+
+import com.gym.gym.exception.NotificationQueueFullException;
+import com.gym.gym.exception.ResourceNotFoundException;
+import com.gym.gym.model.NotificationJob;
+import com.gym.gym.model.OutboxEmail;
+import com.gym.gym.repository.NotificationJobRepository;
+import com.gym.gym.repository.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Durable, asynchronous email delivery.
+ *
+ * Callers submit a job with a planner that adds emails to a Batch; the planner runs on the
+ * notification planner pool inside one transaction, so the job's emails are either all in
+ * the email_outbox table or none are. A scheduled dispatcher then claims due emails at
+ * most at the configured rate and hands them to the delivery pool. Failed sends are retried
+ * with exponential backoff until max-attempts, after which the email is marked FAILED.
+ * Job counters are updated as emails finish and can be polled through getJob.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    // Counter of send attempts by outcome: sent, retry (will be retried) or failed (gave up)
+    static final String SENDS_METRIC = "gym.notification.sends";
+
+    // Counter of jobs refused because the planner queue was full
+    static final String JOBS_REJECTED_METRIC = "gym.notification.jobs.rejected";
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private NotificationJobRepository notificationJobRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("notificationPlannerExecutor")
+    private ThreadPoolTaskExecutor plannerExecutor;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private ThreadPoolTaskExecutor notificationExecutor;
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${notification.outbox.rate-per-second:20}")
+    private int ratePerSecond;
+
+    @Value("${notification.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    /**
+     * Emails collected by a job planner; written to the outbox in chunks of batch-size
+     */
+    public class Batch {
+        private final Long jobId;
+        private final List<OutboxEmail> pending = new ArrayList<>();
+        private int count;
+
+        private Batch(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        public void add(String to, String subject, String message) {
+            pending.add(new OutboxEmail(jobId, to, subject, message));
+            count++;
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!pending.isEmpty()) {
+                outboxEmailRepository.saveAll(pending);
+                pending.clear();
+                // Detach written rows (and any entities the planner loaded) so memory stays flat for large jobs
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * Create a notification job and plan its emails in the background. The planner is
+     * handed to the planner pool once the surrounding transaction, if any, commits, so the
+     * worker always finds the job row.
+     * @param type Job type, e.g. BULK or CLASS_REMINDER
+     * @param planner Adds the job's emails to the batch it is given
+     * @return Created job; its ID can be polled for progress
+     * @throws NotificationQueueFullException if the planner queue is full
+     */
+    public NotificationJob submit(String type, Consumer<Batch> planner) {
+        // Refuse up front rather than accept a job no worker will pick up soon
+        if (plannerExecutor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            meterRegistry.counter(JOBS_REJECTED_METRIC).increment();
+            throw new NotificationQueueFullException("Too many notification jobs are queued, try again later");
+        }
+        NotificationJob job = notificationJobRepository.save(new NotificationJob(type));
+        Long jobId = job.getId();
+        TransactionHooks.afterCommit(() -> startPlanning(jobId, planner));
+        return job;
+    }
+
+    /**
+     * Get a notification job and its progress
+     * @param jobId Job ID
+     * @return Job
+     */
+    public NotificationJob getJob(Long jobId) {
+        return notificationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification job not found"));
+    }
+
+    /**
+     * Claim the emails that are due and hand them to the worker pool. Each tick claims at
+     * most rate-per-second scaled to the poll interval, which caps the send rate, and no
+     * more than the delivery queue has room for; the rest wait for a later tick.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        int permits = (int) Math.max(1, Math.min(batchSize, ratePerSecond * pollIntervalMs / 1000));
+        permits = Math.min(permits, notificationExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+        if (permits == 0) {
+            return;
+        }
+        List<OutboxEmail> due = outboxEmailRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                "PENDING", LocalDateTime.now(), PageRequest.of(0, permits));
+
+        for (OutboxEmail email : due) {
+            if (outboxEmailRepository.claim(email.getId()) == 1) {
+                try {
+                    notificationExecutor.execute(() -> deliver(email));
+                } catch (TaskRejectedException e) {
+                    // Only this thread queues deliveries and it checked for room, so the pool is shutting down
+                    outboxEmailRepository.release(email.getId());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Emails left SENDING by a previous run never finished; queue them again
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void releaseStaleClaims() {
+        int released = outboxEmailRepository.releaseClaims();
+        if (released > 0) {
+            log.info("Re-queued {} outbox emails left in SENDING state", released);
+        }
+    }
+
+    private void startPlanning(Long jobId, Consumer<Batch> planner) {
+        try {
+            plannerExecutor.execute(() -> plan(jobId, planner));
+        } catch (TaskRejectedException e) {
+            // The queue filled up between the capacity check and the commit
+            meterRegistry.counter(JOBS_REJECTED_METRIC).increment();
+            failJob(jobId, "Notification queue was full");
+        }
+    }
+
+    private void plan(Long jobId, Consumer<Batch> planner) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Batch batch = new Batch(jobId);
+                planner.accept(batch);
+                batch.flush();
+
+                NotificationJob planned = notificationJobRepository.findById(jobId).orElseThrow();
+                planned.setTotalCount(batch.count);
+                planned.setStatus("SENDING");
+                notificationJobRepository.save(planned);
+            });
+            notificationJobRepository.completeIfDone(jobId, LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Failed to plan notification job {}: {}", jobId, e.getMessage());
+            failJob(jobId, e.getMessage());
+        }
+    }
+
+    private void failJob(Long jobId, String error) {
+        notificationJobRepository.findById(jobId).ifPresent(failed -> {
+            failed.setStatus("FAILED");
+            failed.setError(truncate(error));
+            failed.setCompletedAt(LocalDateTime.now());
+            notificationJobRepository.save(failed);
+        });
+    }
+
+    private void deliver(OutboxEmail email) {
+        int attempts = email.getAttempts() + 1;
+        try {
+            emailService.sendEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        } catch (Exception e) {
+            String error = truncate(e.getMessage());
+            if (attempts >= maxAttempts) {
+                outboxEmailRepository.markFailed(email.getId(), attempts, error);
+                meterRegistry.counter(SENDS_METRIC, "outcome", "failed").increment();
+                finish(email.getJobId(), false);
+            } else {
+                long backoff = retryBackoffMs * (1L << Math.min(attempts - 1, 16));
+                outboxEmailRepository.scheduleRetry(email.getId(), attempts, LocalDateTime.now().plus(Duration.ofMillis(backoff)), error);
+                meterRegistry.counter(SENDS_METRIC, "outcome", "retry").increment();
+            }
+            return;
+        }
+        outboxEmailRepository.markSent(email.getId(), LocalDateTime.now());
+        meterRegistry.counter(SENDS_METRIC, "outcome", "sent").increment();
+        finish(email.getJobId(), true);
+    }
+
+    private void finish(Long jobId, boolean sent) {
+        if (jobId == null) {
+            return;
+        }
+        if (sent) {
+            notificationJobRepository.incrementSent(jobId);
+        } else {
+            notificationJobRepository.incrementFailed(jobId);
+        }
+        notificationJobRepository.completeIfDone(jobId, LocalDateTime.now());
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -5,6 +5,11 @@ import com.gym.gym.model.Member;
 import com.gym.gym.model.FitnessClass;
 import com.gym.gym.model.User;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
@@ -12,6 +17,13 @@ import java.time.format.DateTimeFormatter;
 @Service
 public class EmailService {
 
+    // Only present when spring.mail.host is configured
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
+
+    @Value("${notification.mail.from:noreply@gym.com}")
+    private String from;
+
     /**
      * Send booking confirmation email to member
      * @param payment Payment details
@@ -227,13 +239,25 @@ public class EmailService {
     }
 
     /**
-     * Send a generic email (logs to console for now)
+     * Send a generic email over SMTP, or log it when no mail server is configured. Used by
+     * the email outbox, which retries on the MailException a rejected send throws.
      * @param to Recipient email
      * @param subject Email subject
      * @param message Email message
      */
     public void sendEmail(String to, String subject, String message) {
-        logEmail(to, subject, message);
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            logEmail(to, subject, message);
+            return;
+        }
+
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(to);
+        mail.setSubject(subject);
+        mail.setText(message);
+        sender.send(mail);
     }
 
     /**
@@ -0,0 +1,218 @@
+package com.gym.gym.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gym.gym.dto.BookingExportRow;
+import com.gym.gym.dto.ExportRow;
+import com.gym.gym.dto.PaymentExportRow;
+import com.gym.gym.dto.ProgressExportRow;
+import com.gym.gym.exception.InvalidExportRequestException;
+import com.gym.gym.repository.ClassBookingRepository;
+import com.gym.gym.repository.FitnessProgressRepository;
+import com.gym.gym.repository.PaymentRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streaming exports of payments, class bookings and fitness progress as NDJSON or CSV.
+ *
+ * Rows are read through a forward-only database cursor as flat projections (no entities,
+ * so the persistence context stays empty) and written straight to the response, so heap
+ * usage does not grow with the size of the export. Each export runs in one read-only
+ * transaction, which keeps the cursor open until the last row is written.
+ */
+@Service
+public class ExportService {
+
+    /**
+     * Output formats: one JSON object per line, or CSV with a header row
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    // Bounds of a MySQL DATE, used when a side of the range is left open
+    static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 30);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ClassBookingRepository classBookingRepository;
+
+    @Autowired
+    private FitnessProgressRepository fitnessProgressRepository;
+
+    /**
+     * Parse the format request parameter
+     * @param format "ndjson" or "csv", case-insensitive
+     * @return Format
+     */
+    public Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportRequestException("Unsupported export format: " + format);
+        }
+    }
+
+    /**
+     * Check a date range before the response is committed, so a bad range is still
+     * reported as an error rather than as an empty export
+     * @param from First day included, or null for no lower bound
+     * @param to Last day included, or null for no upper bound
+     */
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidExportRequestException("'from' must not be after 'to'");
+        }
+        if ((from != null && from.isBefore(MIN_DATE)) || (to != null && to.isAfter(MAX_DATE))) {
+            throw new InvalidExportRequestException("Export range must lie between " + MIN_DATE + " and " + MAX_DATE);
+        }
+    }
+
+    /**
+     * Write payments created within a date range, oldest first
+     * @param from First day included, or null for no lower bound
+     * @param to Last day included, or null for no upper bound
+     * @param format Output format
+     * @param out Response body; flushed but not closed
+     * @return Number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(rows, PaymentExportRow.class, PaymentExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    /**
+     * Write class bookings made within a date range, oldest first
+     * @param from First day included, or null for no lower bound
+     * @param to Last day included, or null for no upper bound
+     * @param format Output format
+     * @param out Response body; flushed but not closed
+     * @return Number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportBookings(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        try (Stream<BookingExportRow> rows = classBookingRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(rows, BookingExportRow.class, BookingExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    /**
+     * Write fitness progress entries dated within a date range, oldest first
+     * @param from First day included, or null for no lower bound
+     * @param to Last day included, or null for no upper bound
+     * @param format Output format
+     * @param out Response body; flushed but not closed
+     * @return Number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportProgress(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        LocalDate first = from != null ? from : MIN_DATE;
+        LocalDate last = to != null ? to : MAX_DATE;
+        try (Stream<ProgressExportRow> rows = fitnessProgressRepository.streamForExport(first, last)) {
+            return write(rows, ProgressExportRow.class, ProgressExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return (from != null ? from : MIN_DATE).atStartOfDay();
+    }
+
+    // Exclusive upper bound: the start of the day after the last day included
+    private static LocalDateTime endOf(LocalDate to) {
+        return (to != null ? to : MAX_DATE).plusDays(1).atStartOfDay();
+    }
+
+    private <T extends ExportRow> long write(Stream<T> rows, Class<T> type, String[] header,
+                                             Format format, OutputStream out) throws IOException {
+        // Not closed: closing would close the response stream underneath the container
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        ObjectWriter json = objectMapper.writerFor(type);
+        if (format == Format.CSV) {
+            writeCsvLine(writer, header);
+        }
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == Format.CSV) {
+                writeCsvLine(writer, row.csvValues());
+            } else {
+                writer.write(json.writeValueAsString(row));
+                writer.write('\n');
+            }
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i]));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quote a field when needed (RFC 4180). Free text that a spreadsheet would read as a
+     * formula is prefixed with an apostrophe so opening the export cannot run it.
+     */
+    static String csvField(Object value) {
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -1,32 +1,68 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.ClassSeriesRequest;
+import com.gym.gym.dto.ClassSummaryDTO;
+import com.gym.gym.dto.TimeSlot;
+import com.gym.gym.exception.InvalidClassSeriesException;
+import com.gym.gym.exception.InvalidTimeException;
+import com.gym.gym.exception.ResourceNotFoundException;
+import com.gym.gym.exception.ScheduleConflictException;
 import com.gym.gym.model.FitnessClass;
 import com.gym.gym.model.ClassLevel; // Ensure this import is present
 import com.gym.gym.model.Trainer;
 import com.gym.gym.repository.FitnessClassRepository;
-import com.gym.gym.repository.TrainerRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 @Service
 public class FitnessClassService {
 
+    static final int MAX_SERIES_OCCURRENCES = 500;
+    static final Duration MAX_FREE_SLOT_RANGE = Duration.ofDays(92);
+    private static final int MAX_REPORTED_CONFLICTS = 10;
+
     @Autowired
     private FitnessClassRepository fitnessClassRepository;
 
     @Autowired
-    private TrainerRepository trainerRepository;
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private KeywordSearchService keywordSearchService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private ClassScheduleIndex classScheduleIndex;
+
+    @Autowired
+    private ClassAvailabilityIndex classAvailabilityIndex;
+
+    @Autowired
+    private WaitlistService waitlistService;
 
     /**
      * Create a new fitness class
      * @param fitnessClass Fitness class to create
      * @return Created fitness class
      */
+    @Transactional
     public FitnessClass createClass(FitnessClass fitnessClass) {
         validateClassTimes(fitnessClass);
 
@@ -35,12 +71,85 @@ public class FitnessClassService {
         }
 
         Long trainerId = fitnessClass.getTrainer().getId();
-        Trainer managedTrainer = trainerRepository.findById(trainerId)
+        Trainer trainer = referenceDataCache.findTrainer(trainerId)
             .orElseThrow(() -> new RuntimeException("Trainer not found with ID: " + trainerId));
 
-        fitnessClass.setTrainer(managedTrainer);
+        fitnessClass.setTrainer(trainer);
+        checkConflicts(trainerId, fitnessClass.getRoom(), List.of(fitnessClass.getStartTime()),
+                Duration.between(fitnessClass.getStartTime(), fitnessClass.getEndTime()), null);
+
+        FitnessClass saved = fitnessClassRepository.save(fitnessClass);
+        dashboardMetricsService.onClassCreated(saved);
+        reminderService.scheduleClass(saved);
+        keywordSearchService.indexClass(saved);
+        classScheduleIndex.put(saved);
+        classAvailabilityIndex.put(saved);
+        return saved;
+    }
+
+    /**
+     * Create a weekly recurring series of classes from a template. The whole series is
+     * checked against the trainer's and the room's timetable with one query and inserted
+     * in JDBC batches; if any occurrence conflicts, no class is created.
+     * @param request Class template and recurrence
+     * @return Created classes in chronological order
+     */
+    @Transactional
+    public List<FitnessClass> createSeries(ClassSeriesRequest request) {
+        FitnessClass template = request.getTemplate();
+        if (!template.getStartTime().isBefore(template.getEndTime())) {
+            throw new InvalidTimeException("Start time must be before end time");
+        }
+        if (template.getStartTime().isBefore(LocalDateTime.now())) {
+            throw new InvalidTimeException("Cannot create class in the past");
+        }
+        if (request.getWeeks() < 1 || request.getInterval() < 1) {
+            throw new InvalidClassSeriesException("Weeks and interval must be at least 1");
+        }
+        if (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()) {
+            throw new InvalidClassSeriesException("At least one day of the week is required");
+        }
+        if (template.getTrainer() == null || template.getTrainer().getId() == null) {
+            throw new InvalidClassSeriesException("Trainer ID is required for creating a class series.");
+        }
+
+        Long trainerId = template.getTrainer().getId();
+        Trainer trainer = referenceDataCache.findTrainer(trainerId)
+            .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + trainerId));
+
+        Duration duration = Duration.between(template.getStartTime(), template.getEndTime());
+        List<LocalDateTime> starts = ClassRecurrence.expand(template.getStartTime(), request.getDaysOfWeek(),
+                request.getWeeks(), request.getInterval(), MAX_SERIES_OCCURRENCES);
+        if (starts.isEmpty()) {
+            throw new InvalidClassSeriesException("The recurrence does not produce any classes");
+        }
+        if (starts.size() > MAX_SERIES_OCCURRENCES) {
+            throw new InvalidClassSeriesException("A series can have at most " + MAX_SERIES_OCCURRENCES
+                    + " classes, this one has more");
+        }
+        for (int i = 1; i < starts.size(); i++) {
+            if (starts.get(i - 1).plus(duration).isAfter(starts.get(i))) {
+                throw new InvalidClassSeriesException("Classes of the series would overlap each other");
+            }
+        }
+        checkConflicts(trainerId, template.getRoom(), starts, duration, null);
 
-        return fitnessClassRepository.save(fitnessClass);
+        List<FitnessClass> classes = new ArrayList<>(starts.size());
+        for (LocalDateTime start : starts) {
+            classes.add(occurrence(template, trainer, start, duration));
+        }
+        List<FitnessClass> saved = fitnessClassRepository.saveAll(classes);
+        // Send the insert batches now, so a failing insert surfaces here rather than at commit
+        fitnessClassRepository.flush();
+        // Counters, reminders and indexes all apply once the series commits
+        for (FitnessClass fitnessClass : saved) {
+            dashboardMetricsService.onClassCreated(fitnessClass);
+            reminderService.scheduleClass(fitnessClass);
+            keywordSearchService.indexClass(fitnessClass);
+            classScheduleIndex.put(fitnessClass);
+            classAvailabilityIndex.put(fitnessClass);
+        }
+        return saved;
     }
 
     /**
@@ -57,18 +166,23 @@ public class FitnessClassService {
      * @return Class if found
      */
     public FitnessClass getClassById(Long id) {
-        return fitnessClassRepository.findById(id)
+        return fitnessClassRepository.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Fitness class not found"));
     }
 
     /**
-     * Update fitness class
+     * Update fitness class. Seats added by a higher capacity go to members on the waitlist
+     * in the same transaction.
      * @param id Class ID
      * @param updatedClass Updated class details
      * @return Updated class
      */
+    @Transactional
     public FitnessClass updateClass(Long id, FitnessClass updatedClass) {
         FitnessClass existingClass = getClassById(id);
+        ClassLevel oldLevel = existingClass.getLevel();
+        LocalDateTime oldStartTime = existingClass.getStartTime();
+        int oldCapacity = existingClass.getMaxCapacity();
 
         validateClassTimes(updatedClass);
 
@@ -77,10 +191,12 @@ public class FitnessClassService {
         }
 
         Long trainerId = updatedClass.getTrainer().getId();
-        Trainer managedTrainer = trainerRepository.findById(trainerId)
+        Trainer trainer = referenceDataCache.findTrainer(trainerId)
             .orElseThrow(() -> new RuntimeException("Trainer not found with ID: " + trainerId));
 
-        existingClass.setTrainer(managedTrainer);
+        existingClass.setTrainer(trainer);
+        checkConflicts(trainerId, updatedClass.getRoom(), List.of(updatedClass.getStartTime()),
+                Duration.between(updatedClass.getStartTime(), updatedClass.getEndTime()), id);
 
         // Update fields
         existingClass.setName(updatedClass.getName());
@@ -94,7 +210,26 @@ public class FitnessClassService {
         existingClass.setPrice(updatedClass.getPrice());
         existingClass.setLevel(updatedClass.getLevel());
 
-        return fitnessClassRepository.save(existingClass);
+        FitnessClass saved = fitnessClassRepository.save(existingClass);
+        seatReservationService.evict(id);
+        referenceDataCache.evictFitnessClass(id);
+        dashboardMetricsService.onClassLevelChanged(oldLevel, saved.getLevel());
+        keywordSearchService.indexClass(saved);
+        classScheduleIndex.put(saved);
+        classAvailabilityIndex.put(saved);
+        if (!saved.getStartTime().equals(oldStartTime)) {
+            reminderService.scheduleClass(saved);
+        }
+
+        int promoted = 0;
+        for (int added = saved.getMaxCapacity() - oldCapacity; promoted < added; promoted++) {
+            if (waitlistService.promoteNext(id) == null) {
+                break;
+            }
+        }
+        // Promotions took their seats with a bulk UPDATE, which the loaded entity does not see
+        saved.setCurrentEnrollment(saved.getCurrentEnrollment() + promoted);
+        return saved;
     }
 
     /**
@@ -104,6 +239,13 @@ public class FitnessClassService {
     public void deleteClass(Long id) {
         FitnessClass fitnessClass = getClassById(id);
         fitnessClassRepository.delete(fitnessClass);
+        seatReservationService.evict(id);
+        referenceDataCache.evictFitnessClass(id);
+        reminderService.cancelClass(id);
+        keywordSearchService.removeClass(id);
+        classScheduleIndex.remove(id);
+        classAvailabilityIndex.remove(id);
+        dashboardMetricsService.onClassDeleted(fitnessClass);
     }
 
     /**
@@ -138,44 +280,89 @@ public class FitnessClassService {
     }
 
     /**
-     * Get available classes (not full)
+     * Get available classes (not full), past ones included
      * @return List of available classes
      */
     public List<FitnessClass> getAvailableClasses() {
         return fitnessClassRepository.findByCurrentEnrollmentLessThanMaxCapacity();
     }
 
+    /**
+     * Find upcoming classes by start time range and attributes; every filter is optional
+     * @param from Earliest start time; times before now are treated as now
+     * @param to Latest start time (exclusive)
+     * @param level Class level
+     * @param room Room
+     * @param minPrice Lowest price
+     * @param maxPrice Highest price
+     * @param equipment Equipment the class must require
+     * @param availableOnly true to skip full classes
+     * @return Matching classes in start time order
+     */
+    public List<ClassSummaryDTO> findUpcomingClasses(LocalDateTime from, LocalDateTime to, ClassLevel level, String room,
+                                                     Double minPrice, Double maxPrice, String equipment,
+                                                     boolean availableOnly) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidTimeException("The range must end after it starts");
+        }
+        return classAvailabilityIndex.find(from, to, level, room, minPrice, maxPrice, equipment, availableOnly);
+    }
+
+    /**
+     * Get the free time slots of a room and/or a trainer
+     * @param room Room, or null
+     * @param trainerId Trainer ID, or null; with both, slots where both are free
+     * @param from Start of the range; times before now are treated as now
+     * @param to End of the range
+     * @param minMinutes Shortest slot to return, in minutes
+     * @return Free slots in chronological order
+     */
+    public List<TimeSlot> getFreeSlots(String room, Long trainerId, LocalDateTime from, LocalDateTime to, int minMinutes) {
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        if (!from.isBefore(to)) {
+            throw new InvalidTimeException("The range must end after it starts and after now");
+        }
+        if (Duration.between(from, to).compareTo(MAX_FREE_SLOT_RANGE) > 0) {
+            throw new InvalidTimeException("The range can span at most " + MAX_FREE_SLOT_RANGE.toDays() + " days");
+        }
+        if (minMinutes < 0) {
+            throw new InvalidTimeException("minMinutes cannot be negative");
+        }
+        return classScheduleIndex.findFreeSlots(room, trainerId, from, to, Duration.ofMinutes(minMinutes));
+    }
+
     /**
      * Update class enrollment
      * @param id Class ID
      * @param increment true to increment, false to decrement
      * @return Updated class
      */
+    @Transactional
     public FitnessClass updateEnrollment(Long id, boolean increment) {
-        FitnessClass fitnessClass = getClassById(id);
-
         if (increment) {
-        if (fitnessClass.getCurrentEnrollment() >= fitnessClass.getMaxCapacity()) {
+            if (!seatReservationService.reserve(id)) {
                 throw new RuntimeException("Class is full");
             }
-            fitnessClass.setCurrentEnrollment(fitnessClass.getCurrentEnrollment() + 1);
         } else {
-            if (fitnessClass.getCurrentEnrollment() <= 0) {
+            if (!seatReservationService.release(id)) {
                 throw new RuntimeException("No enrollments to remove");
             }
-            fitnessClass.setCurrentEnrollment(fitnessClass.getCurrentEnrollment() - 1);
         }
 
-        return fitnessClassRepository.save(fitnessClass);
+        // Loaded only after the conditional update so the returned enrollment is current
+        return getClassById(id);
     }
 
     /**
      * Search classes by keyword
      * @param keyword Search keyword
-     * @return List of matching classes
+     * @return List of matching classes, best match first
      */
     public List<FitnessClass> searchClasses(String keyword) {
-        return fitnessClassRepository.searchByKeyword(keyword);
+        return keywordSearchService.searchClasses(keyword);
     }
 
     /**
@@ -201,6 +388,47 @@ public class FitnessClassService {
         }
     }
 
+    /**
+     * Reject proposed classes that overlap an active class with the same trainer or room,
+     * otherwise hold their slots until the surrounding transaction ends
+     * @param starts Start times of the proposed classes, in order
+     * @param excludeClassId Class being updated, or null
+     */
+    private void checkConflicts(Long trainerId, String room, List<LocalDateTime> starts, Duration duration,
+                                Long excludeClassId) {
+        List<ClassScheduleIndex.Conflict> conflicts =
+                classScheduleIndex.reserve(trainerId, room, starts, duration, excludeClassId);
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        List<String> described = new ArrayList<>();
+        for (ClassScheduleIndex.Conflict conflict : conflicts.subList(0, Math.min(conflicts.size(), MAX_REPORTED_CONFLICTS))) {
+            String shared = conflict.isSameTrainer() && conflict.isSameRoom() ? "trainer and room"
+                    : conflict.isSameTrainer() ? "trainer" : "room";
+            String other = conflict.getClassId() == null ? "a class being scheduled" : "class " + conflict.getClassId();
+            described.add(conflict.getRequestedStart() + " overlaps " + other + " (" + shared + ")");
+        }
+        throw new ScheduleConflictException("Class conflicts with the timetable: " + String.join("; ", described)
+                + (conflicts.size() > described.size() ? "; and " + (conflicts.size() - described.size()) + " more" : ""));
+    }
+
+    private static FitnessClass occurrence(FitnessClass template, Trainer trainer, LocalDateTime start, Duration duration) {
+        FitnessClass fitnessClass = new FitnessClass();
+        fitnessClass.setName(template.getName());
+        fitnessClass.setDescription(template.getDescription());
+        fitnessClass.setStartTime(start);
+        fitnessClass.setEndTime(start.plus(duration));
+        fitnessClass.setMaxCapacity(template.getMaxCapacity());
+        fitnessClass.setTrainer(trainer);
+        fitnessClass.setRoom(template.getRoom());
+        fitnessClass.setPrice(template.getPrice());
+        fitnessClass.setLevel(template.getLevel());
+        if (template.getRequiredEquipment() != null) {
+            fitnessClass.setRequiredEquipment(new HashSet<>(template.getRequiredEquipment()));
+        }
+        return fitnessClass;
+    }
+
     // This method should be completely removed, as its logic is now inline
     // private void validateTrainer(Long trainerId) {
     //     trainerRepository.findById(trainerId)
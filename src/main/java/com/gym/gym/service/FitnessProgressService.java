@@ -1,4 +1,6 @@
 package com.gym.gym.service;
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
 import com.gym.gym.model.FitnessProgress;
 import com.gym.gym.model.Member;
 import com.gym.gym.repository.FitnessProgressRepository;
@@ -6,6 +8,8 @@ import com.gym.gym.repository.MemberRepository;
 import com.gym.gym.exception.ResourceNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -35,11 +39,26 @@ public class FitnessProgressService {
     }
 
     /**
-     * Get all fitness progress entries
-     * @return List of all progress entries
+     * Get fitness progress entries one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of fitness progress entries with the token for the next page
      */
-    public List<FitnessProgress> getAllProgress() {
-        return fitnessProgressRepository.findAll();
+    public CursorPage<FitnessProgress> getAllProgress(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<FitnessProgress> rows;
+        if (PageCursor.SORT_NEWEST.equals(order)) {
+            rows = after == null
+                    ? fitnessProgressRepository.findAllByOrderByDateDescIdDesc(limit)
+                    : fitnessProgressRepository.findNewestBefore(after.keyAsDate(), after.getId(), limit);
+        } else {
+            rows = fitnessProgressRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        }
+        return CursorPage.of(rows, pageSize, progress -> PageCursor.encode(order, progress.getDate(), progress.getId()));
     }
 
     /**
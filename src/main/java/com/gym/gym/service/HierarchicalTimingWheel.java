@@ -0,0 +1,162 @@
+package com.gym.gym.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel holding timers keyed by an absolute deadline (epoch millis).
+ *
+ * The lowest wheel has wheelSize buckets of tickMs each; every higher wheel's tick is the
+ * full span of the wheel below it, and higher wheels are created only when a deadline
+ * needs them. Adding or cancelling a timer is O(1) and advancing the clock touches only
+ * the buckets that come due, so cost does not grow with the number of pending timers.
+ * Timers are fired at the start of their lowest-level bucket, i.e. up to one tick early.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+class HierarchicalTimingWheel<T> {
+
+    /**
+     * A pending timer. Cancelling only flags it; it is dropped when its bucket is drained.
+     */
+    static final class Timer<T> {
+        private final long deadline;
+        private final T task;
+        private boolean cancelled;
+
+        private Timer(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+
+        T getTask() {
+            return task;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final Level<T> root;
+    private final List<T> due = new ArrayList<>();
+    private int size;
+
+    HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.root = new Level<>(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Schedule a task
+     * @param deadline Epoch millis at which the task is due
+     * @param task Task to return from advance once due
+     * @return Handle that can be cancelled
+     */
+    Timer<T> schedule(long deadline, T task) {
+        Timer<T> timer = new Timer<>(deadline, task);
+        if (root.add(timer)) {
+            size++;
+        } else {
+            due.add(task);
+        }
+        return timer;
+    }
+
+    /**
+     * Move the clock forward and collect the tasks that came due
+     * @param nowMs Current epoch millis
+     * @return Due tasks, in deadline-bucket order
+     */
+    List<T> advance(long nowMs) {
+        while (root.currentTime + root.tickMs <= nowMs) {
+            root.tick(root.currentTime + root.tickMs, this::reinsert);
+        }
+        List<T> result = new ArrayList<>(due);
+        due.clear();
+        return result;
+    }
+
+    /**
+     * @return Timers still held in the wheel, including cancelled ones not yet drained
+     */
+    int size() {
+        return size;
+    }
+
+    private void reinsert(Timer<T> timer) {
+        size--;
+        if (timer.isCancelled()) {
+            return;
+        }
+        if (root.add(timer)) {
+            size++;
+        } else {
+            due.add(timer.getTask());
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final ArrayDeque<Timer<T>>[] buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs - (startMs % tickMs);
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+        }
+
+        /**
+         * @return false if the timer is already due at this level's resolution
+         */
+        boolean add(Timer<T> timer) {
+            long deadline = timer.getDeadline();
+            if (deadline < currentTime + tickMs) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                buckets[(int) ((deadline / tickMs) % wheelSize)].add(timer);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime);
+            }
+            return overflow.add(timer);
+        }
+
+        /**
+         * Advance this level to the given tick boundary and hand the entries of the bucket
+         * that starts there back to the caller for re-insertion (firing or cascading down)
+         */
+        void tick(long time, Consumer<Timer<T>> reinsert) {
+            currentTime = time;
+            if (overflow != null && time % overflow.tickMs == 0) {
+                overflow.tick(time, reinsert);
+            }
+            ArrayDeque<Timer<T>> bucket = buckets[(int) ((time / tickMs) % wheelSize)];
+            Timer<T> timer;
+            while ((timer = bucket.poll()) != null) {
+                reinsert.accept(timer);
+            }
+        }
+    }
+}
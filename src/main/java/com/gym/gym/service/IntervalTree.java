@@ -0,0 +1,198 @@
+package com.gym.gym.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Half-open intervals [start, end) tagged with an ID, held in a treap ordered by
+ * (start, id) in which every node also records the largest end in its subtree.
+ *
+ * Insert, remove and "does anything overlap [start, end)" take O(log n) expected time;
+ * listing the k overlapping intervals takes O(log n + k). Not thread-safe; callers
+ * synchronize.
+ */
+final class IntervalTree {
+
+    /**
+     * One stored interval
+     */
+    static final class Interval {
+        final long id;
+        final long start;
+        final long end;
+
+        Interval(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Node {
+        final Interval interval;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end;
+        }
+    }
+
+    private Node root;
+    private int size;
+    private boolean removed;
+
+    void insert(long id, long start, long end) {
+        root = insert(root, new Node(new Interval(id, start, end)));
+        size++;
+    }
+
+    /**
+     * @param start Start the interval was inserted with; together with the ID it locates the node
+     * @return true if the interval was found and removed
+     */
+    boolean remove(long id, long start) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * @return ID of some interval overlapping [start, end), or null if none does
+     */
+    Long findAnyOverlap(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.start < end && node.interval.end > start) {
+                return node.interval.id;
+            }
+            // If the left subtree reaches past start but holds no overlap, some interval in it
+            // starts at or after end, and so does everything in the right subtree
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * @return Intervals overlapping [start, end), ordered by start
+     */
+    List<Interval> findOverlaps(long start, long end) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static void collect(Node node, long start, long end, List<Interval> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.interval.start < end) {
+            if (node.interval.end > start) {
+                result.add(node.interval);
+            }
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.interval.start, added.interval.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Join two treaps where every key in left is smaller than every key in right
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.interval.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int c = Long.compare(start, node.interval.start);
+        return c != 0 ? c : Long.compare(id, node.interval.id);
+    }
+}
@@ -0,0 +1,177 @@
+package com.gym.gym.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over a few weighted text fields per document.
+ *
+ * Text is split into lower-cased runs of letters and digits. Postings are kept in a
+ * sorted map so every query token also matches the tokens it is a prefix of. A document
+ * matches when each query token matches one of its tokens; its score is the sum, over
+ * the query tokens, of the weight of the heaviest field containing the match, halved
+ * for prefix-only matches.
+ *
+ * Thread-safe: searches share a read lock, updates take the write lock.
+ */
+class KeywordIndex {
+
+    // token -> (document ID -> weight of the heaviest field containing the token)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // document ID -> its tokens, so a document can be replaced or removed
+    private final Map<Long, Set<String>> tokensByDocument = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add a document, replacing any earlier version of it
+     * @param id Document ID
+     * @param fields Field texts, null allowed
+     * @param weights Weight of each field, same order as fields
+     */
+    void put(Long id, String[] fields, int[] weights) {
+        Map<String, Integer> tokens = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            for (String token : tokenize(fields[i])) {
+                tokens.merge(token, weights[i], Math::max);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+                postings.computeIfAbsent(token.getKey(), t -> new HashMap<>()).put(id, token.getValue());
+            }
+            tokensByDocument.put(id, tokens.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a document
+     * @param id Document ID
+     */
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop every document
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the documents matching every token of a query
+     * @param query Free text
+     * @return Matching document IDs, best first (ties by ascending ID)
+     */
+    List<Long> search(String query) {
+        Set<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                Map<Long, Double> matches = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> posting
+                        : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+                    double factor = posting.getKey().length() == queryToken.length() ? 1.0 : 0.5;
+                    for (Map.Entry<Long, Integer> document : posting.getValue().entrySet()) {
+                        if (scores == null || scores.containsKey(document.getKey())) {
+                            matches.merge(document.getKey(), document.getValue() * factor, Math::max);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Long, Double> match : matches.entrySet()) {
+                        match.setValue(match.getValue() + scores.get(match.getKey()));
+                    }
+                }
+                scores = matches;
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * @return Number of indexed documents
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return tokensByDocument.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Set<String> tokens = tokensByDocument.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<Long, Integer> documents = postings.get(token);
+            documents.remove(id);
+            if (documents.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,144 @@
+package com.gym.gym.service;
+
+import com.gym.gym.model.ContactMessage;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.repository.ContactMessageRepository;
+import com.gym.gym.repository.FitnessClassRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyword search over fitness classes (name, room, description) and contact messages
+ * (subject, name, email, message), served from in-memory KeywordIndexes instead of
+ * LIKE '%kw%' table scans.
+ *
+ * The indexes are built at startup from two projection queries and kept current by
+ * FitnessClassService and ContactMessageService; changes made inside a transaction are
+ * applied only once it commits. Matches are loaded by ID, so an ID left behind by a
+ * delete that bypassed the services (e.g. a trainer's classes removed by cascade) is
+ * simply not found. Until the first build completes, searches fall back to the queries.
+ */
+@Service
+public class KeywordSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(KeywordSearchService.class);
+
+    private static final int[] CLASS_WEIGHTS = {3, 2, 1};        // name, room, description
+    private static final int[] MESSAGE_WEIGHTS = {3, 2, 2, 1};   // subject, name, email, message
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    private final KeywordIndex classIndex = new KeywordIndex();
+    private final KeywordIndex messageIndex = new KeywordIndex();
+    private volatile boolean ready;
+
+    /**
+     * Build both indexes from the current table contents
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        classIndex.clear();
+        for (Object[] row : fitnessClassRepository.findSearchableText()) {
+            classIndex.put((Long) row[0], new String[] {(String) row[1], (String) row[2], (String) row[3]}, CLASS_WEIGHTS);
+        }
+        messageIndex.clear();
+        for (Object[] row : contactMessageRepository.findSearchableText()) {
+            messageIndex.put((Long) row[0],
+                    new String[] {(String) row[1], (String) row[2], (String) row[3], (String) row[4]}, MESSAGE_WEIGHTS);
+        }
+        ready = true;
+        log.info("Keyword indexes built: {} classes, {} contact messages", classIndex.size(), messageIndex.size());
+    }
+
+    /**
+     * (Re)index a class after it was created or updated
+     * @param fitnessClass Saved class
+     */
+    public void indexClass(FitnessClass fitnessClass) {
+        Long id = fitnessClass.getId();
+        String[] fields = {fitnessClass.getName(), fitnessClass.getRoom(), fitnessClass.getDescription()};
+        TransactionHooks.afterCommit(() -> classIndex.put(id, fields, CLASS_WEIGHTS));
+    }
+
+    /**
+     * Drop a deleted class from the index
+     * @param classId Fitness Class ID
+     */
+    public void removeClass(Long classId) {
+        TransactionHooks.afterCommit(() -> classIndex.remove(classId));
+    }
+
+    /**
+     * (Re)index a contact message after it was created
+     * @param message Saved message
+     */
+    public void indexMessage(ContactMessage message) {
+        Long id = message.getId();
+        String[] fields = {message.getSubject(), message.getName(), message.getEmail(), message.getMessage()};
+        TransactionHooks.afterCommit(() -> messageIndex.put(id, fields, MESSAGE_WEIGHTS));
+    }
+
+    /**
+     * Drop a deleted contact message from the index
+     * @param messageId Message ID
+     */
+    public void removeMessage(Long messageId) {
+        TransactionHooks.afterCommit(() -> messageIndex.remove(messageId));
+    }
+
+    /**
+     * Search classes whose words start with every word of the keyword
+     * @param keyword Search keyword
+     * @return Matching classes, best match first
+     */
+    public List<FitnessClass> searchClasses(String keyword) {
+        if (!ready) {
+            return fitnessClassRepository.searchByKeyword(keyword);
+        }
+        List<Long> ids = classIndex.search(keyword);
+        return ids.isEmpty() ? List.of() : inOrder(ids, fitnessClassRepository.findByIdIn(ids), FitnessClass::getId);
+    }
+
+    /**
+     * Search contact messages whose words start with every word of the keyword
+     * @param keyword Search keyword
+     * @return Matching messages, best match first
+     */
+    public List<ContactMessage> searchMessages(String keyword) {
+        if (!ready) {
+            return contactMessageRepository.searchByKeyword(keyword);
+        }
+        List<Long> ids = messageIndex.search(keyword);
+        return ids.isEmpty() ? List.of() : inOrder(ids, contactMessageRepository.findAllById(ids), ContactMessage::getId);
+    }
+
+    private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
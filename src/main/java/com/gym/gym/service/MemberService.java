@@ -1,12 +1,17 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
 import com.gym.gym.model.Member;
 import com.gym.gym.model.MembershipType;
 import com.gym.gym.repository.MemberRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.gym.gym.model.Role;
 
 import java.util.List;
@@ -21,6 +26,21 @@ public class MemberService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private UserDetailsCacheService userDetailsCacheService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     /**
      * Register a new member
      * @param member Member object containing registration details
@@ -42,7 +62,10 @@ public class MemberService {
     // SET DEFAULT ROLE
     member.getUser().setRole(Role.ROLE_MEMBER); // Set role as enum Role.USER
     
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        dashboardMetricsService.onMemberCreated(saved);
+        reminderService.scheduleMembershipExpiry(saved);
+        return saved;
     }
 
     /**
@@ -90,6 +113,7 @@ public class MemberService {
      * @param updatedMember Updated member details
      * @return Updated member
      */
+    @Transactional
     public Member updateMember(Long id, Member updatedMember) {
         Member existingMember = getMemberById(id);
         
@@ -100,11 +124,17 @@ public class MemberService {
         existingMember.setAddress(updatedMember.getAddress());
         
         // Update password if provided
-        if (updatedMember.getUser().getPassword() != null && !updatedMember.getUser().getPassword().isEmpty()) {
+        boolean passwordChanged = updatedMember.getUser().getPassword() != null && !updatedMember.getUser().getPassword().isEmpty();
+        if (passwordChanged) {
             existingMember.getUser().setPassword(passwordEncoder.encode(updatedMember.getUser().getPassword()));
         }
         
-        return memberRepository.save(existingMember);
+        Member saved = memberRepository.save(existingMember);
+        if (passwordChanged) {
+            tokenVersionService.revoke(saved.getUser().getId());
+            userDetailsCacheService.evict(saved.getUser().getUsername());
+        }
+        return saved;
     }
 
     /**
@@ -115,16 +145,30 @@ public class MemberService {
      */
     public Member updatePlan(Long id, String plan) {
         Member member = getMemberById(id);
+        MembershipType oldType = member.getMembershipType();
         member.setMembershipType(MembershipType.valueOf(plan));
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        referenceDataCache.evictMembershipType(id);
+        dashboardMetricsService.onMembershipTypeChanged(oldType, saved.getMembershipType());
+        return saved;
     }
 
     /**
-     * Get all members
-     * @return List of all members
+     * Get members one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of members with the token for the next page
      */
-    public List<Member> getAllMembers() {
-        return memberRepository.findAll();
+    public CursorPage<Member> getAllMembers(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Member> rows = PageCursor.SORT_NEWEST.equals(order)
+                ? memberRepository.findByIdLessThanOrderByIdDesc(after != null ? after.getId() : Long.MAX_VALUE, limit)
+                : memberRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        return CursorPage.of(rows, pageSize, member -> PageCursor.encode(order, null, member.getId()));
     }
 
     /**
@@ -134,8 +178,13 @@ public class MemberService {
      */
     public Member deactivateMember(Long id) {
         Member member = getMemberById(id);
+        boolean wasActive = member.isActive();
         member.setActive(false);
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        if (wasActive) {
+            dashboardMetricsService.onMemberActiveChanged(false);
+        }
+        return saved;
     }
 
     /**
@@ -145,8 +194,13 @@ public class MemberService {
      */
     public Member reactivateMember(Long id) {
         Member member = getMemberById(id);
+        boolean wasActive = member.isActive();
         member.setActive(true);
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        if (!wasActive) {
+            dashboardMetricsService.onMemberActiveChanged(true);
+        }
+        return saved;
     }
 
     /**
@@ -155,10 +209,14 @@ public class MemberService {
      * @param newPassword New password
      * @return Member with updated password
      */
+    @Transactional
     public Member resetPassword(String email, String newPassword) {
         Member member = getMemberByEmail(email);
         member.getUser().setPassword(passwordEncoder.encode(newPassword));
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        tokenVersionService.revoke(saved.getUser().getId());
+        userDetailsCacheService.evict(saved.getUser().getUsername());
+        return saved;
     }
 
     /**
@@ -168,8 +226,9 @@ public class MemberService {
      * @return true if member has access, false otherwise
      */
     public boolean hasAccessToFeature(Long memberId, String feature) {
-        Member member = getMemberById(memberId);
-        String plan = member.getMembershipType().toString().toLowerCase();
+        MembershipType membershipType = referenceDataCache.findMembershipType(memberId)
+                .orElseThrow(() -> new RuntimeException("Member not found"));
+        String plan = membershipType.toString().toLowerCase();
         
         switch (feature.toLowerCase()) {
             case "classes":
@@ -213,8 +272,11 @@ public class MemberService {
 public void updateplan(Long memberId, String membershipType) {
     Member member = memberRepository.findById(memberId)
             .orElseThrow(() -> new RuntimeException("Member not found with ID: " + memberId));
+    MembershipType oldType = member.getMembershipType();
     // Validate membership type
     member.setMembershipType(MembershipType.valueOf(membershipType.toUpperCase()));
     memberRepository.save(member);
+    referenceDataCache.evictMembershipType(memberId);
+    dashboardMetricsService.onMembershipTypeChanged(oldType, member.getMembershipType());
 }
 }
\ No newline at end of file
@@ -1,21 +1,35 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.MemberRecipientDTO;
 import com.gym.gym.model.*;
 import com.gym.gym.repository.*;
 import com.gym.gym.exception.ResourceNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
-
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Builds notification emails and queues them in the email outbox. Every send returns a
+ * NotificationJob immediately; delivery happens on the notification worker pool and its
+ * progress can be read back through getJob.
+ */
 @Service
 public class NotificationService {
 
+    private static final int RECIPIENT_PAGE_SIZE = 500;
+    private static final DateTimeFormatter CLOCK_TIME = DateTimeFormatter.ofPattern("HH:mm");
+
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
 
     @Autowired
     private MemberRepository memberRepository;
@@ -33,285 +47,205 @@ public class NotificationService {
     private UserRepository userRepository;
 
     /**
-     * Send class reminder notifications
+     * Queue class reminder notifications
      * @param classId Fitness class ID
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendClassReminders(Long classId) {
-        try {
-            FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Fitness class not found"));
-
-            List<ClassBooking> bookings = classBookingRepository.findByFitnessClassId(classId).stream()
-                    .filter(booking -> "CONFIRMED".equals(booking.getStatus()))
-                    .collect(Collectors.toList());
-            
-            int sentCount = 0;
-            for (ClassBooking booking : bookings) {
-                try {
-                    sendClassReminderEmail(booking);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send reminder to " + booking.getMember().getUser().getEmail() + ": " + e.getMessage());
+    public NotificationJob sendClassReminders(Long classId) {
+        if (!fitnessClassRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Fitness class not found");
+        }
+
+        return emailOutboxService.submit("CLASS_REMINDER", batch -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (ClassBooking booking : classBookingRepository.findByFitnessClassId(classId)) {
+                if ("CONFIRMED".equals(booking.getStatus())) {
+                    sendClassReminderEmail(batch, booking, now);
                 }
             }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send class reminders: " + e.getMessage());
-            return 0;
-        }
+        });
     }
 
     /**
-     * Send payment reminder notifications
-     * @return Number of notifications sent
+     * Queue payment reminder notifications
+     * @return Queued notification job
      */
-    public int sendPaymentReminders() {
-        try {
-            List<Payment> pendingPayments = paymentRepository.findByStatus("PENDING");
-            
-            int sentCount = 0;
-            for (Payment payment : pendingPayments) {
-                try {
-                    sendPaymentReminderEmail(payment);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send payment reminder to " + payment.getMember().getUser().getEmail() + ": " + e.getMessage());
-                }
+    public NotificationJob sendPaymentReminders() {
+        return emailOutboxService.submit("PAYMENT_REMINDER", batch -> {
+            for (Payment payment : paymentRepository.findByStatus("PENDING")) {
+                sendPaymentReminderEmail(batch, payment);
             }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send payment reminders: " + e.getMessage());
-            return 0;
-        }
+        });
     }
 
     /**
-     * Send membership expiry notifications
+     * Queue membership expiry notifications
      * @param daysBeforeExpiry Days before expiry to send notification
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendMembershipExpiryReminders(int daysBeforeExpiry) {
-        try {
-            LocalDateTime expiryDate = LocalDateTime.now().plusDays(daysBeforeExpiry);
-            List<Member> expiringMembers = memberRepository.findAll().stream()
-                    .filter(member -> member.getMembershipEndDate() != null && member.getMembershipEndDate().isBefore(expiryDate))
-                    .collect(Collectors.toList());
-            
-            int sentCount = 0;
-            for (Member member : expiringMembers) {
-                try {
-                    sendMembershipExpiryEmail(member);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send expiry reminder to " + member.getUser().getEmail() + ": " + e.getMessage());
-                }
-            }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send membership expiry reminders: " + e.getMessage());
-            return 0;
-        }
+    public NotificationJob sendMembershipExpiryReminders(int daysBeforeExpiry) {
+        LocalDateTime expiryDate = LocalDateTime.now().plusDays(daysBeforeExpiry);
+        return emailOutboxService.submit("MEMBERSHIP_EXPIRY", batch -> forEachRecipient(
+                (afterId, page) -> memberRepository.findRecipientsWithMembershipEndingBefore(expiryDate, afterId, page),
+                recipient -> sendMembershipExpiryEmail(batch, recipient)));
     }
 
     /**
-     * Send welcome notification to new member
+     * Queue the membership expiry notification of a single member
      * @param memberId Member ID
-     * @return Success status
+     * @return Queued notification job
      */
-    public boolean sendWelcomeNotification(Long memberId) {
-        try {
-            Member member = memberRepository.findById(memberId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
-            
-            sendWelcomeEmail(member);
-            return true;
-        } catch (Exception e) {
-            System.err.println("Failed to send welcome notification: " + e.getMessage());
-            return false;
-        }
+    public NotificationJob sendMembershipExpiryReminder(Long memberId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
+
+        MemberRecipientDTO recipient = new MemberRecipientDTO(member);
+        return emailOutboxService.submit("MEMBERSHIP_EXPIRY", batch -> sendMembershipExpiryEmail(batch, recipient));
     }
 
     /**
-     * Send class cancellation notification
+     * Queue welcome notification to new member
+     * @param memberId Member ID
+     * @return Queued notification job
+     */
+    public NotificationJob sendWelcomeNotification(Long memberId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
+
+        return emailOutboxService.submit("WELCOME", batch -> sendWelcomeEmail(batch, member));
+    }
+
+    /**
+     * Queue class cancellation notification
      * @param classId Fitness class ID
      * @param reason Cancellation reason
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendClassCancellationNotification(Long classId, String reason) {
-        try {
-            FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Fitness class not found"));
-
-            List<ClassBooking> bookings = classBookingRepository.findByFitnessClassId(classId).stream()
-                    .filter(booking -> "CONFIRMED".equals(booking.getStatus()))
-                    .collect(Collectors.toList());
-            
-            int sentCount = 0;
-            for (ClassBooking booking : bookings) {
-                try {
-                    sendClassCancellationEmail(booking, reason);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send cancellation notification to " + booking.getMember().getUser().getEmail() + ": " + e.getMessage());
+    public NotificationJob sendClassCancellationNotification(Long classId, String reason) {
+        if (!fitnessClassRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Fitness class not found");
+        }
+
+        return emailOutboxService.submit("CLASS_CANCELLATION", batch -> {
+            for (ClassBooking booking : classBookingRepository.findByFitnessClassId(classId)) {
+                if ("CONFIRMED".equals(booking.getStatus())) {
+                    sendClassCancellationEmail(batch, booking, reason);
                 }
             }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send class cancellation notifications: " + e.getMessage());
-            return 0;
-        }
+        });
     }
 
     /**
-     * Send class schedule change notification
+     * Queue class schedule change notification
      * @param classId Fitness class ID
      * @param oldTime Old class time
      * @param newTime New class time
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendClassScheduleChangeNotification(Long classId, LocalDateTime oldTime, LocalDateTime newTime) {
-        try {
-            FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Fitness class not found"));
-
-            List<ClassBooking> bookings = classBookingRepository.findByFitnessClassId(classId).stream()
-                    .filter(booking -> "CONFIRMED".equals(booking.getStatus()))
-                    .collect(Collectors.toList());
-            
-            int sentCount = 0;
-            for (ClassBooking booking : bookings) {
-                try {
-                    sendClassScheduleChangeEmail(booking, oldTime, newTime);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send schedule change notification to " + booking.getMember().getUser().getEmail() + ": " + e.getMessage());
+    public NotificationJob sendClassScheduleChangeNotification(Long classId, LocalDateTime oldTime, LocalDateTime newTime) {
+        if (!fitnessClassRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Fitness class not found");
+        }
+
+        return emailOutboxService.submit("CLASS_SCHEDULE_CHANGE", batch -> {
+            for (ClassBooking booking : classBookingRepository.findByFitnessClassId(classId)) {
+                if ("CONFIRMED".equals(booking.getStatus())) {
+                    sendClassScheduleChangeEmail(batch, booking, oldTime, newTime);
                 }
             }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send class schedule change notifications: " + e.getMessage());
-            return 0;
-        }
+        });
     }
 
     /**
-     * Send bulk notification to all members
+     * Queue bulk notification to all members
      * @param subject Email subject
      * @param message Email message
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendBulkNotification(String subject, String message) {
-        try {
-            List<Member> allMembers = memberRepository.findAll();
-            
-            int sentCount = 0;
-            for (Member member : allMembers) {
-                try {
-                    sendBulkEmail(member, subject, message);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send bulk notification to " + member.getUser().getEmail() + ": " + e.getMessage());
-                }
-            }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send bulk notifications: " + e.getMessage());
-            return 0;
-        }
+    public NotificationJob sendBulkNotification(String subject, String message) {
+        return emailOutboxService.submit("BULK", batch -> forEachRecipient(
+                memberRepository::findRecipients,
+                recipient -> sendBulkEmail(batch, recipient, subject, message)));
     }
 
     /**
-     * Send notification to specific member
+     * Queue notification to specific member
      * @param memberId Member ID
      * @param subject Email subject
      * @param message Email message
-     * @return Success status
+     * @return Queued notification job
      */
-    public boolean sendMemberNotification(Long memberId, String subject, String message) {
-        try {
-            Member member = memberRepository.findById(memberId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
-            
-            sendMemberEmail(member, subject, message);
-            return true;
-        } catch (Exception e) {
-            System.err.println("Failed to send member notification: " + e.getMessage());
-            return false;
-        }
+    public NotificationJob sendMemberNotification(Long memberId, String subject, String message) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
+
+        MemberRecipientDTO recipient = new MemberRecipientDTO(member);
+        return emailOutboxService.submit("MEMBER", batch -> sendMemberEmail(batch, recipient, subject, message));
     }
 
     /**
-     * Send notification to members by membership type
+     * Queue notification to members by membership type
      * @param membershipType Membership type
      * @param subject Email subject
      * @param message Email message
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendNotificationByMembershipType(MembershipType membershipType, String subject, String message) {
-        try {
-            List<Member> members = memberRepository.findByMembershipType(membershipType);
-            
-            int sentCount = 0;
-            for (Member member : members) {
-                try {
-                    sendMemberEmail(member, subject, message);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send notification to " + member.getUser().getEmail() + ": " + e.getMessage());
-                }
-            }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send notifications by membership type: " + e.getMessage());
-            return 0;
-        }
+    public NotificationJob sendNotificationByMembershipType(MembershipType membershipType, String subject, String message) {
+        return emailOutboxService.submit("MEMBERSHIP_TYPE", batch -> forEachRecipient(
+                (afterId, page) -> memberRepository.findRecipientsByMembershipType(membershipType, afterId, page),
+                recipient -> sendMemberEmail(batch, recipient, subject, message)));
     }
 
     /**
-     * Send notification to inactive members
+     * Queue notification to inactive members
      * @param subject Email subject
      * @param message Email message
-     * @return Number of notifications sent
+     * @return Queued notification job
      */
-    public int sendInactiveMemberNotification(String subject, String message) {
-        try {
-            List<Member> inactiveMembers = memberRepository.findAll().stream()
-                    .filter(member -> !member.isActive())
-                    .collect(Collectors.toList());
-            
-            int sentCount = 0;
-            for (Member member : inactiveMembers) {
-                try {
-                    sendMemberEmail(member, subject, message);
-                    sentCount++;
-                } catch (Exception e) {
-                    System.err.println("Failed to send notification to inactive member " + member.getUser().getEmail() + ": " + e.getMessage());
-                }
+    public NotificationJob sendInactiveMemberNotification(String subject, String message) {
+        return emailOutboxService.submit("INACTIVE_MEMBERS", batch -> forEachRecipient(
+                (afterId, page) -> memberRepository.findRecipientsByActive(false, afterId, page),
+                recipient -> sendMemberEmail(batch, recipient, subject, message)));
+    }
+
+    /**
+     * Get a notification job and its delivery progress
+     * @param jobId Job ID
+     * @return Notification job
+     */
+    public NotificationJob getJob(Long jobId) {
+        return emailOutboxService.getJob(jobId);
+    }
+
+    /**
+     * Walk a recipient query page by page (keyset on member id) so only one page is held in memory
+     * @param query Recipient query taking the last id seen and the page size
+     * @param action Called once per recipient
+     */
+    private void forEachRecipient(BiFunction<Long, Pageable, List<MemberRecipientDTO>> query,
+                                  Consumer<MemberRecipientDTO> action) {
+        Pageable page = PageRequest.of(0, RECIPIENT_PAGE_SIZE);
+        Long afterId = 0L;
+        List<MemberRecipientDTO> recipients;
+        do {
+            recipients = query.apply(afterId, page);
+            for (MemberRecipientDTO recipient : recipients) {
+                action.accept(recipient);
             }
-            
-            return sentCount;
-        } catch (Exception e) {
-            System.err.println("Failed to send inactive member notifications: " + e.getMessage());
-            return 0;
-        }
+            if (!recipients.isEmpty()) {
+                afterId = recipients.get(recipients.size() - 1).getId();
+            }
+        } while (recipients.size() == RECIPIENT_PAGE_SIZE);
     }
 
     // Email sending methods
 
-    private void sendClassReminderEmail(ClassBooking booking) {
+    private void sendClassReminderEmail(EmailOutboxService.Batch batch, ClassBooking booking, LocalDateTime now) {
         String subject = "Class Reminder: " + booking.getFitnessClass().getName();
         String message = """
             Hi %s,
             
-            This is a reminder that you have a class tomorrow:
+            This is a reminder that your class starts %s:
             
             Class: %s
             Time: %s
@@ -323,16 +257,42 @@ public class NotificationService {
             Best regards,
             Gym Management Team""".formatted(
                 booking.getMember().getUser().getFirstName(),
+                startsIn(booking.getFitnessClass().getStartTime(), now),
                 booking.getFitnessClass().getName(),
                 booking.getFitnessClass().getStartTime(),
                 booking.getFitnessClass().getTrainer().getUser().getFirstName() + " " + booking.getFitnessClass().getTrainer().getUser().getLastName(),
                 booking.getFitnessClass().getRoom()
             );
         
-        emailService.sendEmail(booking.getMember().getUser().getEmail(), subject, message);
+        batch.add(booking.getMember().getUser().getEmail(), subject, message);
+    }
+
+    /**
+     * When a class starts, as seen from now: "in 60 minutes", "today at 18:00",
+     * "tomorrow at 09:00" or "on 2026-10-20 at 09:00". Reminders go out at several offsets
+     * (and on demand), so the wording cannot be fixed.
+     */
+    private static String startsIn(LocalDateTime startTime, LocalDateTime now) {
+        long seconds = Duration.between(now, startTime).getSeconds();
+        if (seconds <= 0) {
+            return "now";
+        }
+        if (seconds < Duration.ofHours(2).getSeconds()) {
+            // Round up, so a reminder fired a few seconds late still says "in 60 minutes"
+            long minutes = (seconds + 59) / 60;
+            return "in " + minutes + (minutes == 1 ? " minute" : " minutes");
+        }
+        String time = startTime.format(CLOCK_TIME);
+        if (startTime.toLocalDate().equals(now.toLocalDate())) {
+            return "today at " + time;
+        }
+        if (startTime.toLocalDate().equals(now.toLocalDate().plusDays(1))) {
+            return "tomorrow at " + time;
+        }
+        return "on " + startTime.toLocalDate() + " at " + time;
     }
 
-    private void sendPaymentReminderEmail(Payment payment) {
+    private void sendPaymentReminderEmail(EmailOutboxService.Batch batch, Payment payment) {
         String subject = "Payment Reminder";
         String message = """
             Hi %s,
@@ -353,10 +313,10 @@ public class NotificationService {
                 payment.getBookingDate().plusDays(7)
             );
         
-        emailService.sendEmail(payment.getMember().getUser().getEmail(), subject, message);
+        batch.add(payment.getMember().getUser().getEmail(), subject, message);
     }
 
-    private void sendMembershipExpiryEmail(Member member) {
+    private void sendMembershipExpiryEmail(EmailOutboxService.Batch batch, MemberRecipientDTO member) {
         String subject = "Membership Expiry Reminder";
         String message = """
             Hi %s,
@@ -372,16 +332,16 @@ public class NotificationService {
             
             Best regards,
             Gym Management Team""".formatted(
-                member.getUser().getFirstName(),
+                member.getFirstName(),
                 member.getMembershipEndDate(),
                 member.getMembershipType(),
                 member.getMembershipEndDate()
             );
         
-        emailService.sendEmail(member.getUser().getEmail(), subject, message);
+        batch.add(member.getEmail(), subject, message);
     }
 
-    private void sendWelcomeEmail(Member member) {
+    private void sendWelcomeEmail(EmailOutboxService.Batch batch, Member member) {
         String subject = "Welcome to Our Gym!";
         String message = """
             Hi %s,
@@ -405,10 +365,10 @@ public class NotificationService {
                 member.getMembershipEndDate()
             );
         
-        emailService.sendEmail(member.getUser().getEmail(), subject, message);
+        batch.add(member.getUser().getEmail(), subject, message);
     }
 
-    private void sendClassCancellationEmail(ClassBooking booking, String reason) {
+    private void sendClassCancellationEmail(EmailOutboxService.Batch batch, ClassBooking booking, String reason) {
         String subject = "Class Cancelled: " + booking.getFitnessClass().getName();
         String message = """
             Hi %s,
@@ -431,10 +391,10 @@ public class NotificationService {
                 reason
             );
         
-        emailService.sendEmail(booking.getMember().getUser().getEmail(), subject, message);
+        batch.add(booking.getMember().getUser().getEmail(), subject, message);
     }
 
-    private void sendClassScheduleChangeEmail(ClassBooking booking, LocalDateTime oldTime, LocalDateTime newTime) {
+    private void sendClassScheduleChangeEmail(EmailOutboxService.Batch batch, ClassBooking booking, LocalDateTime oldTime, LocalDateTime newTime) {
         String subject = "Class Schedule Change: " + booking.getFitnessClass().getName();
         String message = """
             Hi %s,
@@ -455,10 +415,10 @@ public class NotificationService {
                 newTime
             );
         
-        emailService.sendEmail(booking.getMember().getUser().getEmail(), subject, message);
+        batch.add(booking.getMember().getUser().getEmail(), subject, message);
     }
 
-    private void sendBulkEmail(Member member, String subject, String message) {
+    private void sendBulkEmail(EmailOutboxService.Batch batch, MemberRecipientDTO member, String subject, String message) {
         String personalizedMessage = """
             Hi %s,
             
@@ -466,14 +426,14 @@ public class NotificationService {
             
             Best regards,
             Gym Management Team""".formatted(
-                member.getUser().getFirstName(),
+                member.getFirstName(),
                 message
             );
         
-        emailService.sendEmail(member.getUser().getEmail(), subject, personalizedMessage);
+        batch.add(member.getEmail(), subject, personalizedMessage);
     }
 
-    private void sendMemberEmail(Member member, String subject, String message) {
+    private void sendMemberEmail(EmailOutboxService.Batch batch, MemberRecipientDTO member, String subject, String message) {
         String personalizedMessage = """
             Hi %s,
             
@@ -481,11 +441,11 @@ public class NotificationService {
             
             Best regards,
             Gym Management Team""".formatted(
-                member.getUser().getFirstName(),
+                member.getFirstName(),
                 message
             );
         
-        emailService.sendEmail(member.getUser().getEmail(), subject, personalizedMessage);
+        batch.add(member.getEmail(), subject, personalizedMessage);
     }
 
     /**
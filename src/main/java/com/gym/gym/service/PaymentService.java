@@ -1,18 +1,27 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
 import com.gym.gym.model.Payment;
 import com.gym.gym.model.Member;
 import com.gym.gym.model.FitnessClass;
 import com.gym.gym.model.ClassBooking;
 import com.gym.gym.repository.PaymentRepository;
 import com.gym.gym.repository.MemberRepository;
-import com.gym.gym.repository.FitnessClassRepository;
 import com.gym.gym.repository.ClassBookingRepository;
 import com.gym.gym.exception.ResourceNotFoundException;
 import com.gym.gym.exception.DuplicateResourceException;
+import com.gym.gym.exception.ClassFullException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,21 +29,32 @@ import java.util.List;
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
     @Autowired
     private MemberRepository memberRepository;
 
-    @Autowired
-    private FitnessClassRepository fitnessClassRepository;
-
     @Autowired
     private ClassBookingRepository classBookingRepository;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Create a payment for a class booking
      * @param memberId Member ID
@@ -42,13 +62,14 @@ public class PaymentService {
      * @param amount Payment amount
      * @return Created payment
      */
+    @Transactional
     public Payment createPayment(Long memberId, Long classId, double amount) {
         // Validate member exists
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new ResourceNotFoundException("Member not found"));
 
         // Validate fitness class exists
-        FitnessClass fitnessClass = fitnessClassRepository.findById(classId)
+        FitnessClass fitnessClass = referenceDataCache.findFitnessClass(classId)
                 .orElseThrow(() -> new ResourceNotFoundException("Fitness class not found"));
 
         // Find or create class booking
@@ -58,11 +79,17 @@ public class PaymentService {
                 .findFirst()
                 .orElseGet(() -> {
                     // Create booking if it doesn't exist
+                    if (!seatReservationService.reserve(classId)) {
+                        meterRegistry.counter(ClassBookingService.REJECTIONS_METRIC, "reason", "class_full").increment();
+                        throw new ClassFullException("Class is full");
+                    }
                     ClassBooking newBooking = new ClassBooking(LocalDateTime.now());
                     newBooking.setMember(member);
                     newBooking.setFitnessClass(fitnessClass);
                     newBooking.setStatus("CONFIRMED");
-                    return classBookingRepository.save(newBooking);
+                    ClassBooking savedBooking = classBookingRepository.save(newBooking);
+                    dashboardMetricsService.onBookingCreated(savedBooking);
+                    return savedBooking;
                 });
 
         // Check if payment already exists
@@ -77,6 +104,7 @@ public class PaymentService {
         // Create payment
         Payment payment = new Payment(member, fitnessClass, classBooking, amount);
         payment = paymentRepository.save(payment);
+        dashboardMetricsService.onPaymentCreated(payment);
 
         // Send booking confirmation emails
         try {
@@ -84,7 +112,7 @@ public class PaymentService {
             emailService.sendAdminBookingNotification(payment);
         } catch (Exception e) {
             // Log error but don't fail the payment creation
-            System.err.println("Failed to send email notifications: " + e.getMessage());
+            log.warn("Failed to send booking emails for payment {}: {}", payment.getId(), e.getMessage());
         }
 
         return payment;
@@ -97,8 +125,10 @@ public class PaymentService {
      * @param notes Additional notes
      * @return Updated payment
      */
+    @Transactional
     public Payment processPayment(Long paymentId, String paymentMethod, String notes) {
-        Payment payment = getPaymentById(paymentId);
+        // Locked, so a concurrent process or cancel waits and then finds the payment no longer PENDING
+        Payment payment = getPaymentForUpdate(paymentId);
 
         if (!"PENDING".equals(payment.getStatus())) {
             throw new RuntimeException("Payment is not in pending status");
@@ -110,6 +140,7 @@ public class PaymentService {
         payment.setNotes(notes);
 
         payment = paymentRepository.save(payment);
+        dashboardMetricsService.onPaymentStatusChanged(payment, "PENDING");
 
         // Send payment confirmation emails
         try {
@@ -117,18 +148,33 @@ public class PaymentService {
             emailService.sendAdminPaymentNotification(payment);
         } catch (Exception e) {
             // Log error but don't fail the payment processing
-            System.err.println("Failed to send email notifications: " + e.getMessage());
+            log.warn("Failed to send payment emails for payment {}: {}", payment.getId(), e.getMessage());
         }
 
         return payment;
     }
 
     /**
-     * Get all payments
-     * @return List of all payments
+     * Get payments one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of payments with the token for the next page
      */
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+    public CursorPage<Payment> getAllPayments(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Payment> rows;
+        if (PageCursor.SORT_NEWEST.equals(order)) {
+            rows = after == null
+                    ? paymentRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                    : paymentRepository.findNewestBefore(after.keyAsDateTime(), after.getId(), limit);
+        } else {
+            rows = paymentRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        }
+        return CursorPage.of(rows, pageSize, payment -> PageCursor.encode(order, payment.getCreatedAt(), payment.getId()));
     }
 
     /**
@@ -141,6 +187,11 @@ public class PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
     }
 
+    private Payment getPaymentForUpdate(Long id) {
+        return paymentRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+    }
+
     /**
      * Get payments by member
      * @param memberId Member ID
@@ -219,10 +270,14 @@ public class PaymentService {
      * @param paymentId Payment ID
      * @return Cancelled payment
      */
+    @Transactional
     public Payment cancelPayment(Long paymentId) {
-        Payment payment = getPaymentById(paymentId);
+        Payment payment = getPaymentForUpdate(paymentId);
+        String oldStatus = payment.getStatus();
         payment.setStatus("CANCELLED");
-        return paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+        dashboardMetricsService.onPaymentStatusChanged(saved, oldStatus);
+        return saved;
     }
 
     /**
@@ -231,8 +286,9 @@ public class PaymentService {
      * @param notes Refund notes
      * @return Refunded payment
      */
+    @Transactional
     public Payment refundPayment(Long paymentId, String notes) {
-        Payment payment = getPaymentById(paymentId);
+        Payment payment = getPaymentForUpdate(paymentId);
         
         if (!"PAID".equals(payment.getStatus())) {
             throw new RuntimeException("Payment must be paid to be refunded");
@@ -240,7 +296,9 @@ public class PaymentService {
 
         payment.setStatus("REFUNDED");
         payment.setNotes(notes);
-        return paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+        dashboardMetricsService.onPaymentStatusChanged(saved, "PAID");
+        return saved;
     }
 
     /**
@@ -276,7 +334,7 @@ public class PaymentService {
             try {
                 emailService.sendPaymentReminderEmail(payment);
             } catch (Exception e) {
-                System.err.println("Failed to send reminder for payment " + payment.getId() + ": " + e.getMessage());
+                log.warn("Failed to send reminder for payment {}: {}", payment.getId(), e.getMessage());
             }
         }
     }
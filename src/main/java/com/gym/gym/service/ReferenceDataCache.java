@@ -0,0 +1,136 @@
+package com.gym.gym.service;
+
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.MemberRepository;
+import com.gym.gym.repository.TrainerRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of rarely changing reference data: fitness classes (with their
+ * trainer), trainers and members' membership plans, held in the bounded Caffeine caches
+ * configured under spring.cache.*.
+ *
+ * Cached entities are detached, shared copies: callers may read them or use them as the
+ * target of an association, but must not modify them. A class's currentEnrollment is
+ * not kept current here; seat counts come from SeatReservationService. The update
+ * methods of FitnessClassService, TrainerService and MemberService evict what they
+ * change, once straight away and again after their transaction completes, so a reload
+ * racing with the change cannot leave the old state cached; the cache TTL bounds
+ * staleness for changes made elsewhere.
+ */
+@Service
+public class ReferenceDataCache {
+
+    public static final String FITNESS_CLASSES = "fitnessClasses";
+    public static final String TRAINERS = "trainers";
+    public static final String MEMBER_PLANS = "memberPlans";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * @param classId Fitness Class ID
+     * @return Class with its trainer, or empty if it does not exist
+     */
+    public Optional<FitnessClass> findFitnessClass(Long classId) {
+        return Optional.ofNullable(lookup(FITNESS_CLASSES, classId,
+                () -> fitnessClassRepository.findDetailById(classId).orElse(null)));
+    }
+
+    /**
+     * @param trainerId Trainer ID
+     * @return Trainer, or empty if it does not exist
+     */
+    public Optional<Trainer> findTrainer(Long trainerId) {
+        return Optional.ofNullable(lookup(TRAINERS, trainerId,
+                () -> trainerRepository.findById(trainerId).orElse(null)));
+    }
+
+    /**
+     * @param memberId Member ID
+     * @return Member's membership plan, or empty if the member does not exist
+     */
+    public Optional<MembershipType> findMembershipType(Long memberId) {
+        return Optional.ofNullable(lookup(MEMBER_PLANS, memberId,
+                () -> memberRepository.findMembershipTypeById(memberId).orElse(null)));
+    }
+
+    /**
+     * Drop a class after it was updated or deleted
+     * @param classId Fitness Class ID
+     */
+    public void evictFitnessClass(Long classId) {
+        evict(FITNESS_CLASSES, classId);
+    }
+
+    /**
+     * Drop a trainer after it was updated or deleted, along with all cached classes,
+     * which embed their trainer
+     * @param trainerId Trainer ID
+     */
+    public void evictTrainer(Long trainerId) {
+        evict(TRAINERS, trainerId);
+        clear(FITNESS_CLASSES);
+    }
+
+    /**
+     * Drop a member's plan after it changed
+     * @param memberId Member ID
+     */
+    public void evictMembershipType(Long memberId) {
+        evict(MEMBER_PLANS, memberId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(String cacheName, Long id, Supplier<T> loader) {
+        Cache cache = cache(cacheName);
+        Cache.ValueWrapper hit = cache.get(id);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        T value = loader.get();
+        if (value != null) {
+            cache.put(id, value);
+        }
+        return value;
+    }
+
+    private void evict(String cacheName, Long id) {
+        Cache cache = cache(cacheName);
+        cache.evict(id);
+        TransactionHooks.afterCompletion(() -> cache.evict(id));
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cache(cacheName);
+        cache.clear();
+        TransactionHooks.afterCompletion(cache::clear);
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + cacheName);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,233 @@
+package com.gym.gym.service;
+
+import com.gym.gym.exception.NotificationQueueFullException;
+import com.gym.gym.exception.ResourceNotFoundException;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Member;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.MemberRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fires class and membership-expiry reminders automatically.
+ *
+ * Every upcoming class start and membership end date gets one timer per configured
+ * offset in a HierarchicalTimingWheel. The wheel is filled once at startup from a
+ * two-column query and then kept current by FitnessClassService and MemberService as
+ * classes are created, rescheduled or deleted and members register, so firing never
+ * scans the tables; changes made inside a transaction are applied only once it commits.
+ * Due reminders are handed to NotificationService, which queues the emails in the outbox.
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private static final int WHEEL_SIZE = 60;
+    private static final String CLASS_REMINDER = "CLASS";
+    private static final String MEMBERSHIP_EXPIRY = "MEMBERSHIP_EXPIRY";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Value("${reminder.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminder.wheel.tick-ms:60000}")
+    private long tickMs;
+
+    @Value("${reminder.class.offsets-minutes:1440,60}")
+    private List<Long> classOffsetsMinutes;
+
+    @Value("${reminder.membership.offsets-days:7,1}")
+    private List<Long> membershipOffsetsDays;
+
+    // Guarded by this
+    private HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<String, List<HierarchicalTimingWheel.Timer<Reminder>>> timersByTarget = new HashMap<>();
+
+    private static final class Reminder {
+        private final String type;
+        private final Long targetId;
+
+        private Reminder(String type, Long targetId) {
+            this.type = type;
+            this.targetId = targetId;
+        }
+
+        private String key() {
+            return type + ":" + targetId;
+        }
+    }
+
+    /**
+     * Build the wheel from every future class start and membership end date
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadPendingReminders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, toEpochMillis(now));
+        timersByTarget.clear();
+
+        for (Object[] row : fitnessClassRepository.findStartTimesAfter(now)) {
+            schedule(CLASS_REMINDER, (Long) row[0], (LocalDateTime) row[1], classOffsets());
+        }
+        for (Object[] row : memberRepository.findMembershipEndDatesAfter(now)) {
+            schedule(MEMBERSHIP_EXPIRY, (Long) row[0], (LocalDateTime) row[1], membershipOffsets());
+        }
+        log.info("Reminder wheel loaded with {} pending reminders", wheel.size());
+    }
+
+    /**
+     * (Re)schedule the reminders of a class after it was created or its start time changed
+     * @param fitnessClass Saved class
+     */
+    public void scheduleClass(FitnessClass fitnessClass) {
+        Long classId = fitnessClass.getId();
+        LocalDateTime startTime = fitnessClass.getStartTime();
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                if (wheel != null) {
+                    schedule(CLASS_REMINDER, classId, startTime, classOffsets());
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop the pending reminders of a deleted class
+     * @param classId Fitness Class ID
+     */
+    public void cancelClass(Long classId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                cancel(new Reminder(CLASS_REMINDER, classId).key());
+            }
+        });
+    }
+
+    /**
+     * (Re)schedule the expiry reminders of a member's membership
+     * @param member Saved member
+     */
+    public void scheduleMembershipExpiry(Member member) {
+        Long memberId = member.getId();
+        LocalDateTime endDate = member.getMembershipEndDate();
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                if (wheel != null) {
+                    schedule(MEMBERSHIP_EXPIRY, memberId, endDate, membershipOffsets());
+                }
+            }
+        });
+    }
+
+    /**
+     * Advance the wheel and send the reminders that came due
+     */
+    @Scheduled(fixedDelayString = "${reminder.wheel.tick-ms:60000}")
+    public void fireDueReminders() {
+        List<Reminder> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advance(toEpochMillis(LocalDateTime.now()));
+            for (Reminder reminder : due) {
+                timersByTarget.computeIfPresent(reminder.key(), (key, timers) -> {
+                    timers.removeIf(timer -> timer.getTask() == reminder);
+                    return timers.isEmpty() ? null : timers;
+                });
+            }
+        }
+
+        for (Reminder reminder : due) {
+            try {
+                if (CLASS_REMINDER.equals(reminder.type)) {
+                    notificationService.sendClassReminders(reminder.targetId);
+                } else {
+                    notificationService.sendMembershipExpiryReminder(reminder.targetId);
+                }
+            } catch (ResourceNotFoundException e) {
+                log.debug("Skipping {} reminder, target no longer exists", reminder.key());
+            } catch (NotificationQueueFullException e) {
+                log.warn("Notification queue full, retrying {} reminder next tick", reminder.key());
+                retryNextTick(reminder);
+            } catch (Exception e) {
+                log.warn("Failed to send {} reminder: {}", reminder.key(), e.getMessage());
+            }
+        }
+    }
+
+    private void schedule(String type, Long targetId, LocalDateTime eventTime, List<Duration> offsets) {
+        Reminder template = new Reminder(type, targetId);
+        cancel(template.key());
+        if (eventTime == null) {
+            return;
+        }
+
+        long nowMs = toEpochMillis(LocalDateTime.now());
+        List<HierarchicalTimingWheel.Timer<Reminder>> timers = new ArrayList<>();
+        for (Duration offset : offsets) {
+            long deadline = toEpochMillis(eventTime.minus(offset));
+            // Reminders whose moment has already passed are not sent late
+            if (deadline > nowMs) {
+                timers.add(wheel.schedule(deadline, new Reminder(type, targetId)));
+            }
+        }
+        if (!timers.isEmpty()) {
+            timersByTarget.put(template.key(), timers);
+        }
+    }
+
+    private synchronized void retryNextTick(Reminder reminder) {
+        if (wheel != null) {
+            HierarchicalTimingWheel.Timer<Reminder> timer = wheel.schedule(toEpochMillis(LocalDateTime.now()) + tickMs, reminder);
+            timersByTarget.computeIfAbsent(reminder.key(), key -> new ArrayList<>()).add(timer);
+        }
+    }
+
+    private void cancel(String key) {
+        List<HierarchicalTimingWheel.Timer<Reminder>> timers = timersByTarget.remove(key);
+        if (timers != null) {
+            timers.forEach(HierarchicalTimingWheel.Timer::cancel);
+        }
+    }
+
+    private List<Duration> classOffsets() {
+        return classOffsetsMinutes.stream().map(Duration::ofMinutes).toList();
+    }
+
+    private List<Duration> membershipOffsets() {
+        return membershipOffsetsDays.stream().map(Duration::ofDays).toList();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
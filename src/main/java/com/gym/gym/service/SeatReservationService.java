@@ -0,0 +1,148 @@
+package com.gym.gym.service;
+
+import com.gym.gym.repository.FitnessClassRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atomic seat reservation for fitness classes.
+ *
+ * The database is the source of truth: a seat is taken by a single conditional UPDATE
+ * on fitness_classes, so two bookings can never both take the last seat and the row is
+ * locked only from that statement until the booking commits. In front of it sits a per-class count of remaining
+ * seats, which lets requests for a full class be rejected without touching the database.
+ *
+ * The shared count only ever holds committed state. A transaction that takes or gives back
+ * a seat re-reads the count while it holds the row lock, keeps it for itself (its own later
+ * reservations go by it) and publishes it once it commits; a rollback publishes nothing,
+ * so a seat taken by a booking that rolls back never shows as taken to anyone else. Every
+ * count carries a version drawn while the row lock is held, which follows commit order, so
+ * a commit callback that runs late cannot overwrite a newer count. Other changes (a new
+ * capacity, a deleted class) mark the count unknown so the next reservation asks the
+ * database again.
+ */
+@Service
+public class SeatReservationService {
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private ClassAvailabilityIndex classAvailabilityIndex;
+
+    /**
+     * Remaining seats as of a version; remaining is null when unknown
+     */
+    private record Seats(long version, Integer remaining) {
+        boolean isFull() {
+            return remaining != null && remaining == 0;
+        }
+
+        Seats newer(Seats other) {
+            return other.version > version ? other : this;
+        }
+    }
+
+    private final Map<Long, Seats> remainingSeats = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    // Key of the transaction-bound map of counts this transaction will publish on commit
+    private final Object pendingKey = new Object();
+
+    /**
+     * Take one seat in a class. Joins the caller's transaction, if any, so the seat is
+     * given back when the surrounding booking rolls back.
+     * @param classId Fitness Class ID
+     * @return true if a seat was taken, false if the class is full
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public boolean reserve(Long classId) {
+        Map<Long, Seats> pending = pending();
+        Seats known = pending.containsKey(classId) ? pending.get(classId) : remainingSeats.get(classId);
+        // Fast rejection: no database round-trip once the class is known to be full
+        if (known != null && known.isFull()) {
+            return false;
+        }
+
+        // Drawn before the UPDATE: any change it could have missed gets a later version
+        long observed = versions.incrementAndGet();
+        if (fitnessClassRepository.reserveSeat(classId) == 0) {
+            if (fitnessClassRepository.findRemainingSeats(classId) == null) {
+                throw new RuntimeException("Fitness class not found");
+            }
+            pending.merge(classId, new Seats(observed, 0), Seats::newer);
+            return false;
+        }
+        refresh(pending, classId);
+        classAvailabilityIndex.adjustEnrollment(classId, 1);
+        return true;
+    }
+
+    /**
+     * Give back one seat in a class
+     * @param classId Fitness Class ID
+     * @return true if a seat was released, false if the class had no enrollments
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public boolean release(Long classId) {
+        if (fitnessClassRepository.releaseSeat(classId) == 0) {
+            return false;
+        }
+
+        refresh(pending(), classId);
+        classAvailabilityIndex.adjustEnrollment(classId, -1);
+        return true;
+    }
+
+    /**
+     * Forget the seat count for a class, e.g. after its capacity changed or it was
+     * deleted; again once the surrounding transaction ends, so that counts published
+     * meanwhile, which may be based on the old capacity, are superseded too
+     * @param classId Fitness Class ID
+     */
+    public void evict(Long classId) {
+        forget(classId);
+        TransactionHooks.afterCompletion(() -> forget(classId));
+    }
+
+    private void forget(Long classId) {
+        remainingSeats.merge(classId, new Seats(versions.incrementAndGet(), null), Seats::newer);
+    }
+
+    /**
+     * Record the remaining seats of a class whose row this transaction has just updated.
+     * The row stays locked until the transaction ends, so no other transaction can change
+     * this class's count, or draw a version for it, until this one has committed.
+     */
+    private void refresh(Map<Long, Seats> pending, Long classId) {
+        Integer remaining = fitnessClassRepository.findRemainingSeats(classId);
+        if (remaining != null) {
+            pending.merge(classId, new Seats(versions.incrementAndGet(), Math.max(0, remaining)), Seats::newer);
+        }
+    }
+
+    /**
+     * Counts recorded by the current transaction, published to the shared map once it commits
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Seats> pending() {
+        Map<Long, Seats> pending = (Map<Long, Seats>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            Map<Long, Seats> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, created);
+            TransactionHooks.afterCommit(() -> created.forEach((classId, seats) -> remainingSeats.merge(classId, seats, Seats::newer)));
+            TransactionHooks.afterCompletion(() -> TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey));
+            pending = created;
+        }
+        return pending;
+    }
+}
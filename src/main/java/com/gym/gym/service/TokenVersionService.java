@@ -0,0 +1,73 @@
+package com.gym.gym.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gym.gym.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Per-user token versions for stateless JWT authorization.
+ *
+ * Tokens carry the user's token version; a token is accepted only while that version is
+ * still current. Current versions are held in a bounded Caffeine cache loaded from the user
+ * table, so the JWT filter can authorize most requests without a database round-trip.
+ * Bumping a user's version (password, username, role or status change, deletion) revokes
+ * every token issued to them; this instance drops its entry once the bump commits, and the
+ * short TTL bounds how long other instances keep accepting the revoked tokens.
+ */
+@Service
+public class TokenVersionService {
+
+    // Cached for users that no longer exist; matches no token
+    private static final int REVOKED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionService(@Value("${jwt.token-version-cache.ttl-ms:30000}") long ttlMs,
+                               @Value("${jwt.token-version-cache.max-size:10000}") long maxSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Check whether a token's version is still current for its user
+     * @param userId User ID from the token
+     * @param tokenVersion Token version from the token
+     * @return true if the token has not been revoked
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId, id -> {
+            Integer version = userRepository.findTokenVersionById(id);
+            return version != null ? version : REVOKED;
+        });
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    /**
+     * Revoke every token issued to a user so far. Call it after saving the change that
+     * caused it, in the same transaction: the revocation then commits or rolls back with
+     * the change, and the change is flushed before the version is bumped.
+     * @param userId User ID
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void revoke(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userRepository.incrementTokenVersion(userId);
+        // Reload from the committed row next time, not from a value read mid-transaction
+        TransactionHooks.afterCompletion(() -> versions.invalidate(userId));
+    }
+}
@@ -5,18 +5,24 @@ import com.gym.gym.model.User;
 import com.gym.gym.repository.TrainerRepository;
 import com.gym.gym.repository.UserRepository;
 import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.TrainerSpecifications;
 import com.gym.gym.exception.ResourceNotFoundException;
 import com.gym.gym.dto.TrainerSearchDTO;
 import com.gym.gym.exception.DuplicateResourceException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder; // <--- ADD THIS IMPORT
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.ArrayList;
 import com.gym.gym.model.FitnessClass;
@@ -29,6 +35,15 @@ public class TrainerService {
 
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private ClassScheduleIndex classScheduleIndex;
+
+    @Autowired
+    private ClassAvailabilityIndex classAvailabilityIndex;
     @Autowired // <--- ADD THIS AUTOWIRED ANNOTATION FOR PasswordEncoder
     private PasswordEncoder passwordEncoder;
 
@@ -91,6 +106,16 @@ public class TrainerService {
      * @return Trainer if found
      */
     public Trainer getTrainerById(Long id) {
+        return referenceDataCache.findTrainer(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found"));
+    }
+
+    /**
+     * Load a trainer to modify (the cached copy is shared and must not be changed)
+     * @param id Trainer ID
+     * @return Managed trainer
+     */
+    private Trainer loadTrainer(Long id) {
         return trainerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Trainer not found"));
     }
@@ -102,7 +127,7 @@ public class TrainerService {
      * @return Updated trainer
      */
     public Trainer updateTrainer(Long id, Trainer updatedTrainer) {
-        Trainer existingTrainer = getTrainerById(id);
+        Trainer existingTrainer = loadTrainer(id);
 
         // Update fields
         existingTrainer.setDateOfBirth(updatedTrainer.getDateOfBirth());
@@ -119,7 +144,9 @@ public class TrainerService {
         existingTrainer.setAvailable(updatedTrainer.getAvailable());
         existingTrainer.setBio(updatedTrainer.getBio());
 
-        return trainerRepository.save(existingTrainer);
+        Trainer saved = trainerRepository.save(existingTrainer);
+        referenceDataCache.evictTrainer(id);
+        return saved;
     }
 
 /**
@@ -132,17 +159,17 @@ public void deleteTrainer(Long id) {
     Trainer trainer = trainerRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with id: " + id));
 
-    // Option 1: Prevent deletion if classes have enrollments
-    for (FitnessClass fitnessClass : trainer.getFitnessClasses()) {
-        if (fitnessClass.getEnrollments() != null && !fitnessClass.getEnrollments().isEmpty()) {
-            throw new IllegalStateException("Cannot delete trainer because one or more associated fitness classes have active enrollments. Please delete classes/enrollments first.");
-        }
-        // You might also want to delete equipment associated with the class here
-        // if not handled by CascadeType.ALL or orphanRemoval
+    // Option 1: Prevent deletion if classes have enrollments (one query, no class/enrollment loading)
+    if (fitnessClassRepository.existsEnrollmentByTrainerId(id)) {
+        throw new IllegalStateException("Cannot delete trainer because one or more associated fitness classes have active enrollments. Please delete classes/enrollments first.");
     }
 
     // If all checks pass, proceed with deletion
     trainerRepository.delete(trainer);
+    referenceDataCache.evictTrainer(id);
+    // The trainer's classes go with it by cascade
+    classScheduleIndex.removeTrainer(id);
+    classAvailabilityIndex.removeTrainer(id);
 }
     /**
      * Get available trainers
@@ -181,9 +208,11 @@ public void deleteTrainer(Long id) {
      * @return Updated trainer
      */
     public Trainer updateAvailability(Long id, boolean available) {
-        Trainer trainer = getTrainerById(id);
+        Trainer trainer = loadTrainer(id);
         trainer.setAvailable(available);
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        referenceDataCache.evictTrainer(id);
+        return saved;
     }
 
     /**
@@ -193,7 +222,7 @@ public void deleteTrainer(Long id) {
      * @return Updated trainer
      */
     public Trainer addSpecialization(Long id, String specialization) {
-        Trainer trainer = getTrainerById(id);
+        Trainer trainer = loadTrainer(id);
         Set<String> specializations = trainer.getSpecializations();
         if (specializations == null) { // Handle null set if not initialized by Lombok or constructor
             trainer.setSpecializations(Set.of(specialization));
@@ -201,7 +230,9 @@ public void deleteTrainer(Long id) {
             specializations.add(specialization);
             trainer.setSpecializations(specializations);
         }
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        referenceDataCache.evictTrainer(id);
+        return saved;
     }
 
     /**
@@ -211,13 +242,15 @@ public void deleteTrainer(Long id) {
      * @return Updated trainer
      */
     public Trainer removeSpecialization(Long id, String specialization) {
-        Trainer trainer = getTrainerById(id);
+        Trainer trainer = loadTrainer(id);
         Set<String> specializations = trainer.getSpecializations();
         if (specializations != null) {
             specializations.remove(specialization);
             trainer.setSpecializations(specializations);
         }
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        referenceDataCache.evictTrainer(id);
+        return saved;
     }
 
     /**
@@ -227,9 +260,11 @@ public void deleteTrainer(Long id) {
      * @return Updated trainer
      */
     public Trainer updateHourlyRate(Long id, double hourlyRate) {
-        Trainer trainer = getTrainerById(id);
+        Trainer trainer = loadTrainer(id);
         trainer.setHourlyRate(hourlyRate);
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        referenceDataCache.evictTrainer(id);
+        return saved;
     }
 
     /**
@@ -239,37 +274,35 @@ public void deleteTrainer(Long id) {
      * @param maxHourlyRate Optional maximum hourly rate filter
      * @return List of matching trainers
      */
-    @Transactional(readOnly = true) // Ensure this method is transactional for session management
+    @Transactional(readOnly = true)
     public List<TrainerSearchDTO> searchTrainers(String specialization, Boolean available, Double maxHourlyRate) {
-        // Option 1: Fetch all and filter in memory (if dataset is small, or for initial testing)
-        // As observed in your logs, your current implementation might be doing this.
-        List<Trainer> allTrainers = trainerRepository.findAll(); // This fetches basic Trainer data
-
-        List<TrainerSearchDTO> results = new ArrayList<>();
-        for (Trainer trainer : allTrainers) {
-            // Access lazy collections *here* while the session is open
-            // For example, when checking 'specialization': trainer.getSpecializations().contains(specialization)
-            // This will trigger the N+1 query for specializations if not already fetched.
-
-            boolean matchesSpecialization = specialization == null || (trainer.getSpecializations() != null && trainer.getSpecializations().contains(specialization));
-            boolean matchesAvailability = available == null || (trainer.getAvailable() != null && trainer.getAvailable().equals(available));
-            boolean matchesHourlyRate = maxHourlyRate == null || trainer.getHourlyRate() <= maxHourlyRate;
-
-            if (matchesSpecialization && matchesAvailability && matchesHourlyRate) {
-                results.add(new TrainerSearchDTO(trainer)); // Construct DTO, which initializes collections
+        return searchTrainers(specialization, available, maxHourlyRate, Pageable.unpaged()).getContent();
+    }
+
+    /**
+     * Search trainers by multiple criteria, filtered and paged in the database
+     * @param specialization Optional specialization filter
+     * @param available Optional availability filter
+     * @param maxHourlyRate Optional maximum hourly rate filter
+     * @param pageable Page to return
+     * @return Page of matching trainers
+     */
+    @Transactional(readOnly = true)
+    public Page<TrainerSearchDTO> searchTrainers(String specialization, Boolean available, Double maxHourlyRate,
+                                                 Pageable pageable) {
+        Page<Trainer> trainers = trainerRepository.findAll(
+                TrainerSpecifications.matching(specialization, available, maxHourlyRate), pageable);
+
+        // One query for the specializations of the whole page
+        Map<Long, Set<String>> specializations = new HashMap<>();
+        List<Long> ids = trainers.map(Trainer::getId).getContent();
+        if (!ids.isEmpty()) {
+            for (Object[] row : trainerRepository.findSpecializationsByTrainerIds(ids)) {
+                specializations.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
             }
         }
-        return results;
-
-        /*
-        // Option 2: Implement more efficient database queries using Spring Data JPA
-        // (Recommended for larger datasets and better performance)
-        // You would need to add custom methods to your TrainerRepository, e.g.:
-        return trainerRepository.findByFilters(specialization, available, maxHourlyRate)
-                                .stream()
-                                .map(TrainerSearchDTO::new) // Uses the DTO constructor
-                                .collect(Collectors.toList());
-        */
+        return trainers.map(trainer -> new TrainerSearchDTO(trainer,
+                specializations.getOrDefault(trainer.getId(), new HashSet<>())));
     }
 
     /**
@@ -278,8 +311,7 @@ public void deleteTrainer(Long id) {
      * @return List of fitness classes for the trainer
      */
     public List<FitnessClass> getFitnessClasses(Long trainerId) {
-        Trainer trainer = getTrainerById(trainerId);
-        // Assuming getFitnessClasses() returns a List<FitnessClass> or Set<FitnessClass>
-        return new ArrayList<>(trainer.getFitnessClasses());
+        getTrainerById(trainerId);
+        return fitnessClassRepository.findByTrainerId(trainerId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.gym.gym.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of UserDetails for the JWT filter, so authenticated requests do
+ * not load the user from the database every time. Services that change a user's password,
+ * role, enabled flag or username evict the entry once the change commits; the TTL bounds staleness for anything else.
+ *
+ * The login path keeps using CustomUserDetailsService directly: Spring Security erases the
+ * credentials of the UserDetails it authenticates, which would corrupt a shared cached copy.
+ */
+@Service
+public class UserDetailsCacheService {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCacheService(@Value("${security.user-cache.ttl-ms:300000}") long ttlMs,
+                                   @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Get a user's details, loading them on a miss
+     * @param username Username
+     * @return UserDetails
+     */
+    public UserDetails get(String username) {
+        return cache.get(username, customUserDetailsService::loadUserByUsername);
+    }
+
+    /**
+     * Drop a user's cached details after their account changed. Inside a transaction the
+     * entry is dropped once it commits, so a request running meanwhile cannot cache the old
+     * row again.
+     * @param username Username
+     */
+    public void evict(String username) {
+        if (username != null) {
+            TransactionHooks.afterCommit(() -> cache.invalidate(username));
+        }
+    }
+}
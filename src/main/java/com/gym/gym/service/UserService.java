@@ -1,15 +1,23 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
+import com.gym.gym.model.Member;
 import com.gym.gym.model.User;
 import com.gym.gym.model.Role;
+import com.gym.gym.repository.MemberRepository;
+import com.gym.gym.repository.TrainerRepository;
 import com.gym.gym.repository.UserRepository;
 import com.gym.gym.exception.ResourceNotFoundException;
 import com.gym.gym.dto.UpdateUserDTO;
 import com.gym.gym.exception.DuplicateResourceException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +31,24 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCacheService userDetailsCacheService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private ClassAvailabilityIndex classAvailabilityIndex;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
     /**
      * Create a new user
      * @param user User details
@@ -51,11 +77,21 @@ public class UserService {
     }
 
     /**
-     * Get all users
-     * @return List of all users
+     * Get users one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of users with the token for the next page
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getAllUsers(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<User> rows = PageCursor.SORT_NEWEST.equals(order)
+                ? userRepository.findByIdLessThanOrderByIdDesc(after != null ? after.getId() : Long.MAX_VALUE, limit)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        return CursorPage.of(rows, pageSize, user -> PageCursor.encode(order, null, user.getId()));
     }
 
     /**
@@ -74,6 +110,7 @@ public class UserService {
      * @param updatedUser Updated user details
      * @return Updated user
      */
+    @Transactional
     public User updateUser(Long id, User updatedUser) {
         User existingUser = getUserById(id);
 
@@ -90,6 +127,10 @@ public class UserService {
         }
 
         // Update fields
+        String oldUsername = existingUser.getUsername();
+        String oldName = existingUser.getFirstName() + " " + existingUser.getLastName();
+        boolean credentialsChanged = !oldUsername.equals(updatedUser.getUsername())
+                || existingUser.isEnabled() != updatedUser.isEnabled();
         existingUser.setUsername(updatedUser.getUsername());
         existingUser.setFirstName(updatedUser.getFirstName());
         existingUser.setLastName(updatedUser.getLastName());
@@ -99,18 +140,46 @@ public class UserService {
         // Update password only if provided
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            credentialsChanged = true;
         }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        // Name and email edits leave issued tokens valid; sign-in details and access do not
+        if (credentialsChanged) {
+            tokenVersionService.revoke(saved.getId());
+            userDetailsCacheService.evict(oldUsername);
+        }
+        if (!oldName.equals(saved.getFirstName() + " " + saved.getLastName())) {
+            refreshTrainerName(saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Class lists show the trainer's name; pass a rename on to the availability index
+     */
+    private void refreshTrainerName(User user) {
+        trainerRepository.findIdByUserId(user.getId()).ifPresent(trainerId ->
+                classAvailabilityIndex.renameTrainer(trainerId, user.getFirstName() + " " + user.getLastName()));
     }
 
     /**
-     * Delete user
+     * Delete user, together with their member profile if they have one
      * @param id User ID
      */
+    @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
-        userRepository.delete(user);
+        Optional<Member> member = memberRepository.findByUserId(id);
+        if (member.isPresent()) {
+            // Removes the user as well (cascade)
+            memberRepository.delete(member.get());
+            dashboardMetricsService.onMemberDeleted(member.get());
+        } else {
+            userRepository.delete(user);
+        }
+        userDetailsCacheService.evict(user.getUsername());
+        tokenVersionService.revoke(user.getId());
     }
 
     /**
@@ -157,10 +226,14 @@ public class UserService {
      * @param newPassword New password
      * @return Updated user
      */
+    @Transactional
     public User updatePassword(Long id, String newPassword) {
         User user = getUserById(id);
         user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -169,10 +242,14 @@ public class UserService {
      * @param role New role
      * @return Updated user
      */
+    @Transactional
     public User updateRole(Long id, Role role) {
         User user = getUserById(id);
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -181,10 +258,14 @@ public class UserService {
      * @param enabled Enabled status
      * @return Updated user
      */
+    @Transactional
     public User updateEnabledStatus(Long id, boolean enabled) {
         User user = getUserById(id);
         user.setEnabled(enabled);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionService.revoke(saved.getId());
+        userDetailsCacheService.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -234,10 +315,12 @@ public class UserService {
                 .filter(user -> enabled == null || user.isEnabled() == enabled)
                 .toList();
     }
+    @Transactional
     public void updateUser(Long id, UpdateUserDTO dto) {
     User user = userRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+    String oldUsername = user.getUsername();
     if (dto.getUsername() != null) user.setUsername(dto.getUsername());
     if (dto.getFirstName() != null) user.setFirstName(dto.getFirstName());
     if (dto.getLastName() != null) user.setLastName(dto.getLastName());
@@ -247,6 +330,11 @@ public class UserService {
     if (dto.getRole() != null) user.setRole(dto.getRole());
 
     userRepository.save(user);
+    tokenVersionService.revoke(user.getId());
+    userDetailsCacheService.evict(oldUsername);
+    if (dto.getFirstName() != null || dto.getLastName() != null) {
+        refreshTrainerName(user);
+    }
 }
 
 
@@ -0,0 +1,170 @@
+package com.gym.gym.service;
+
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.repository.ClassBookingRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-class FIFO waitlist for full classes, in order of booking date (then booking ID).
+ *
+ * Waiting members are stored as WAITLISTED rows in class_bookings (indexed by class,
+ * status and booking date); each class also has an in-memory queue of their bookings,
+ * loaded from the table on first use, so promotion does not have to query for the next
+ * waiter. A booking joins a loaded queue once it commits, in its place by booking date,
+ * whatever the commit order. The table stays the source of truth: entries that are no
+ * longer waiting are skipped, and a class's queue is dropped and reloaded whenever a
+ * transaction that touched it rolls back.
+ */
+@Service
+public class WaitlistService {
+
+    static final String WAITLISTED = "WAITLISTED";
+
+    @Autowired
+    private ClassBookingRepository classBookingRepository;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final LocalDateTime bookingDate;
+        final long bookingId;
+
+        Waiter(ClassBooking booking) {
+            this.bookingDate = booking.getBookingDate() != null ? booking.getBookingDate() : LocalDateTime.MIN;
+            this.bookingId = booking.getId();
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byDate = bookingDate.compareTo(other.bookingDate);
+            return byDate != 0 ? byDate : Long.compare(bookingId, other.bookingId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Waiter && compareTo((Waiter) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return bookingDate.hashCode() * 31 + Long.hashCode(bookingId);
+        }
+    }
+
+    private final Map<Long, NavigableSet<Waiter>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Add a saved WAITLISTED booking to its class's queue once it commits
+     * @param booking Waitlisted booking
+     */
+    public void enqueue(ClassBooking booking) {
+        Long classId = booking.getFitnessClass().getId();
+        Waiter waiter = new Waiter(booking);
+        // A queue not loaded yet will read the committed row from the table; one being loaded
+        // right now is waited for, so the booking cannot fall between the load and this
+        TransactionHooks.afterCommit(() -> queues.computeIfPresent(classId, (id, queue) -> {
+            queue.add(waiter);
+            return queue;
+        }));
+    }
+
+    /**
+     * Remove a booking from its class's queue (e.g. the member cancelled while waiting)
+     * @param booking Booking leaving the waitlist
+     */
+    public void remove(ClassBooking booking) {
+        Long classId = booking.getFitnessClass().getId();
+        NavigableSet<Waiter> queue = queues.get(classId);
+        if (queue != null) {
+            // By ID: the booking date read back from the table may be rounded
+            queue.removeIf(waiter -> waiter.bookingId == booking.getId());
+            evictOnRollback(classId);
+        }
+    }
+
+    /**
+     * Give the next waiting member a seat, if the class has room. Must run in the
+     * transaction that freed the seat so promotion commits or rolls back with it.
+     * @param classId Fitness Class ID
+     * @return Promoted booking, or null if nobody was waiting or the class is still full
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ClassBooking promoteNext(Long classId) {
+        NavigableSet<Waiter> queue = queue(classId);
+        evictOnRollback(classId);
+
+        // Rows this transaction cannot see yet (committed after its snapshot); they keep their place
+        List<Waiter> notVisible = new ArrayList<>();
+        try {
+            Waiter waiter;
+            while ((waiter = queue.pollFirst()) != null) {
+                ClassBooking booking = classBookingRepository.findForUpdateById(waiter.bookingId).orElse(null);
+                if (booking == null) {
+                    notVisible.add(waiter);
+                    continue;
+                }
+                if (!WAITLISTED.equals(booking.getStatus())) {
+                    continue;
+                }
+                if (!seatReservationService.reserve(classId)) {
+                    queue.add(waiter);
+                    return null;
+                }
+                booking.setStatus("CONFIRMED");
+                return classBookingRepository.save(booking);
+            }
+            return null;
+        } finally {
+            queue.addAll(notVisible);
+        }
+    }
+
+    /**
+     * Get the waiting bookings of a class in promotion order
+     * @param classId Fitness Class ID
+     * @return Waitlisted bookings, first in line first
+     */
+    public List<ClassBooking> getWaitlist(Long classId) {
+        return classBookingRepository.findByFitnessClassIdAndStatusOrderByBookingDateAscIdAsc(classId, WAITLISTED);
+    }
+
+    /**
+     * Get a booking's position on its class's waitlist
+     * @param booking Waitlisted booking
+     * @return 1-based position, or 0 if the booking is not waiting
+     */
+    public int getPosition(ClassBooking booking) {
+        if (!WAITLISTED.equals(booking.getStatus())) {
+            return 0;
+        }
+        return (int) classBookingRepository.countAhead(booking.getFitnessClass().getId(), WAITLISTED,
+                booking.getBookingDate(), booking.getId()) + 1;
+    }
+
+    private NavigableSet<Waiter> queue(Long classId) {
+        return queues.computeIfAbsent(classId, id -> {
+            NavigableSet<Waiter> queue = new ConcurrentSkipListSet<>();
+            for (ClassBooking booking : classBookingRepository.findByFitnessClassIdAndStatusOrderByBookingDateAscIdAsc(id, WAITLISTED)) {
+                queue.add(new Waiter(booking));
+            }
+            return queue;
+        });
+    }
+
+    private void evictOnRollback(Long classId) {
+        TransactionHooks.afterRollback(() -> queues.remove(classId));
+    }
+}
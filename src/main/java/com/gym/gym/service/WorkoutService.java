@@ -1,11 +1,15 @@
 package com.gym.gym.service;
 
+import com.gym.gym.dto.CursorPage;
+import com.gym.gym.dto.PageCursor;
 import com.gym.gym.model.Workout;
 import com.gym.gym.repository.WorkoutRepository;
 
 // Ensure the correct package path for WorkoutRepository
 // Removed unused and conflicting import
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.util.List;
@@ -24,8 +28,27 @@ public class WorkoutService {
         return workoutRepository.save(workout);
     }
 
-    public List<Workout> getAllWorkouts() {
-        return workoutRepository.findAll();
+    /**
+     * Get workouts one keyset page at a time
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Page size (default 20, at most 100)
+     * @param sort "id" (oldest first, the default) or "newest"
+     * @return Page of workouts with the token for the next page
+     */
+    public CursorPage<Workout> getAllWorkouts(String cursor, Integer size, String sort) {
+        String order = PageCursor.sortOrDefault(sort);
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor, order);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Workout> rows;
+        if (PageCursor.SORT_NEWEST.equals(order)) {
+            rows = after == null
+                    ? workoutRepository.findAllByOrderByDateDescIdDesc(limit)
+                    : workoutRepository.findNewestBefore(after.keyAsDate(), after.getId(), limit);
+        } else {
+            rows = workoutRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after.getId() : 0L, limit);
+        }
+        return CursorPage.of(rows, pageSize, workout -> PageCursor.encode(order, workout.getDate(), workout.getId()));
     }
 
     public List<Workout> getWorkoutsByDate(LocalDate date) {
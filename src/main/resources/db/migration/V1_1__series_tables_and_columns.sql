@@ -0,0 +1,59 @@
+-- Tables, columns and indexes that the application needed before schema migrations were
+-- introduced, but that the V1 baseline schema does not have. Runs on baselined databases
+-- as well as on fresh ones, so it only adds.
+
+-- Per-user token version signed into every JWT; bumping it revokes the user's tokens
+ALTER TABLE `user` ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Materialized dashboard counters (DashboardMetricsService)
+CREATE TABLE dashboard_snapshot (
+    metric_key   VARCHAR(100) NOT NULL,
+    metric_value DOUBLE       NOT NULL,
+    updated_at   DATETIME(6),
+    PRIMARY KEY (metric_key)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Bulk notification jobs and their email outbox (EmailOutboxService)
+CREATE TABLE notification_jobs (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    type         VARCHAR(50),
+    status       VARCHAR(20),
+    total_count  INTEGER      NOT NULL,
+    sent_count   INTEGER      NOT NULL,
+    failed_count INTEGER      NOT NULL,
+    error        VARCHAR(500),
+    created_at   DATETIME(6),
+    completed_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE email_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    job_id          BIGINT,
+    recipient       VARCHAR(100),
+    subject         VARCHAR(200),
+    body            TEXT,
+    status          VARCHAR(20),
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at DATETIME(6),
+    last_error      VARCHAR(500),
+    created_at      DATETIME(6),
+    sent_at         DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_status_next_attempt (status, next_attempt_at),
+    INDEX idx_outbox_job (job_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Trainer search (available, hourly rate range, specialization)
+CREATE INDEX idx_trainer_available_rate ON trainers (available, hourly_rate);
+CREATE INDEX idx_trainer_specialization ON trainer_specializations (specialization, trainer_id);
+
+-- Waitlist: WAITLISTED bookings of a class in order
+CREATE INDEX idx_booking_class_status ON class_bookings (fitness_class_id, status);
+
+-- Keyset pagination and streaming export by date
+CREATE INDEX idx_booking_date ON class_bookings (booking_date, id);
+CREATE INDEX idx_payment_created ON payments (created_at, id);
+CREATE INDEX idx_progress_date ON fitness_progress (date, id);
+CREATE INDEX idx_workout_date ON workouts (date, id);
+CREATE INDEX idx_contact_submitted ON contact_messages (submission_date, id);
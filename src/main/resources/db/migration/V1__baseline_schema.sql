@@ -0,0 +1,177 @@
+-- Baseline schema: what ddl-auto=update generated from the JPA mappings before schema
+-- migrations were introduced, and nothing newer. Databases that already have these tables
+-- are baselined at this version (spring.flyway.baseline-on-migrate) and only run the later
+-- migrations, so later schema changes must never be folded in here.
+
+CREATE TABLE `user` (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(50)  NOT NULL,
+    password      VARCHAR(100) NOT NULL,
+    first_name    VARCHAR(50)  NOT NULL,
+    last_name     VARCHAR(50)  NOT NULL,
+    email         VARCHAR(100) NOT NULL,
+    role          ENUM('ROLE_ADMIN','ROLE_MEMBER','ROLE_TRAINER'),
+    enabled       BIT          NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE members (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id               BIGINT       NOT NULL,
+    date_of_birth         DATE         NOT NULL,
+    gender                ENUM('MALE','FEMALE','OTHER','PREFER_NOT_TO_SAY') NOT NULL,
+    phone_number          VARCHAR(20),
+    address               VARCHAR(200),
+    membership_start_date DATETIME(6)  NOT NULL,
+    membership_end_date   DATETIME(6),
+    membership_type       ENUM('BASIC','PREMIUM','VIP','STUDENT','SENIOR') NOT NULL,
+    active                BIT          NOT NULL,
+    medical_conditions    VARCHAR(500),
+    fitness_goals         VARCHAR(500),
+    name                  VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_member_user UNIQUE (user_id),
+    CONSTRAINT fk_member_user FOREIGN KEY (user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE admins (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT,
+    admin_code   VARCHAR(255) NOT NULL,
+    department   VARCHAR(255),
+    access_level VARCHAR(255),
+    is_active    BIT          NOT NULL,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admin_code UNIQUE (admin_code),
+    CONSTRAINT uk_admin_user UNIQUE (user_id),
+    CONSTRAINT fk_admin_user FOREIGN KEY (user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trainers (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    user_id        BIGINT        NOT NULL,
+    date_of_birth  DATE          NOT NULL,
+    gender         ENUM('MALE','FEMALE','OTHER','PREFER_NOT_TO_SAY') NOT NULL,
+    phone_number   VARCHAR(20),
+    address        VARCHAR(200),
+    certifications VARCHAR(1000),
+    experience     VARCHAR(1000),
+    hourly_rate    DOUBLE        NOT NULL,
+    available      BIT,
+    bio            VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_trainer_user UNIQUE (user_id),
+    CONSTRAINT fk_trainer_user FOREIGN KEY (user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE trainer_specializations (
+    trainer_id     BIGINT NOT NULL,
+    specialization VARCHAR(255),
+    CONSTRAINT fk_specialization_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE fitness_classes (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    name               VARCHAR(100) NOT NULL,
+    description        VARCHAR(500) NOT NULL,
+    start_time         DATETIME(6)  NOT NULL,
+    end_time           DATETIME(6)  NOT NULL,
+    max_capacity       INTEGER      NOT NULL,
+    current_enrollment INTEGER      NOT NULL,
+    trainer_id         BIGINT       NOT NULL,
+    room               VARCHAR(50)  NOT NULL,
+    price              DOUBLE       NOT NULL,
+    level              ENUM('BEGINNER','INTERMEDIATE','ADVANCED','ALL_LEVELS') NOT NULL,
+    active             BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_class_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE class_equipment (
+    class_id  BIGINT NOT NULL,
+    equipment VARCHAR(255),
+    CONSTRAINT fk_equipment_class FOREIGN KEY (class_id) REFERENCES fitness_classes (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE class_bookings (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    fitness_class_id BIGINT       NOT NULL,
+    member_id        BIGINT       NOT NULL,
+    booking_date     DATETIME(6),
+    status           VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_booking_class FOREIGN KEY (fitness_class_id) REFERENCES fitness_classes (id),
+    CONSTRAINT fk_booking_member FOREIGN KEY (member_id) REFERENCES members (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE enrollments (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    member_id        BIGINT,
+    fitness_class_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_enrollment_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_enrollment_class FOREIGN KEY (fitness_class_id) REFERENCES fitness_classes (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE payments (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    member_id        BIGINT       NOT NULL,
+    fitness_class_id BIGINT       NOT NULL,
+    class_booking_id BIGINT       NOT NULL,
+    amount           DOUBLE       NOT NULL,
+    status           VARCHAR(50),
+    payment_method   VARCHAR(100),
+    notes            VARCHAR(500),
+    booking_date     DATETIME(6),
+    payment_date     DATETIME(6),
+    created_at       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_payment_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_payment_class FOREIGN KEY (fitness_class_id) REFERENCES fitness_classes (id),
+    CONSTRAINT fk_payment_booking FOREIGN KEY (class_booking_id) REFERENCES class_bookings (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE fitness_progress (
+    id                  BIGINT        NOT NULL AUTO_INCREMENT,
+    member_id           BIGINT        NOT NULL,
+    date                DATE          NOT NULL,
+    weight              DOUBLE        NOT NULL,
+    body_fat_percentage DOUBLE        NOT NULL,
+    muscle_mass         DOUBLE        NOT NULL,
+    chest_measurement   DOUBLE        NOT NULL,
+    waist_measurement   DOUBLE        NOT NULL,
+    hip_measurement     DOUBLE        NOT NULL,
+    bicep_measurement   DOUBLE        NOT NULL,
+    thigh_measurement   DOUBLE        NOT NULL,
+    notes               VARCHAR(1000),
+    achievements        VARCHAR(500),
+    challenges          VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_progress_member FOREIGN KEY (member_id) REFERENCES members (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE workouts (
+    id       BIGINT        NOT NULL AUTO_INCREMENT,
+    type     VARCHAR(255)  NOT NULL,
+    date     DATE          NOT NULL,
+    duration INTEGER       NOT NULL,
+    calories INTEGER       NOT NULL,
+    notes    VARCHAR(1000),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE contact_messages (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    name            VARCHAR(100)  NOT NULL,
+    email           VARCHAR(100)  NOT NULL,
+    subject         VARCHAR(200)  NOT NULL,
+    message         VARCHAR(2000) NOT NULL,
+    submission_date DATETIME(6),
+    status          ENUM('NEW','READ','IN_PROGRESS','RESPONDED','ARCHIVED','CLOSED'),
+    response        VARCHAR(255),
+    response_date   DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
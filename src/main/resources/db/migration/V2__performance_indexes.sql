@@ -0,0 +1,52 @@
+-- Indexes for the hot predicates of the repository queries. InnoDB appends the primary key
+-- to every secondary index, so "... AND id < ?" and "ORDER BY id" on an equality prefix are
+-- served without listing id. Each index is mirrored in the entity's @Table(indexes = ...).
+
+-- existsByMemberIdAndFitnessClassIdAndStatus(In), findByMemberId
+CREATE INDEX idx_booking_member_class_status ON class_bookings (member_id, fitness_class_id, status);
+-- findByStatus, countByStatusGroupedByClassLevel (covers the join to fitness_classes)
+CREATE INDEX idx_booking_status_class ON class_bookings (status, fitness_class_id);
+
+-- countByStatus, countAndSumByStatus, sumAmountByStatusAndPaymentDate*, findByStatusAndPaymentDateBefore;
+-- amount makes the revenue sums index-only
+CREATE INDEX idx_payment_status_date ON payments (status, payment_date, amount);
+-- findByMember_IdOrderByCreatedAtDesc, findByMember_Id, findByMember_IdAndStatus
+CREATE INDEX idx_payment_member_created ON payments (member_id, created_at);
+-- findByMember_IdAndPaymentDateBetween
+CREATE INDEX idx_payment_member_date ON payments (member_id, payment_date);
+-- findByPaymentDateBetween
+CREATE INDEX idx_payment_date ON payments (payment_date);
+
+-- findRecipientsWithMembershipEndingBefore, findMembershipEndDatesAfter
+CREATE INDEX idx_member_end_date ON members (membership_end_date);
+-- countByMembershipStartDateAfter/Before
+CREATE INDEX idx_member_start_date ON members (membership_start_date);
+-- findByMembershipType(AndActiveTrue), findRecipientsByMembershipType
+CREATE INDEX idx_member_type_active ON members (membership_type, active);
+-- findByActiveTrue, countByActiveTrue, findRecipientsByActive
+CREATE INDEX idx_member_active ON members (active);
+
+-- findByUsername, existsByUsername
+CREATE INDEX idx_user_username ON `user` (username);
+-- findByEmail, existsByEmail
+CREATE INDEX idx_user_email ON `user` (email);
+
+-- findByStatusOrderBySubmissionDateDesc, countByStatus
+CREATE INDEX idx_contact_status_submitted ON contact_messages (status, submission_date);
+-- findByEmail
+CREATE INDEX idx_contact_email ON contact_messages (email);
+
+-- findByStartTimeAfter, findStartTimesAfter
+CREATE INDEX idx_class_start_time ON fitness_classes (start_time);
+-- findByLevel
+CREATE INDEX idx_class_level ON fitness_classes (level);
+-- findByRoom
+CREATE INDEX idx_class_room ON fitness_classes (room);
+-- findByRequiredEquipmentContaining
+CREATE INDEX idx_class_equipment ON class_equipment (equipment, class_id);
+
+-- findByMember_IdAndDateBetween, findByMember_IdOrderByDateDesc
+CREATE INDEX idx_progress_member_date ON fitness_progress (member_id, date);
+
+-- findByType
+CREATE INDEX idx_workout_type_date ON workouts (type, date);
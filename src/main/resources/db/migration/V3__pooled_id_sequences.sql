@@ -0,0 +1,34 @@
+-- Pooled ID generation (allocationSize 50) for the bulk-inserted tables, so Hibernate can
+-- batch their INSERTs; identity columns force one round-trip per row. MySQL has no
+-- sequences, so Hibernate keeps each one as a single-row table. The pooled optimizer hands
+-- out next_val - 49 .. next_val, hence each starts at the current max id + 50.
+
+CREATE TABLE class_bookings_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO class_bookings_seq SELECT COALESCE(MAX(id), 0) + 50 FROM class_bookings;
+
+CREATE TABLE payments_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO payments_seq SELECT COALESCE(MAX(id), 0) + 50 FROM payments;
+
+CREATE TABLE fitness_progress_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO fitness_progress_seq SELECT COALESCE(MAX(id), 0) + 50 FROM fitness_progress;
+
+CREATE TABLE workouts_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO workouts_seq SELECT COALESCE(MAX(id), 0) + 50 FROM workouts;
+
+CREATE TABLE contact_messages_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO contact_messages_seq SELECT COALESCE(MAX(id), 0) + 50 FROM contact_messages;
+
+CREATE TABLE email_outbox_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO email_outbox_seq SELECT COALESCE(MAX(id), 0) + 50 FROM email_outbox;
+
+-- IDs now come only from the sequences; a leftover AUTO_INCREMENT would let manual inserts
+-- take values from a block the application has already reserved. payments references
+-- class_bookings.id, and MySQL refuses to modify a referenced column with the check on.
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE class_bookings MODIFY id BIGINT NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
+ALTER TABLE payments MODIFY id BIGINT NOT NULL;
+ALTER TABLE fitness_progress MODIFY id BIGINT NOT NULL;
+ALTER TABLE workouts MODIFY id BIGINT NOT NULL;
+ALTER TABLE contact_messages MODIFY id BIGINT NOT NULL;
+ALTER TABLE email_outbox MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,15 @@
+-- Class series are inserted in JDBC batches, which needs pooled IDs instead of
+-- AUTO_INCREMENT (see V3 for the sequence table layout).
+CREATE TABLE fitness_classes_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO fitness_classes_seq SELECT COALESCE(MAX(id), 0) + 50 FROM fitness_classes;
+
+-- class_bookings, payments, enrollments and class_equipment reference fitness_classes.id
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE fitness_classes MODIFY id BIGINT NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
+
+-- findScheduledForTrainerOrRoom: one range per side of the OR (index merge union).
+-- (room, start_time) also serves findByRoom, replacing idx_class_room.
+CREATE INDEX idx_class_trainer_start ON fitness_classes (trainer_id, start_time);
+CREATE INDEX idx_class_room_start ON fitness_classes (room, start_time);
+DROP INDEX idx_class_room ON fitness_classes;
@@ -0,0 +1,7 @@
+-- Seats are now taken and given back through fitness_classes.current_enrollment
+-- (FitnessClassRepository.reserveSeat/releaseSeat), which nothing maintained before; it is
+-- 0 for every class created until now. Count the confirmed bookings into it once, so
+-- classes that already have bookings cannot be overbooked.
+UPDATE fitness_classes f
+SET current_enrollment = (SELECT COUNT(*) FROM class_bookings b
+                          WHERE b.fitness_class_id = f.id AND b.status = 'CONFIRMED');
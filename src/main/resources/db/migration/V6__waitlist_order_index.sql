@@ -0,0 +1,4 @@
+-- The waitlist is ordered by (booking_date, id): serve the queue load and the position
+-- count from one index. Replaces idx_booking_class_status, which is its prefix.
+CREATE INDEX idx_booking_class_status_date ON class_bookings (fitness_class_id, status, booking_date, id);
+DROP INDEX idx_booking_class_status ON class_bookings;
@@ -0,0 +1,195 @@
+package com.gym.gym;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local SMTP sink for the tests: accepts mail on spring.mail.port and keeps every message
+ * in memory instead of delivering it. Recipients can be made to fail with a temporary
+ * error to exercise the outbox's retries.
+ *
+ * Registered through TestInfrastructure, which every test imports: the test profile sends
+ * all outbox mail here, so it has to be listening before the outbox dispatcher first runs.
+ */
+public class FakeSmtpServer {
+
+    /**
+     * A received message, as sent to one recipient
+     * @param recipient Envelope recipient
+     * @param subject Subject header
+     * @param data Raw message, headers and body
+     */
+    public record Message(String recipient, String subject, String data) {
+    }
+
+    @Value("${spring.mail.port}")
+    private int port;
+
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    private ServerSocket serverSocket;
+    private ExecutorService sessions;
+
+    @PostConstruct
+    void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        sessions = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "fake-smtp");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sessions.execute(this::accept);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Get the messages received for a recipient so far
+     * @param recipient Email address
+     * @return Messages in order of receipt
+     */
+    public List<Message> messagesTo(String recipient) {
+        return messages.stream().filter(message -> message.recipient().equalsIgnoreCase(recipient)).toList();
+    }
+
+    /**
+     * Reject the next attempts to send to a recipient with a temporary failure (451)
+     * @param recipient Email address
+     * @param times Number of attempts to reject; Integer.MAX_VALUE rejects them all
+     */
+    public void failNext(String recipient, int times) {
+        failuresLeft.put(recipient.toLowerCase(), new AtomicInteger(times));
+    }
+
+    /**
+     * Get how many attempts to send to a recipient were rejected
+     * @param recipient Email address
+     * @return Rejected attempts
+     */
+    public int failuresFor(String recipient) {
+        AtomicInteger count = failures.get(recipient.toLowerCase());
+        return count != null ? count.get() : 0;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> session(socket));
+            } catch (IOException e) {
+                // Closed by stop()
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            List<String> recipients = new ArrayList<>();
+            reply(out, "220 localhost fake SMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM:") || command.startsWith("RSET")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String recipient = address(line);
+                    if (shouldFail(recipient)) {
+                        failures.computeIfAbsent(recipient, r -> new AtomicInteger()).incrementAndGet();
+                        reply(out, "451 Temporary failure for " + recipient);
+                    } else {
+                        recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    String data = readData(in);
+                    for (String recipient : recipients) {
+                        messages.add(new Message(recipient, subject(data), data));
+                    }
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else if (command.startsWith("NOOP")) {
+                    reply(out, "250 OK");
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private boolean shouldFail(String recipient) {
+        AtomicInteger left = failuresLeft.get(recipient);
+        return left != null && left.getAndDecrement() > 0;
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // Undo dot-stuffing
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        String address = start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1);
+        return address.trim().toLowerCase();
+    }
+
+    private static String subject(String data) {
+        for (String header : data.split("\r\n")) {
+            if (header.isEmpty()) {
+                break;
+            }
+            if (header.regionMatches(true, 0, "Subject:", 0, 8)) {
+                return header.substring(8).trim();
+            }
+        }
+        return null;
+    }
+
+    private static void reply(Writer out, String reply) throws IOException {
+        out.write(reply + "\r\n");
+        out.flush();
+    }
+}
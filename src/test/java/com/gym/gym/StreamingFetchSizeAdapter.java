@@ -0,0 +1,84 @@
+package com.gym.gym;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets the streaming export queries run on H2. They ask for a fetch size of
+ * Integer.MIN_VALUE, MySQL Connector/J's signal to stream a result set row by row (see
+ * StreamingHints), which H2 rejects as invalid. Negative fetch sizes are dropped here
+ * before they reach the driver; H2 then buffers at most MAX_MEMORY_ROWS rows of a result
+ * in memory (set in the test datasource URL) and spills the rest to disk.
+ *
+ * Registered through TestInfrastructure, which every test imports.
+ */
+public class StreamingFetchSizeAdapter implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return wrap(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return wrap(super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrap(method.getReturnType(), statement);
+            }
+            return result;
+        });
+    }
+
+    private static Object wrap(Class<?> type, Statement statement) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().equals("setFetchSize") && (int) args[0] < 0) {
+                return null;
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StreamingFetchSizeAdapter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    // Identity of the proxy itself, so that Spring recognizes the connection it handed out
+                    if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
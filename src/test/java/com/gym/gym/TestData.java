@@ -0,0 +1,159 @@
+package com.gym.gym;
+
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Gender;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.Payment;
+import com.gym.gym.model.Role;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.model.User;
+import com.gym.gym.repository.ClassBookingRepository;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.MemberRepository;
+import com.gym.gym.repository.PaymentRepository;
+import com.gym.gym.repository.TrainerRepository;
+import com.gym.gym.repository.UserRepository;
+
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rows for tests, saved through the repositories so that seeding does not trigger
+ * notifications, reminders or dashboard counters.
+ *
+ * The test context and its database are shared by all test classes, so every row gets
+ * a unique username and tests only assert on the rows they created.
+ */
+public class TestData {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final ApplicationContext context;
+
+    public TestData(ApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Save an available trainer
+     * @return Saved trainer
+     */
+    public Trainer trainer() {
+        return trainer(true);
+    }
+
+    /**
+     * Save a trainer
+     * @param available Whether the trainer takes classes
+     * @return Saved trainer
+     */
+    public Trainer trainer(boolean available) {
+        Trainer trainer = new Trainer();
+        trainer.setUser(context.getBean(UserRepository.class).save(user("trainer", Role.ROLE_TRAINER)));
+        trainer.setDateOfBirth(LocalDate.of(1985, 6, 15));
+        trainer.setGender(Gender.values()[0]);
+        trainer.setSpecializations(Set.of("Yoga"));
+        trainer.setHourlyRate(50);
+        trainer.setAvailable(available);
+        return context.getBean(TrainerRepository.class).save(trainer);
+    }
+
+    /**
+     * Save active members with a running membership
+     * @param count Number of members
+     * @return Saved members
+     */
+    public List<Member> members(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Member member = new Member();
+            User user = user("member", Role.ROLE_MEMBER);
+            member.setUser(user);
+            member.setName(user.getFirstName() + " " + user.getLastName());
+            member.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            member.setGender(Gender.values()[i % 2]);
+            member.setMembershipStartDate(LocalDateTime.now().minusDays(10));
+            member.setMembershipEndDate(LocalDateTime.now().plusDays(20));
+            member.setMembershipType(MembershipType.values()[i % MembershipType.values().length]);
+            members.add(member);
+        }
+        return context.getBean(MemberRepository.class).saveAll(members);
+    }
+
+    /**
+     * Save an empty class a day from now
+     * @param trainer Trainer of the class
+     * @param capacity Maximum capacity
+     * @return Saved class
+     */
+    public FitnessClass fitnessClass(Trainer trainer, int capacity) {
+        FitnessClass fitnessClass = new FitnessClass();
+        int n = SEQUENCE.incrementAndGet();
+        fitnessClass.setName("Yoga " + n);
+        fitnessClass.setDescription("Yoga session " + n);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusMinutes(n);
+        fitnessClass.setStartTime(start);
+        fitnessClass.setEndTime(start.plusHours(1));
+        fitnessClass.setMaxCapacity(capacity);
+        fitnessClass.setCurrentEnrollment(0);
+        fitnessClass.setTrainer(trainer);
+        fitnessClass.setRoom("Room " + n);
+        fitnessClass.setPrice(20);
+        fitnessClass.setLevel(ClassLevel.values()[n % ClassLevel.values().length]);
+        return context.getBean(FitnessClassRepository.class).save(fitnessClass);
+    }
+
+    /**
+     * Save a booking of a member into a class, leaving the class's enrollment as it is
+     * @param member Booking member
+     * @param fitnessClass Booked class
+     * @param status Booking status
+     * @return Saved booking
+     */
+    public ClassBooking booking(Member member, FitnessClass fitnessClass, String status) {
+        ClassBooking booking = new ClassBooking(LocalDateTime.now());
+        booking.setMember(member);
+        booking.setFitnessClass(fitnessClass);
+        booking.setStatus(status);
+        return context.getBean(ClassBookingRepository.class).save(booking);
+    }
+
+    /**
+     * Save a payment for a booking
+     * @param booking Paid booking
+     * @param amount Amount
+     * @param status Payment status
+     * @param paymentMethod Payment method
+     * @param paymentDate Payment date, or null if not paid
+     * @return Saved payment
+     */
+    public Payment payment(ClassBooking booking, double amount, String status, String paymentMethod, LocalDateTime paymentDate) {
+        Payment payment = new Payment(booking.getMember(), booking.getFitnessClass(), booking, amount);
+        payment.setStatus(status);
+        payment.setPaymentMethod(paymentMethod);
+        payment.setPaymentDate(paymentDate);
+        return context.getBean(PaymentRepository.class).save(payment);
+    }
+
+    private static User user(String prefix, Role role) {
+        String username = prefix + SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername(username);
+        user.setFirstName("First" + username);
+        user.setLastName("Last" + username);
+        user.setEmail(username + "@test.local");
+        // Never logged in with; tests that authenticate encode their own
+        user.setPassword("{noop}test");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,14 @@
+package com.gym.gym;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Test-only beans that stand in for the production environment. com.gym.gym itself is not
+ * component-scanned, so every test imports this; importing the same configuration
+ * everywhere also keeps all tests on one cached application context and one database.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@Import({FakeSmtpServer.class, StreamingFetchSizeAdapter.class})
+public class TestInfrastructure {
+}
@@ -0,0 +1,145 @@
+package com.gym.gym.config;
+
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.repository.TrainerRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * Per-request SQL statement tracking: the statement budget of the endpoints that used to
+ * run N+1 queries, the response headers and metrics every request gets, and the warnings
+ * logged for requests over budget.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+@ExtendWith(OutputCaptureExtension.class)
+class SqlBudgetFilterTest {
+
+    private static final String TRAINER_SEARCH = "/api/trainers/search";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlBudgetFilter sqlBudgetFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Value("${sql.budget.max-statements:20}")
+    private int maxStatements;
+
+    private MockMvc mockMvc;
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        // The budget filter first, as in the application, so security's lookups count too
+        mockMvc = webAppContextSetup(context).addFilters(sqlBudgetFilter).apply(springSecurity()).build();
+        testData = new TestData(context);
+    }
+
+    @Test
+    void trainerSearchStaysWithinBudgetAsTrainersGrow() throws Exception {
+        testData.trainer();
+        statements(TRAINER_SEARCH + "?size=100");
+        int before = statements(TRAINER_SEARCH + "?size=100");
+        for (int i = 0; i < 30; i++) {
+            testData.trainer();
+        }
+        int after = statements(TRAINER_SEARCH + "?size=100");
+
+        assertTrue(after <= maxStatements, "trainer search ran " + after + " statements");
+        assertEquals(before, after);
+    }
+
+    @Test
+    void trainerAnalyticsStaysWithinBudget() throws Exception {
+        testData.fitnessClass(testData.trainer(), 10);
+        int statements = statements("/api/dashboard/trainers");
+
+        assertTrue(statements <= maxStatements, "trainer analytics ran " + statements + " statements");
+    }
+
+    @Test
+    void everyRequestIsRecordedPerEndpoint() throws Exception {
+        DistributionSummary summary = meterRegistry.summary("gym.sql.statements", "endpoint", "GET " + TRAINER_SEARCH);
+        long requests = summary.count();
+        double total = summary.totalAmount();
+
+        MvcResult result = perform(TRAINER_SEARCH);
+
+        assertNotNull(result.getResponse().getHeader(SqlStatsResponseAdvice.TIME_HEADER));
+        assertEquals(requests + 1, summary.count());
+        // The metric is taken when the request ends, so it also covers anything run while writing the body
+        assertTrue(summary.totalAmount() - total >= statements(result));
+        assertEquals(requests + 1, meterRegistry.timer("gym.sql.time", "endpoint", "GET " + TRAINER_SEARCH).count());
+    }
+
+    @Test
+    void overBudgetRequestsAndRepeatedStatementsAreLogged(CapturedOutput output) throws Exception {
+        Long trainerId = testData.trainer().getId();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/n-plus-one");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/test/n-plus-one");
+
+        // One lookup per "row", each in its own persistence context: the same SELECT every time
+        sqlBudgetFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i <= maxStatements; i++) {
+                Trainer trainer = trainerRepository.findById(trainerId).orElseThrow();
+                assertEquals(trainerId, trainer.getId());
+            }
+        });
+
+        assertTrue(output.getAll().contains("over the budget of " + maxStatements), "no over-budget warning");
+        assertTrue(output.getAll().contains("Possible N+1 in GET /api/test/n-plus-one"), "no N+1 warning");
+    }
+
+    private int statements(String url) throws Exception {
+        return statements(perform(url));
+    }
+
+    private MvcResult perform(String url) throws Exception {
+        return mockMvc.perform(get(url).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static int statements(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatsResponseAdvice.STATEMENTS_HEADER);
+        assertNotNull(header, "no " + SqlStatsResponseAdvice.STATEMENTS_HEADER + " header");
+        return Integer.parseInt(header);
+    }
+}
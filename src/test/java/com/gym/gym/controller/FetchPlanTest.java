@@ -0,0 +1,133 @@
+package com.gym.gym.controller;
+
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.config.SqlStatementTracker;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.Trainer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * The list, detail and analytics endpoints for classes and trainers must run a fixed number
+ * of SQL statements however many classes, trainers and bookings exist, and must never load
+ * the lazy FitnessClass.enrollments or Trainer.fitnessClasses collections.
+ *
+ * Statements are counted on the test thread (MockMvc runs the request, JSON serialization
+ * included, on the calling thread) with SqlStatementTracker; collection loads come from
+ * Hibernate's statistics, which only these requests can move since no background job
+ * loads collections.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+class FetchPlanTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private TestData testData;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = webAppContextSetup(context).apply(springSecurity()).build();
+        testData = new TestData(context);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "hibernate.generate_statistics is off in the test profile");
+    }
+
+    @Test
+    void statementsPerEndpointDoNotGrowWithRows() throws Exception {
+        seed(2, 5);
+        // First requests also fill caches; only compare from the second round on
+        statementsPerEndpoint();
+
+        Map<String, Integer> before = statementsPerEndpoint();
+        seed(4, 10);
+        Map<String, Integer> after = statementsPerEndpoint();
+
+        assertEquals(before, after);
+    }
+
+    /**
+     * Add trainers, each with classes that have a few confirmed bookings
+     */
+    private void seed(int trainers, int classesPerTrainer) {
+        List<Member> members = testData.members(3);
+        for (int t = 0; t < trainers; t++) {
+            Trainer trainer = testData.trainer();
+            for (int c = 0; c < classesPerTrainer; c++) {
+                FitnessClass fitnessClass = testData.fitnessClass(trainer, 10);
+                for (Member member : members) {
+                    testData.booking(member, fitnessClass, "CONFIRMED");
+                }
+            }
+        }
+    }
+
+    /**
+     * Call each endpoint once
+     * @return SQL statements run per endpoint
+     */
+    private Map<String, Integer> statementsPerEndpoint() throws Exception {
+        // A new trainer and class each round, so the detail lookups miss the reference data cache
+        Trainer trainer = testData.trainer();
+        FitnessClass fitnessClass = testData.fitnessClass(trainer, 10);
+
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("class list", "/api/classes");
+        endpoints.put("class detail", "/api/classes/" + fitnessClass.getId());
+        endpoints.put("classes by trainer", "/api/classes/trainer/" + trainer.getId());
+        endpoints.put("trainer list", "/api/trainers");
+        endpoints.put("trainer detail", "/api/trainers/" + trainer.getId());
+        endpoints.put("trainer classes", "/api/trainers/" + trainer.getId() + "/classes");
+        endpoints.put("class analytics", "/api/dashboard/classes");
+        endpoints.put("trainer analytics", "/api/dashboard/trainers");
+
+        Map<String, Integer> statements = new LinkedHashMap<>();
+        for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+            long collectionFetches = statistics.getCollectionFetchCount();
+            SqlStatementTracker.start();
+            SqlStatementTracker.Stats stats;
+            try {
+                mockMvc.perform(get(endpoint.getValue()).with(user("admin").roles("ADMIN")))
+                        .andExpect(status().isOk());
+            } finally {
+                stats = SqlStatementTracker.stop();
+            }
+            assertEquals(collectionFetches, statistics.getCollectionFetchCount(),
+                    endpoint.getKey() + " loaded a lazy collection");
+            statements.put(endpoint.getKey(), stats.getStatements());
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,380 @@
+package com.gym.gym.repository;
+
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.model.ClassLevel;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Gender;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.MembershipType;
+import com.gym.gym.model.Payment;
+import com.gym.gym.model.Trainer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the GROUP BY / COUNT / SUM queries of DashboardRepositoryImpl with what it
+ * computed before they were pushed down: the same figures worked out in Java over
+ * findAll(), as in InMemoryDashboard below.
+ *
+ * Both run over the whole (shared) test database, so the comparison holds whatever
+ * other tests have saved; the fixture makes sure every group and edge case is present.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+class DashboardRepositoryImplTest {
+
+    // SQL averages may be rounded (MySQL returns AVG of an integer column as a 4-place decimal)
+    private static final double DELTA = 0.01;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryDashboard expected;
+
+    @BeforeEach
+    void setUp() {
+        TestData testData = new TestData(context);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Member> members = testData.members(12);
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            member.setActive(i % 4 != 0);
+            member.setGender(Gender.values()[i % Gender.values().length]);
+            member.setMembershipType(MembershipType.values()[i % MembershipType.values().length]);
+            member.setMembershipStartDate(now.minusDays(i * 10L));
+        }
+        memberRepository.saveAll(members);
+
+        Trainer busy = testData.trainer();
+        testData.trainer(false);
+
+        String[] methods = {"CASH", "CARD", "ONLINE", "CHEQUE"};
+        String[] statuses = {"PAID", "PAID", "PENDING", "REFUNDED"};
+        for (int c = 0; c < 6; c++) {
+            FitnessClass fitnessClass = testData.fitnessClass(busy, c == 5 ? 0 : 10);
+            fitnessClass.setCurrentEnrollment(c == 5 ? 0 : c * 2);
+            fitnessClass.setActive(c % 3 != 0);
+            fitnessClass.setLevel(ClassLevel.values()[c % ClassLevel.values().length]);
+            fitnessClassRepository.save(fitnessClass);
+
+            for (int p = 0; p <= c; p++) {
+                ClassBooking booking = testData.booking(members.get((c + p) % members.size()), fitnessClass, "CONFIRMED");
+                String status = statuses[(c + p) % statuses.length];
+                testData.payment(booking, 20 + p * 7.5, status, methods[p % methods.length],
+                        "PAID".equals(status) ? now.minusDays(p * 20L) : null);
+            }
+        }
+
+        expected = new InMemoryDashboard();
+    }
+
+    @Test
+    void memberStatisticsMatchInMemoryComputation() {
+        LocalDateTime since = LocalDateTime.now().minusDays(45);
+        inTransaction(() -> {
+            assertEquals(expected.activeMembers(), dashboardRepository.getActiveMembersCount());
+            assertEquals(memberRepository.count() - expected.activeMembers(), dashboardRepository.getInactiveMembersCount());
+            assertEquals(expected.newMembersSince(since), dashboardRepository.getNewMembersCountSince(since));
+            assertEquals(expected.membershipGrowth(since), dashboardRepository.getMembershipGrowthPercentage(since), DELTA);
+            assertEquals(expected.membershipDistribution(), dashboardRepository.getMembershipDistributionData());
+            assertEquals(expected.genderDistribution(), dashboardRepository.getGenderDistributionData());
+        });
+    }
+
+    @Test
+    void revenueStatisticsMatchInMemoryComputation() {
+        LocalDateTime since = LocalDateTime.now().minusDays(30);
+        inTransaction(() -> {
+            assertEquals(expected.totalRevenue(), dashboardRepository.getTotalRevenueAmount(), DELTA);
+            assertEquals(expected.revenueSince(since), dashboardRepository.getRevenueAmountSince(since), DELTA);
+            assertEquals(expected.revenueGrowth(since), dashboardRepository.getRevenueGrowthPercentage(since), DELTA);
+            assertEquals(expected.paymentCount("PENDING"), dashboardRepository.getPendingPaymentsCount());
+            assertEquals(expected.paymentCount("PAID"), dashboardRepository.getPaidPaymentsCount());
+            assertEquals(expected.averageTransaction(), dashboardRepository.getAverageTransactionValue(), DELTA);
+            assertSameAmounts(expected.revenueByPaymentMethod(), dashboardRepository.getRevenueByPaymentMethodData());
+
+            List<Map<String, Object>> byClass = dashboardRepository.getRevenueByClassData();
+            assertSameAmounts(expected.revenueByClass(), byClass.stream().collect(Collectors.toMap(
+                    row -> (String) row.get("className"), row -> (Double) row.get("revenue"))));
+            for (int i = 1; i < byClass.size(); i++) {
+                assertTrue((Double) byClass.get(i - 1).get("revenue") >= (Double) byClass.get(i).get("revenue"));
+            }
+        });
+    }
+
+    @Test
+    void classStatisticsMatchInMemoryComputation() {
+        inTransaction(() -> {
+            assertEquals(expected.activeClasses(), dashboardRepository.getActiveClassesCount());
+            assertEquals(expected.averageAttendance(), dashboardRepository.getAverageClassAttendanceValue(), DELTA);
+            assertEquals(expected.utilization(), dashboardRepository.getClassUtilizationPercentage(), DELTA);
+            assertEquals(expected.classLevelDistribution(), dashboardRepository.getClassLevelDistributionData());
+
+            // Ties may come back in either order; compare the enrollments and each row by class
+            List<Map<String, Object>> popular = dashboardRepository.getMostPopularClassesData();
+            List<Map<String, Object>> expectedPopular = expected.mostPopularClasses();
+            assertEquals(expectedPopular.stream().map(row -> row.get("enrollment")).toList(),
+                    popular.stream().map(row -> row.get("enrollment")).toList());
+            Map<Object, Map<String, Object>> byName = expected.classStatistics();
+            for (Map<String, Object> row : popular) {
+                assertEquals(byName.get(row.get("className")), row);
+            }
+        });
+    }
+
+    @Test
+    void trainerStatisticsMatchInMemoryComputation() {
+        inTransaction(() -> {
+            assertEquals(expected.activeTrainers(), dashboardRepository.getActiveTrainersCount());
+            assertEquals(expected.trainerWorkload(), byTrainerName(dashboardRepository.getTrainerWorkloadData()));
+
+            // Revenue per trainer was added with the aggregate query; compare the rest
+            List<Map<String, Object>> performance = dashboardRepository.getTrainerPerformanceData();
+            performance.forEach(row -> row.remove("revenue"));
+            assertEquals(expected.trainerPerformance(), byTrainerName(performance));
+        });
+    }
+
+    private void inTransaction(Runnable assertions) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> assertions.run());
+    }
+
+    private static Map<Object, Map<String, Object>> byTrainerName(List<Map<String, Object>> rows) {
+        return rows.stream().collect(Collectors.toMap(row -> row.get("trainerName"), Function.identity()));
+    }
+
+    private static void assertSameAmounts(Map<String, Double> expected, Map<String, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, amount) -> assertEquals(amount, actual.get(key), DELTA, key));
+    }
+
+    /**
+     * The dashboard figures as DashboardRepositoryImpl worked them out before the
+     * aggregates moved into SQL: load every row and filter, count and sum in Java.
+     * Must be used inside a transaction for the lazy associations.
+     */
+    private class InMemoryDashboard {
+
+        long activeMembers() {
+            return memberRepository.findAll().stream().filter(Member::isActive).count();
+        }
+
+        long newMembersSince(LocalDateTime dateTime) {
+            return memberRepository.findAll().stream()
+                    .filter(member -> member.getMembershipStartDate() != null && member.getMembershipStartDate().isAfter(dateTime))
+                    .count();
+        }
+
+        double membershipGrowth(LocalDateTime previousPeriodEnd) {
+            long previousPeriodMembers = memberRepository.findAll().stream()
+                    .filter(member -> member.getMembershipStartDate() != null && member.getMembershipStartDate().isBefore(previousPeriodEnd))
+                    .count();
+            if (previousPeriodMembers == 0) return 0.0;
+            return ((double) (memberRepository.count() - previousPeriodMembers) / previousPeriodMembers) * 100;
+        }
+
+        Map<String, Long> membershipDistribution() {
+            Map<String, Long> distribution = new HashMap<>();
+            List<Member> allMembers = memberRepository.findAll();
+            for (String type : List.of("BASIC", "PREMIUM", "VIP")) {
+                distribution.put(type, allMembers.stream().filter(m -> m.getMembershipType() == MembershipType.valueOf(type)).count());
+            }
+            return distribution;
+        }
+
+        Map<String, Long> genderDistribution() {
+            Map<String, Long> distribution = new HashMap<>();
+            List<Member> allMembers = memberRepository.findAll();
+            for (String gender : List.of("MALE", "FEMALE", "OTHER")) {
+                distribution.put(gender, allMembers.stream().filter(m -> m.getGender() == Gender.valueOf(gender)).count());
+            }
+            return distribution;
+        }
+
+        double totalRevenue() {
+            return paymentRepository.findByStatus("PAID").stream().mapToDouble(Payment::getAmount).sum();
+        }
+
+        double revenueSince(LocalDateTime dateTime) {
+            return paymentRepository.findByStatus("PAID").stream()
+                    .filter(payment -> payment.getPaymentDate() != null && payment.getPaymentDate().isAfter(dateTime))
+                    .mapToDouble(Payment::getAmount)
+                    .sum();
+        }
+
+        double revenueGrowth(LocalDateTime previousPeriodEnd) {
+            double previousPeriodRevenue = paymentRepository.findByStatus("PAID").stream()
+                    .filter(payment -> payment.getPaymentDate() != null && payment.getPaymentDate().isBefore(previousPeriodEnd))
+                    .mapToDouble(Payment::getAmount)
+                    .sum();
+            double currentPeriodRevenue = revenueSince(LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0));
+            if (previousPeriodRevenue == 0) return 0.0;
+            return ((currentPeriodRevenue - previousPeriodRevenue) / previousPeriodRevenue) * 100;
+        }
+
+        long paymentCount(String status) {
+            return paymentRepository.findByStatus(status).size();
+        }
+
+        double averageTransaction() {
+            List<Payment> paidPayments = paymentRepository.findByStatus("PAID");
+            if (paidPayments.isEmpty()) return 0.0;
+            return paidPayments.stream().mapToDouble(Payment::getAmount).sum() / paidPayments.size();
+        }
+
+        Map<String, Double> revenueByPaymentMethod() {
+            Map<String, Double> revenue = new HashMap<>();
+            List<Payment> paidPayments = paymentRepository.findByStatus("PAID");
+            for (String method : List.of("CASH", "CARD", "ONLINE")) {
+                revenue.put(method, paidPayments.stream()
+                        .filter(p -> method.equals(p.getPaymentMethod()))
+                        .mapToDouble(Payment::getAmount).sum());
+            }
+            return revenue;
+        }
+
+        Map<String, Double> revenueByClass() {
+            return paymentRepository.findByStatus("PAID").stream()
+                    .filter(payment -> payment.getFitnessClass() != null)
+                    .collect(Collectors.groupingBy(payment -> payment.getFitnessClass().getName(),
+                            Collectors.summingDouble(Payment::getAmount)));
+        }
+
+        long activeClasses() {
+            return fitnessClassRepository.findAll().stream().filter(FitnessClass::isActive).count();
+        }
+
+        double averageAttendance() {
+            List<FitnessClass> classes = fitnessClassRepository.findAll();
+            if (classes.isEmpty()) return 0.0;
+            return classes.stream().mapToDouble(FitnessClass::getCurrentEnrollment).sum() / classes.size();
+        }
+
+        double utilization() {
+            List<FitnessClass> classes = fitnessClassRepository.findAll();
+            if (classes.isEmpty()) return 0.0;
+            double totalUtilization = classes.stream()
+                    .mapToDouble(c -> c.getMaxCapacity() > 0 ? (double) c.getCurrentEnrollment() / c.getMaxCapacity() : 0.0)
+                    .sum();
+            return (totalUtilization / classes.size()) * 100;
+        }
+
+        Map<String, Long> classLevelDistribution() {
+            Map<String, Long> distribution = new HashMap<>();
+            List<FitnessClass> allClasses = fitnessClassRepository.findAll();
+            for (String level : List.of("BEGINNER", "INTERMEDIATE", "ADVANCED")) {
+                distribution.put(level, allClasses.stream().filter(c -> c.getLevel() == ClassLevel.valueOf(level)).count());
+            }
+            return distribution;
+        }
+
+        List<Map<String, Object>> mostPopularClasses() {
+            return classStatistics().values().stream()
+                    .sorted(Comparator.comparing(row -> -((Number) row.get("enrollment")).doubleValue()))
+                    .limit(10)
+                    .toList();
+        }
+
+        Map<Object, Map<String, Object>> classStatistics() {
+            Map<Object, Map<String, Object>> statistics = new HashMap<>();
+            for (FitnessClass fitnessClass : fitnessClassRepository.findAll()) {
+                Map<String, Object> classStats = new HashMap<>();
+                classStats.put("className", fitnessClass.getName());
+                classStats.put("enrollment", fitnessClass.getCurrentEnrollment());
+                classStats.put("maxCapacity", fitnessClass.getMaxCapacity());
+                double utilization = 0.0;
+                if (fitnessClass.getMaxCapacity() > 0) {
+                    utilization = (double) fitnessClass.getCurrentEnrollment() / fitnessClass.getMaxCapacity() * 100;
+                }
+                classStats.put("utilization", utilization);
+                statistics.put(fitnessClass.getName(), classStats);
+            }
+            return statistics;
+        }
+
+        long activeTrainers() {
+            return trainerRepository.findAll().stream().filter(t -> Boolean.TRUE.equals(t.getAvailable())).count();
+        }
+
+        Map<Object, Map<String, Object>> trainerPerformance() {
+            Map<Object, Map<String, Object>> performance = new HashMap<>();
+            for (Trainer trainer : trainerRepository.findAll()) {
+                List<FitnessClass> trainerClasses = classesOf(trainer);
+                Map<String, Object> row = new HashMap<>();
+                row.put("trainerName", trainerName(trainer, "Unknown Trainer (ID: " + trainer.getId() + ")"));
+                row.put("classesCount", trainerClasses.size());
+                row.put("totalEnrollment", trainerClasses.stream().mapToInt(FitnessClass::getCurrentEnrollment).sum());
+                performance.put(row.get("trainerName"), row);
+            }
+            return performance;
+        }
+
+        Map<Object, Map<String, Object>> trainerWorkload() {
+            Map<Object, Map<String, Object>> workload = new HashMap<>();
+            for (Trainer trainer : trainerRepository.findAll()) {
+                List<FitnessClass> trainerClasses = classesOf(trainer);
+                Map<String, Object> row = new HashMap<>();
+                row.put("trainerName", trainerName(trainer, "Trainer " + trainer.getId()));
+                row.put("activeClasses", trainerClasses.stream().filter(FitnessClass::isActive).count());
+                row.put("totalClasses", trainerClasses.size());
+                workload.put(row.get("trainerName"), row);
+            }
+            return workload;
+        }
+
+        private List<FitnessClass> classesOf(Trainer trainer) {
+            return fitnessClassRepository.findAll().stream()
+                    .filter(c -> c.getTrainer() != null && c.getTrainer().getId().equals(trainer.getId()))
+                    .toList();
+        }
+
+        private String trainerName(Trainer trainer, String fallback) {
+            return trainer.getUser() != null
+                    ? trainer.getUser().getFirstName() + " " + trainer.getUser().getLastName()
+                    : fallback;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.gym.gym.service;
+
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.model.ClassBooking;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.Payment;
+import com.gym.gym.model.Trainer;
+import com.gym.gym.repository.ClassBookingRepository;
+import com.gym.gym.repository.FitnessClassRepository;
+import com.gym.gym.repository.MemberRepository;
+import com.gym.gym.repository.PaymentRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for seat reservation: many members booking one class at once must never
+ * overbook it, and must get through faster than when every booking locks the class row.
+ * Concurrent status changes of one payment must likewise count it on the dashboard once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+class ClassBookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ClassBookingService classBookingService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private ClassBookingRepository classBookingRepository;
+
+    @Autowired
+    private FitnessClassRepository fitnessClassRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private FitnessClassService fitnessClassService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TestData testData;
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(context);
+        trainer = testData.trainer();
+    }
+
+    @Test
+    void concurrentBookingsNeverOverbook() throws Exception {
+        int capacity = 20;
+        FitnessClass fitnessClass = testData.fitnessClass(trainer, capacity);
+        List<Member> members = testData.members(200);
+
+        List<Callable<ClassBooking>> bookings = new ArrayList<>();
+        for (Member member : members) {
+            bookings.add(() -> classBookingService.createBooking(member.getId(), fitnessClass.getId()));
+        }
+        runConcurrently(bookings);
+
+        assertEquals(capacity, classBookingRepository.countByFitnessClassIdAndStatus(fitnessClass.getId(), "CONFIRMED"));
+        assertEquals(members.size() - capacity,
+                classBookingRepository.countByFitnessClassIdAndStatus(fitnessClass.getId(), WaitlistService.WAITLISTED));
+        assertEquals(0, fitnessClassRepository.findRemainingSeats(fitnessClass.getId()));
+    }
+
+    @Test
+    void concurrentCancelsOfOneBookingFreeOneSeat() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            FitnessClass fitnessClass = testData.fitnessClass(trainer, 2);
+            List<ClassBooking> booked = new ArrayList<>();
+            for (Member member : testData.members(3)) {
+                booked.add(classBookingService.createBooking(member.getId(), fitnessClass.getId()));
+            }
+            Long cancelled = booked.get(0).getId();
+
+            runConcurrently(List.of(
+                    () -> classBookingService.cancelBooking(cancelled),
+                    () -> classBookingService.cancelBooking(cancelled)));
+
+            // The freed seat went to the waiting member, once
+            assertEquals("CONFIRMED", classBookingService.getBookingById(booked.get(2).getId()).getStatus());
+            assertEquals(2, classBookingRepository.countByFitnessClassIdAndStatus(fitnessClass.getId(), "CONFIRMED"));
+            assertEquals(0, fitnessClassRepository.findRemainingSeats(fitnessClass.getId()));
+        }
+    }
+
+    @Test
+    void seatOfARolledBackReservationIsNotRefused() throws Exception {
+        Long classId = testData.fitnessClass(trainer, 1).getId();
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch rollBack = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Takes the last seat, then rolls back while the second reservation waits on the row
+            Future<Boolean> first = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                boolean seated = seatReservationService.reserve(classId);
+                reserved.countDown();
+                awaitUninterruptibly(rollBack);
+                status.setRollbackOnly();
+                return seated;
+            }));
+            reserved.await();
+            Future<Boolean> second = executor.submit(() ->
+                    new TransactionTemplate(transactionManager).execute(status -> seatReservationService.reserve(classId)));
+            Thread.sleep(200);
+            rollBack.countDown();
+
+            assertTrue(first.get());
+            assertTrue(second.get(), "the seat given back by the rollback was refused");
+            assertEquals(0, fitnessClassRepository.findRemainingSeats(classId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void raisingCapacityPromotesWaitingMembers() {
+        FitnessClass fitnessClass = testData.fitnessClass(trainer, 1);
+        List<ClassBooking> booked = new ArrayList<>();
+        for (Member member : testData.members(4)) {
+            booked.add(classBookingService.createBooking(member.getId(), fitnessClass.getId()));
+        }
+
+        fitnessClass.setMaxCapacity(3);
+        FitnessClass updated = fitnessClassService.updateClass(fitnessClass.getId(), fitnessClass);
+
+        // The two seats go to the first two in line; the last member keeps waiting
+        assertEquals("CONFIRMED", classBookingService.getBookingById(booked.get(1).getId()).getStatus());
+        assertEquals("CONFIRMED", classBookingService.getBookingById(booked.get(2).getId()).getStatus());
+        assertEquals(WaitlistService.WAITLISTED, classBookingService.getBookingById(booked.get(3).getId()).getStatus());
+        assertEquals(3, updated.getCurrentEnrollment());
+        assertEquals(0, fitnessClassRepository.findRemainingSeats(fitnessClass.getId()));
+    }
+
+    @Test
+    void concurrentStatusChangesOfOnePaymentCountItOnce() throws Exception {
+        long paidBefore = dashboardMetricsService.getPaidPayments();
+        long pendingBefore = dashboardMetricsService.getPendingPayments();
+        FitnessClass fitnessClass = testData.fitnessClass(trainer, 20);
+        List<Member> members = testData.members(20);
+        int paid = 0;
+        for (Member member : members) {
+            ClassBooking booking = testData.booking(member, fitnessClass, "CONFIRMED");
+            Long paymentId = testData.payment(booking, 10.0, "PENDING", null, null).getId();
+
+            // Only the first of these may leave PENDING; the others find it already changed
+            runConcurrently(List.of(
+                    () -> attempt(() -> paymentService.processPayment(paymentId, "CASH", null)),
+                    () -> attempt(() -> paymentService.processPayment(paymentId, "CASH", null)),
+                    () -> attempt(() -> paymentService.cancelPayment(paymentId))));
+            if ("PAID".equals(paymentRepository.findById(paymentId).orElseThrow().getStatus())) {
+                paid++;
+            }
+        }
+
+        // The payments were inserted behind the counters' back, so none were pending to them
+        assertEquals(paidBefore + paid, dashboardMetricsService.getPaidPayments());
+        assertEquals(pendingBefore - members.size(), dashboardMetricsService.getPendingPayments());
+    }
+
+    @Test
+    void atomicReservationOutperformsPessimisticLocking() throws Exception {
+        int capacity = 20;
+        int requests = 400;
+        List<Member> members = testData.members(requests);
+
+        // Warm up both paths, then keep the best of three runs each
+        book(capacity, members, this::bookAtomically);
+        book(capacity, members, this::bookWithClassLock);
+        long atomic = Long.MAX_VALUE;
+        long pessimistic = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            atomic = Math.min(atomic, book(capacity, members, this::bookAtomically));
+            pessimistic = Math.min(pessimistic, book(capacity, members, this::bookWithClassLock));
+        }
+
+        System.out.printf("%d bookings on %d threads: atomic %.0f/s, pessimistic %.0f/s%n", requests, THREADS,
+                requests * 1e9 / atomic, requests * 1e9 / pessimistic);
+        assertTrue(atomic <= pessimistic,
+                "atomic reservation took " + atomic / 1_000_000 + " ms, pessimistic locking " + pessimistic / 1_000_000 + " ms");
+    }
+
+    /**
+     * Book every member into a new class at once
+     * @return Elapsed nanoseconds
+     */
+    private long book(int capacity, List<Member> members, BiConsumer<Long, Long> strategy) throws Exception {
+        Long classId = testData.fitnessClass(trainer, capacity).getId();
+        List<Callable<ClassBooking>> bookings = new ArrayList<>();
+        for (Member member : members) {
+            bookings.add(() -> {
+                strategy.accept(member.getId(), classId);
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        runConcurrently(bookings);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(capacity, classBookingRepository.countByFitnessClassIdAndStatus(classId, "CONFIRMED"));
+        return elapsed;
+    }
+
+    // The conditional UPDATE of SeatReservationService, as createBooking uses it
+    private void bookAtomically(Long memberId, Long classId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                save(memberId, classId, seatReservationService.reserve(classId)));
+    }
+
+    // Lock the class row, count its confirmed bookings, insert: what booking did before
+    private void bookWithClassLock(Long memberId, Long classId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            FitnessClass fitnessClass = entityManager.find(FitnessClass.class, classId, LockModeType.PESSIMISTIC_WRITE);
+            int confirmed = classBookingRepository.countByFitnessClassIdAndStatus(classId, "CONFIRMED");
+            save(memberId, classId, confirmed < fitnessClass.getMaxCapacity());
+        });
+    }
+
+    private void save(Long memberId, Long classId, boolean seated) {
+        ClassBooking booking = new ClassBooking(LocalDateTime.now());
+        booking.setMember(memberRepository.getReferenceById(memberId));
+        booking.setFitnessClass(fitnessClassRepository.getReferenceById(classId));
+        booking.setStatus(seated ? "CONFIRMED" : WaitlistService.WAITLISTED);
+        classBookingRepository.save(booking);
+    }
+
+    private static Payment attempt(Callable<Payment> statusChange) {
+        try {
+            return statusChange.call();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Start all tasks together on the test's thread pool and fail on the first exception
+     */
+    private static <T> void runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<T> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
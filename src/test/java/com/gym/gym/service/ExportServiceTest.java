@@ -0,0 +1,149 @@
+package com.gym.gym.service;
+
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.model.ClassBooking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streaming exports: a million payments must go out without the heap growing with them.
+ *
+ * The rows are inserted with one INSERT ... SELECT, dated in January 2001 so that no other
+ * test's rows fall in the exported range, and as REFUNDED so that the dashboard tests,
+ * which load PAID and PENDING payments, never see them. They are deleted afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+class ExportServiceTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 1, 1);
+
+    // Far below what the rows take once materialized (several hundred bytes each as objects or NDJSON)
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ClassBooking booking;
+
+    @BeforeEach
+    void setUp() {
+        TestData testData = new TestData(context);
+        booking = testData.booking(testData.members(1).get(0), testData.fitnessClass(testData.trainer(), 10), "CONFIRMED");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM payments WHERE created_at < ?", FIRST_DAY.plusYears(1).atStartOfDay());
+    }
+
+    @Test
+    void exportsAMillionPaymentsInConstantHeap() throws IOException {
+        seedPayments(ROWS);
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(ROWS / 10);
+        long written = exportService.exportPayments(FIRST_DAY, FIRST_DAY.plusMonths(1), ExportService.Format.NDJSON, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, out.lines);
+        assertEquals(10, out.samples);
+        assertTrue(out.maxGrowth < MAX_HEAP_GROWTH,
+                "heap grew by " + out.maxGrowth / (1024 * 1024) + " MB while exporting " + ROWS + " rows");
+    }
+
+    @Test
+    void exportsOnlyTheRequestedDays() throws IOException {
+        seedPayments(3 * 24 * 60 * 60);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDate secondDay = FIRST_DAY.plusDays(1);
+        long written = exportService.exportPayments(secondDay, secondDay, ExportService.Format.CSV, out);
+
+        // Seeded one per second from 00:00:01 on the first day; the header line comes first
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(24 * 60 * 60, written);
+        assertEquals(written + 1, lines.length);
+        assertTrue(lines[1].contains(secondDay + "T00:00"), lines[1]);
+        assertTrue(lines[lines.length - 1].contains(secondDay + "T23:59:59"), lines[lines.length - 1]);
+    }
+
+    /**
+     * Insert payments for the booking, one per second from the start of FIRST_DAY
+     */
+    private void seedPayments(int count) {
+        // SYSTEM_RANGE's column is upper-case X, so it must be quoted under DATABASE_TO_LOWER
+        jdbcTemplate.update("INSERT INTO payments (id, member_id, fitness_class_id, class_booking_id, amount, status, " +
+                        "payment_method, booking_date, payment_date, created_at, updated_at) " +
+                        "SELECT NEXT VALUE FOR payments_seq, ?, ?, ?, 10 + MOD(r.x, 90), 'REFUNDED', 'CARD', r.t, r.t, r.t, r.t " +
+                        "FROM (SELECT \"X\" AS x, DATEADD('SECOND', \"X\", CAST(? AS TIMESTAMP)) AS t FROM SYSTEM_RANGE(1, ?)) r",
+                booking.getMember().getId(), booking.getFitnessClass().getId(), booking.getId(),
+                FIRST_DAY.atStartOfDay(), count);
+    }
+
+    /**
+     * Discards what is written, counting lines and sampling the heap, after a full GC,
+     * every so many lines
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+        private final int linesPerSample;
+        private final long baseline;
+        long lines;
+        int samples;
+        long maxGrowth;
+
+        HeapSamplingOutputStream(int linesPerSample) {
+            this.linesPerSample = linesPerSample;
+            this.baseline = usedHeap();
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % linesPerSample == 0) {
+                maxGrowth = Math.max(maxGrowth, usedHeap() - baseline);
+                samples++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        private static long usedHeap() {
+            System.gc();
+            return MEMORY.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gym.gym.service;
+
+import com.gym.gym.FakeSmtpServer;
+import com.gym.gym.TestData;
+import com.gym.gym.TestInfrastructure;
+import com.gym.gym.model.FitnessClass;
+import com.gym.gym.model.Member;
+import com.gym.gym.model.NotificationJob;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * End-to-end delivery of notification jobs: planned into the outbox, dispatched by the
+ * scheduler and sent over SMTP to FakeSmtpServer, with retries and their backoff
+ * (shortened in the test profile, at most 3 attempts).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestInfrastructure.class)
+class NotificationDeliveryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private FakeSmtpServer smtpServer;
+
+    private FitnessClass fitnessClass;
+    private List<Member> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData testData = new TestData(context);
+        fitnessClass = testData.fitnessClass(testData.trainer(), 10);
+        members = testData.members(5);
+        for (Member member : members) {
+            testData.booking(member, fitnessClass, "CONFIRMED");
+        }
+        // Not booked in: must not be reminded
+        testData.booking(testData.members(1).get(0), fitnessClass, "CANCELLED");
+    }
+
+    @Test
+    void classRemindersAreSentToEveryConfirmedMember() {
+        NotificationJob job = notificationService.sendClassReminders(fitnessClass.getId());
+        assertEquals("QUEUED", job.getStatus());
+
+        NotificationJob done = awaitCompletion(job);
+        assertEquals(members.size(), done.getTotalCount());
+        assertEquals(members.size(), done.getSentCount());
+        assertEquals(0, done.getFailedCount());
+
+        for (Member member : members) {
+            List<FakeSmtpServer.Message> received = smtpServer.messagesTo(email(member));
+            assertEquals(1, received.size());
+            assertEquals("Class Reminder: " + fitnessClass.getName(), received.get(0).subject());
+            assertTrue(received.get(0).data().contains(fitnessClass.getRoom()));
+        }
+    }
+
+    @Test
+    void temporaryFailuresAreRetried() {
+        String flaky = email(members.get(0));
+        smtpServer.failNext(flaky, 2);
+
+        NotificationJob done = awaitCompletion(notificationService.sendClassReminders(fitnessClass.getId()));
+        assertEquals(members.size(), done.getSentCount());
+        assertEquals(0, done.getFailedCount());
+        assertEquals(2, smtpServer.failuresFor(flaky));
+        assertEquals(1, smtpServer.messagesTo(flaky).size());
+    }
+
+    @Test
+    void emailIsFailedAfterMaxAttempts() {
+        String unreachable = email(members.get(0));
+        smtpServer.failNext(unreachable, Integer.MAX_VALUE);
+
+        NotificationJob done = awaitCompletion(notificationService.sendClassReminders(fitnessClass.getId()));
+        assertEquals(members.size() - 1, done.getSentCount());
+        assertEquals(1, done.getFailedCount());
+        assertEquals(3, smtpServer.failuresFor(unreachable));
+        assertTrue(smtpServer.messagesTo(unreachable).isEmpty());
+        for (Member member : members.subList(1, members.size())) {
+            assertEquals(1, smtpServer.messagesTo(email(member)).size());
+        }
+    }
+
+    private NotificationJob awaitCompletion(NotificationJob job) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            NotificationJob current = notificationService.getJob(job.getId());
+            if ("COMPLETED".equals(current.getStatus()) || "FAILED".equals(current.getStatus())) {
+                assertEquals("COMPLETED", current.getStatus(), current.getError());
+                return current;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("Notification job " + job.getId() + " did not complete within " + TIMEOUT);
+    }
+
+    private static String email(Member member) {
+        return member.getUser().getEmail();
+    }
+}